@@ -0,0 +1,398 @@
+package com.jameschin.java.algorithms;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * ArrayDeque
+ * Growable circular array with the same API as LinkedList, elements are stored contiguously with no node per element.
+ * The array length is a power of two, so indexes wrap around with a mask instead of a division.
+ * Type: List, Queue, Stack, Circular Array, Automatic Geometric Resizing
+ * Space: O(n) where n is the number of elements.
+ * Search: O(1) by index.
+ * Insert: O(1) amortized at head or tail, O(n) otherwise.
+ * Delete: O(1) at head or tail, O(n) otherwise.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class ArrayDeque<E extends Comparable<E>> {
+	private Object[] elements = new Object[16]; // length must be a power of two
+	private int head = 0; // slot of the first element
+	private int size = 0;
+	private final int resizeFactor = 2; // array resize multiplier
+	
+	/**
+	 * Internal function returning the slot of the element at the specified position.
+	 * @param index position of the element in the deque.
+	 * @return slot of the element in the array.
+	 */
+	private int slot(int index) {
+		return (head + index) & (elements.length - 1);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private E elementAt(int index) {
+		return (E) elements[slot(index)];
+	}
+	
+	/**
+	 * Internal function to grow the array when it is full, unwrapping the elements to start at slot 0.
+	 */
+	private void resize() {
+		relocate(elements.length * resizeFactor);
+	}
+	
+	/**
+	 * Internal function to copy the elements into a new array, unwrapped to start at slot 0.
+	 * @param length length of the new array, a power of two no less than size.
+	 */
+	private void relocate(int length) {
+		Object[] newElements = new Object[length];
+		int firstPart = Math.min(size, elements.length - head); // elements before the wrap point
+		System.arraycopy(elements, head, newElements, 0, firstPart);
+		System.arraycopy(elements, 0, newElements, firstPart, size - firstPart);
+		elements = newElements;
+		head = 0;
+	}
+	
+	/**
+	 * Appends the specified element to the end of the deque.
+	 * @param newItem new element to be appended to the deque.
+	 * @return true.
+	 */
+	public boolean add(E newItem) {
+		if (size == elements.length)
+			resize();
+		
+		elements[slot(size)] = newItem;
+		size++;
+		return true;
+	}
+	
+	/**
+	 * Adds the new element to the front of the deque.
+	 * @param newItem new element to be added.
+	 */
+	public void push(E newItem) {
+		if (size == elements.length)
+			resize();
+		
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = newItem;
+		size++;
+	}
+	
+	/**
+	 * Returns true if the deque contains the specified element.
+	 * @param item search item.
+	 * @return true if the deque contains the specified element, false otherwise.
+	 */
+	public boolean contains(E item) {
+		return indexOf(item) >= 0;
+	}
+	
+	/**
+	 * Returns the position of the first occurrence of the specified element.
+	 * @param item search item.
+	 * @return the position of the element, or -1 if the deque does not contain it.
+	 */
+	public int indexOf(E item) {
+		for (int i = 0; i < size; i++) {
+			if (elementAt(i).compareTo(item) == 0)
+				return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns the element at the specified position in the deque.
+	 * @param index index of the element to return.
+	 * @return the element at the specified position in the deque.
+	 */
+	public E get(int index) {
+		if (index >= size || index < 0)
+			return null;
+		return elementAt(index);
+	}
+	
+	/**
+	 * Returns the first element in the deque.
+	 * @return the first element in the deque.
+	 */
+	public E getFirst() {
+		return peek();
+	}
+	
+	/**
+	 * Returns the last element in the deque.
+	 * @return the last element in the deque.
+	 */
+	public E getLast() {
+		return peekLast();
+	}
+	
+	/**
+	 * Returns an array of all items in deque order.
+	 * @return an array of all items in deque order.
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] toArray() {
+		if (size == 0)
+			return null;
+		
+		E[] array = (E[]) Array.newInstance(elements[head].getClass(), size);
+		int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, array, 0, firstPart);
+		System.arraycopy(elements, 0, array, firstPart, size - firstPart);
+		return array;
+	}
+	
+	/**
+	 * Returns the first element of the deque.
+	 * @return the first element of the deque.
+	 */
+	public E peek() {
+		if (size == 0)
+			return null;
+		return elementAt(0);
+	}
+	
+	/**
+	 * Returns the first element of the deque.
+	 * @return the first element of the deque.
+	 */
+	public E peekFirst() {
+		return peek();
+	}
+	
+	/**
+	 * Returns the last element of the deque.
+	 * @return the last element of the deque.
+	 */
+	public E peekLast() {
+		if (size == 0)
+			return null;
+		return elementAt(size - 1);
+	}
+	
+	/**
+	 * Returns and removes the first element of the deque.
+	 * @return the first element of the deque.
+	 */
+	public E poll() {
+		if (size == 0)
+			return null;
+		
+		E temp = elementAt(0);
+		elements[head] = null; // let go of the reference
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return temp;
+	}
+	
+	/**
+	 * Returns and removes the first element of the deque.
+	 * @return the first element of the deque.
+	 */
+	public E pollFirst() {
+		return poll();
+	}
+	
+	/**
+	 * Returns and removes the last element of the deque.
+	 * @return the last element of the deque.
+	 */
+	public E pollLast() {
+		if (size == 0)
+			return null;
+		
+		size--;
+		int last = slot(size);
+		@SuppressWarnings("unchecked")
+		E temp = (E) elements[last];
+		elements[last] = null; // let go of the reference
+		return temp;
+	}
+	
+	/**
+	 * Removes the element at the specified position in the deque. Shifts the shorter side of the deque over the gap.
+	 * @param index index of the element to be removed.
+	 * @return the element previously at the specified position.
+	 */
+	public E remove(int index) {
+		if (index >= size || index < 0)
+			return null;
+		
+		E temp = elementAt(index);
+		
+		if (index < size / 2) { // closer to the head, shift the front elements right
+			for (int i = index; i > 0; i--)
+				elements[slot(i)] = elements[slot(i - 1)];
+			elements[head] = null;
+			head = (head + 1) & (elements.length - 1);
+		} else { // closer to the tail, shift the back elements left
+			for (int i = index; i < size - 1; i++)
+				elements[slot(i)] = elements[slot(i + 1)];
+			elements[slot(size - 1)] = null;
+		}
+		
+		size--;
+		return temp;
+	}
+	
+	/**
+	 * Removes the first occurrence of the specified element from the deque, if it exists. Shifts any subsequent elements to the left.
+	 * @param item element to be removed from the deque.
+	 * @return true if the element was found and removed, false otherwise.
+	 */
+	public boolean remove(E item) {
+		int index = indexOf(item);
+		if (index < 0)
+			return false;
+		
+		remove(index);
+		return true;
+	}
+	
+	/**
+	 * Returns and removes the first element of the deque.
+	 * @return the first element of the deque.
+	 */
+	public E remove() {
+		return poll();
+	}
+	
+	/**
+	 * Returns and removes the first element of the deque.
+	 * @return the first element of the deque.
+	 */
+	public E removeFirst() {
+		return poll();
+	}
+	
+	/**
+	 * Returns and removes the last element of the deque.
+	 * @return the last element of the deque.
+	 */
+	public E removeLast() {
+		return pollLast();
+	}
+	
+	/**
+	 * Returns and removes the first element of the deque.
+	 * @return the first element of the deque.
+	 */
+	public E pop() {
+		return poll();
+	}
+	
+	/**
+	 * Returns the number of elements in the deque.
+	 * @return the number of elements in the deque.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the deque is empty.
+	 * @return true if the deque is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Clear the deque.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++)
+			elements[slot(i)] = null;
+		head = 0;
+		size = 0;
+	}
+	
+	/**
+	 * Replaces the element at the specified position in the deque with the specified element.
+	 * @param index index of the element to replace.
+	 * @param item new element to be stored at the specified position.
+	 * @return the element previously at the specified position.
+	 */
+	public E set(int index, E item) {
+		if (index < 0 || index >= size)
+			return null;
+		
+		int slot = slot(index);
+		@SuppressWarnings("unchecked")
+		E temp = (E) elements[slot];
+		elements[slot] = item;
+		return temp;
+	}
+	
+	/**
+	 * Inserts the element at the specified position in the deque. Shifts the shorter side of the deque to make room.
+	 * @param index index to store the new element.
+	 * @param newItem new element to be stored at the specified position.
+	 * @return true if the element was successfully inserted, false if not.
+	 */
+	public boolean insert(int index, E newItem) {
+		if (index < 0 || index > size)
+			return false;
+		
+		if (size == elements.length)
+			resize();
+		
+		if (index < size / 2) { // closer to the head, shift the front elements left
+			head = (head - 1) & (elements.length - 1);
+			for (int i = 0; i < index; i++)
+				elements[slot(i)] = elements[slot(i + 1)];
+		} else { // closer to the tail, shift the back elements right
+			for (int i = size; i > index; i--)
+				elements[slot(i)] = elements[slot(i - 1)];
+		}
+		
+		elements[slot(index)] = newItem;
+		size++;
+		return true;
+	}
+	
+	/**
+	 * Reverses the order of the deque.
+	 */
+	public void reverse() {
+		for (int i = 0, j = size - 1; i < j; i++, j--) {
+			int left = slot(i);
+			int right = slot(j);
+			Object temp = elements[left];
+			elements[left] = elements[right];
+			elements[right] = temp;
+		}
+	}
+	
+	/**
+	 * Stable sort of the elements in the deque in natural order.
+	 */
+	public void sort() {
+		sort(false);
+	}
+	
+	/**
+	 * Stable sort of the elements in the deque in natural order, on the contiguous array in place.
+	 * A deque wrapping around the end of the array is first unwrapped to start at slot 0.
+	 * Time: O(n log n), O(n) if the deque is already sorted or reversed.
+	 * @param parallel true to sort parts of the deque on separate cores of the common ForkJoinPool, then merge them.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void sort(boolean parallel) {
+		if (size <= 1)
+			return;
+		
+		if (head + size > elements.length) // wrapped around
+			relocate(elements.length);
+		
+		if (parallel)
+			Arrays.parallelSort(elements, head, head + size, (Comparator<Object>) (Comparator) Comparator.naturalOrder());
+		else
+			Arrays.sort(elements, head, head + size);
+	}
+}
\ No newline at end of file
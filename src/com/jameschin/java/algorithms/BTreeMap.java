@@ -0,0 +1,475 @@
+package com.jameschin.java.algorithms;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * BTreeMap
+ * Sorted map storing up to MAX_KEYS keys per node in arrays, so a lookup touches a few wide nodes instead of a long chain of small ones.
+ * Mappings live in the leaves, which are linked in key order for sequential scans. Internal nodes hold separator keys only.
+ * Null values allowed.
+ * Type: Sorted, Comparative, B+ Tree, Binary Search within Nodes
+ * Space: O(n)
+ * Search: O(log n)
+ * Insert: O(log n)
+ * Delete: O(log n) where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class BTreeMap<K extends Comparable<K>, V> {
+	private final int MAX_KEYS = 64; // keys per node before it splits
+	private final int MIN_KEYS = MAX_KEYS / 2; // keys per non-root node before it borrows or merges
+	private Node root = new Node(true);
+	private int size = 0;
+	private V previousValue; // value replaced by the last recursive put
+	private K splitKey; // separator produced by the last split
+	private boolean removed; // true if the last recursive remove found the key
+	
+	private class Node {
+		final boolean leaf;
+		int count = 0; // number of keys held
+		final Object[] keys = new Object[MAX_KEYS + 1]; // one spare slot, a node splits after it overflows
+		final Object[] values; // leaf only, values[i] is mapped to keys[i]
+		final Node[] children; // internal only, children[i] holds keys less than keys[i], children[count] holds the rest
+		Node next = null; // leaf only, next leaf in key order
+		
+		@SuppressWarnings("unchecked")
+		Node (boolean isLeaf) {
+			leaf = isLeaf;
+			values = isLeaf ? new Object[MAX_KEYS + 1] : null;
+			children = isLeaf ? null : (Node[]) Array.newInstance(Node.class, MAX_KEYS + 2);
+		}
+		
+		@SuppressWarnings("unchecked")
+		K key(int i) {
+			return (K) keys[i];
+		}
+		
+		@SuppressWarnings("unchecked")
+		V value(int i) {
+			return (V) values[i];
+		}
+		
+		/**
+		 * Binary search of the keys held in this node.
+		 * @param key search key.
+		 * @return index of the key, or (-(insertion point) - 1) if the key is not held.
+		 */
+		int search(K key) {
+			int lo = 0;
+			int hi = count - 1;
+			
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1;
+				int compare = key(mid).compareTo(key);
+				if (compare < 0)
+					lo = mid + 1;
+				else if (compare > 0)
+					hi = mid - 1;
+				else
+					return mid;
+			}
+			return -(lo + 1);
+		}
+		
+		/**
+		 * Returns the index of the child whose subtree covers the key, keys equal to a separator go right.
+		 * @param key search key.
+		 * @return index of the child covering the key.
+		 */
+		int childIndex(K key) {
+			int i = search(key);
+			return (i >= 0) ? i + 1 : -i - 1;
+		}
+	}
+	
+	/**
+	 * Associates the specified value with the specified key in this map.
+	 * If the map previously contained a mapping for the key, the old value is replaced.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 * @return the previous value associated with the key, or null if there was no mapping for the key.
+	 */
+	public V put(K newKey, V newValue) {
+		previousValue = null;
+		Node right = put(root, newKey, newValue);
+		
+		if (right != null) { // root split, grow the tree by one level
+			Node newRoot = new Node(false);
+			newRoot.keys[0] = splitKey;
+			newRoot.children[0] = root;
+			newRoot.children[1] = right;
+			newRoot.count = 1;
+			root = newRoot;
+		}
+		
+		return previousValue;
+	}
+	
+	/**
+	 * Recursive internal put function, splitting overflowing nodes on the way back up.
+	 * @param node root of the tree/sub-tree to insert into.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 * @return the new right sibling if node was split, with its separator in splitKey, or null if not.
+	 */
+	private Node put(Node node, K newKey, V newValue) {
+		if (node.leaf) {
+			int i = node.search(newKey);
+			if (i >= 0) {
+				previousValue = node.value(i);
+				node.values[i] = newValue;
+				return null;
+			}
+			
+			i = -i - 1;
+			System.arraycopy(node.keys, i, node.keys, i + 1, node.count - i);
+			System.arraycopy(node.values, i, node.values, i + 1, node.count - i);
+			node.keys[i] = newKey;
+			node.values[i] = newValue;
+			node.count++;
+			size++;
+		} else {
+			int i = node.childIndex(newKey);
+			Node right = put(node.children[i], newKey, newValue);
+			if (right == null)
+				return null;
+			
+			// adopt the split-off child to the right of its sibling
+			System.arraycopy(node.keys, i, node.keys, i + 1, node.count - i);
+			System.arraycopy(node.children, i + 1, node.children, i + 2, node.count - i);
+			node.keys[i] = splitKey;
+			node.children[i + 1] = right;
+			node.count++;
+		}
+		
+		return (node.count > MAX_KEYS) ? split(node) : null;
+	}
+	
+	/**
+	 * Internal function to split an overflowing node in half.
+	 * @param node node to split.
+	 * @return the new right half, with its separator in splitKey.
+	 */
+	private Node split(Node node) {
+		Node right = new Node(node.leaf);
+		int mid = node.count / 2;
+		
+		if (node.leaf) { // copy the middle key up, it stays in the right leaf
+			right.count = node.count - mid;
+			System.arraycopy(node.keys, mid, right.keys, 0, right.count);
+			System.arraycopy(node.values, mid, right.values, 0, right.count);
+			Arrays.fill(node.keys, mid, node.count, null);
+			Arrays.fill(node.values, mid, node.count, null);
+			right.next = node.next;
+			node.next = right;
+			splitKey = right.key(0);
+		} else { // move the middle key up
+			right.count = node.count - mid - 1;
+			System.arraycopy(node.keys, mid + 1, right.keys, 0, right.count);
+			System.arraycopy(node.children, mid + 1, right.children, 0, right.count + 1);
+			splitKey = node.key(mid);
+			Arrays.fill(node.keys, mid, node.count, null);
+			Arrays.fill(node.children, mid + 1, node.count + 1, null);
+		}
+		
+		node.count = mid;
+		return right;
+	}
+	
+	/**
+	 * Returns the leaf whose key range covers the key.
+	 * @param key search key.
+	 * @return the leaf covering the key.
+	 */
+	private Node leafOf(K key) {
+		Node node = root;
+		
+		while (!node.leaf)
+			node = node.children[node.childIndex(key)];
+		
+		return node;
+	}
+	
+	/**
+	 * Returns true if there is a mapping for the specified key.
+	 * @param key search key.
+	 * @return true if there is a mapping for the specified key, false if not.
+	 */
+	public boolean containsKey(K key) {
+		return leafOf(key).search(key) >= 0;
+	}
+	
+	/**
+	 * Returns the value to which the specified key is mapped.
+	 * @param key the key whose associated value is to be returned.
+	 * @return the value to which the specified key is mapped, or null if there exists no mapping for the key.
+	 */
+	public V get(K key) {
+		Node leaf = leafOf(key);
+		int i = leaf.search(key);
+		
+		return (i >= 0) ? leaf.value(i) : null;
+	}
+	
+	/**
+	 * Clear the map.
+	 */
+	public void clear() {
+		root = new Node(true);
+		size = 0;
+	}
+	
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 * @return the number of key-value mappings in this map.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the map is empty.
+	 * @return true if the map is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Returns the first key in the map.
+	 * @return the first key in the map, or null if the map is empty.
+	 */
+	public K firstKey() {
+		if (size == 0)
+			return null;
+		
+		Node node = root;
+		
+		while (!node.leaf)
+			node = node.children[0];
+		
+		return node.key(0);
+	}
+	
+	/**
+	 * Returns the last key in the map.
+	 * @return the last key in the map, or null if the map is empty.
+	 */
+	public K lastKey() {
+		if (size == 0)
+			return null;
+		
+		Node node = root;
+		
+		while (!node.leaf)
+			node = node.children[node.count];
+		
+		return node.key(node.count - 1);
+	}
+	
+	/**
+	 * Remove the mapping associated with the key, if it exists.
+	 * @param key key for which the mapping should be removed.
+	 * @return true if the mapping was found in the map and removed, false if not.
+	 */
+	public boolean remove(K key) {
+		removed = false;
+		remove(root, key);
+		
+		if (!root.leaf && root.count == 0) // root lost its last separator, shrink the tree by one level
+			root = root.children[0];
+		
+		return removed;
+	}
+	
+	/**
+	 * Recursive internal remove function, refilling underflowing children on the way back up.
+	 * @param node root of the tree/sub-tree to search.
+	 * @param key key for which the mapping should be removed.
+	 */
+	private void remove(Node node, K key) {
+		if (node.leaf) {
+			int i = node.search(key);
+			if (i < 0)
+				return;
+			
+			System.arraycopy(node.keys, i + 1, node.keys, i, node.count - i - 1);
+			System.arraycopy(node.values, i + 1, node.values, i, node.count - i - 1);
+			node.count--;
+			node.keys[node.count] = null;
+			node.values[node.count] = null;
+			size--;
+			removed = true;
+			return;
+		}
+		
+		int i = node.childIndex(key);
+		remove(node.children[i], key);
+		if (node.children[i].count < MIN_KEYS)
+			refill(node, i);
+	}
+	
+	/**
+	 * Internal function to refill an underflowing child, borrowing from a sibling if it can spare a key and merging with one if not.
+	 * @param parent parent of the underflowing child.
+	 * @param i index of the underflowing child.
+	 */
+	private void refill(Node parent, int i) {
+		Node child = parent.children[i];
+		
+		if (i > 0 && parent.children[i - 1].count > MIN_KEYS) { // BORROW FROM LEFT SIBLING
+			Node left = parent.children[i - 1];
+			System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+			if (child.leaf) {
+				System.arraycopy(child.values, 0, child.values, 1, child.count);
+				child.keys[0] = left.keys[left.count - 1];
+				child.values[0] = left.values[left.count - 1];
+				left.values[left.count - 1] = null;
+				parent.keys[i - 1] = child.keys[0];
+			} else { // rotate the separator down and the left sibling's last key up
+				System.arraycopy(child.children, 0, child.children, 1, child.count + 1);
+				child.keys[0] = parent.keys[i - 1];
+				child.children[0] = left.children[left.count];
+				left.children[left.count] = null;
+				parent.keys[i - 1] = left.keys[left.count - 1];
+			}
+			left.keys[left.count - 1] = null;
+			left.count--;
+			child.count++;
+		} else if (i < parent.count && parent.children[i + 1].count > MIN_KEYS) { // BORROW FROM RIGHT SIBLING
+			Node right = parent.children[i + 1];
+			if (child.leaf) {
+				child.keys[child.count] = right.keys[0];
+				child.values[child.count] = right.values[0];
+				System.arraycopy(right.values, 1, right.values, 0, right.count - 1);
+				right.values[right.count - 1] = null;
+				parent.keys[i] = right.keys[1];
+			} else { // rotate the separator down and the right sibling's first key up
+				child.keys[child.count] = parent.keys[i];
+				child.children[child.count + 1] = right.children[0];
+				parent.keys[i] = right.keys[0];
+				System.arraycopy(right.children, 1, right.children, 0, right.count);
+				right.children[right.count] = null;
+			}
+			System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+			right.keys[right.count - 1] = null;
+			right.count--;
+			child.count++;
+		} else if (i > 0) // MERGE WITH LEFT SIBLING
+			merge(parent, i - 1);
+		else // MERGE WITH RIGHT SIBLING
+			merge(parent, i);
+	}
+	
+	/**
+	 * Internal function to merge two adjacent children and drop the separator between them.
+	 * @param parent parent of the children.
+	 * @param i index of the left child, the child at i + 1 is merged into it.
+	 */
+	private void merge(Node parent, int i) {
+		Node left = parent.children[i];
+		Node right = parent.children[i + 1];
+		
+		if (left.leaf) {
+			System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+			System.arraycopy(right.values, 0, left.values, left.count, right.count);
+			left.count += right.count;
+			left.next = right.next;
+		} else { // the separator comes down between the two key runs
+			left.keys[left.count] = parent.keys[i];
+			System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+			System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+			left.count += right.count + 1;
+		}
+		
+		System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.count - i - 1);
+		System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.count - i - 1);
+		parent.count--;
+		parent.keys[parent.count] = null;
+		parent.children[parent.count + 1] = null;
+	}
+	
+	/**
+	 * Returns a cursor over all mappings in key order.
+	 * The map must not be modified while the cursor is in use.
+	 * @return a cursor positioned before the first mapping.
+	 */
+	public Cursor cursor() {
+		return new Cursor(null, null);
+	}
+	
+	/**
+	 * Returns a cursor over the mappings whose keys range from fromKey, inclusive, to toKey, exclusive.
+	 * The map must not be modified while the cursor is in use.
+	 * @param fromKey low endpoint (inclusive), or null for no lower bound.
+	 * @param toKey high endpoint (exclusive), or null for no upper bound.
+	 * @return a cursor positioned before the first mapping in range.
+	 */
+	public Cursor cursor(K fromKey, K toKey) {
+		return new Cursor(fromKey, toKey);
+	}
+	
+	/**
+	 * Cursor over the mappings of the map in key order, call advance() before reading each mapping.
+	 * Walks the linked leaves, so advancing allocates nothing.
+	 */
+	public final class Cursor {
+		private final K toKey; // exclusive upper bound, null if unbounded
+		private Node leaf; // leaf holding the next mapping
+		private int index; // index of the next mapping within leaf
+		private Node currentLeaf = null;
+		private int currentIndex;
+		
+		private Cursor(K fromKey, K toKey) {
+			this.toKey = toKey;
+			
+			if (fromKey == null) {
+				leaf = root;
+				while (!leaf.leaf)
+					leaf = leaf.children[0];
+				index = 0;
+			} else {
+				leaf = leafOf(fromKey);
+				int i = leaf.search(fromKey);
+				index = (i >= 0) ? i : -i - 1;
+			}
+		}
+		
+		/**
+		 * Moves the cursor to the next mapping.
+		 * @return true if the cursor is at a mapping, false if there are no more mappings in range.
+		 */
+		public boolean advance() {
+			while (leaf != null && index >= leaf.count) {
+				leaf = leaf.next;
+				index = 0;
+			}
+			
+			if (leaf == null || (toKey != null && leaf.key(index).compareTo(toKey) >= 0)) {
+				leaf = null;
+				currentLeaf = null;
+				return false;
+			}
+			
+			currentLeaf = leaf;
+			currentIndex = index++;
+			return true;
+		}
+		
+		/**
+		 * Returns the key of the current mapping.
+		 * @return the key of the current mapping.
+		 */
+		public K key() {
+			return currentLeaf.key(currentIndex);
+		}
+		
+		/**
+		 * Returns the value of the current mapping.
+		 * @return the value of the current mapping.
+		 */
+		public V value() {
+			return currentLeaf.value(currentIndex);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,485 @@
+package com.jameschin.java.algorithms;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * ChunkedList
+ * Unrolled linked list with the same API as LinkedList, each node holds up to CHUNK_SIZE elements in an array.
+ * Positional operations skip a whole chunk per step, and inserting in the middle shifts at most one chunk.
+ * A full chunk is split in half, a chunk less than half full is merged with its successor when they fit in one chunk.
+ * Type: List, Queue, Stack, Unrolled Doubly Linked List
+ * Space: O(n) where n is the number of elements.
+ * Search: O(1) from head or tail, O(n / CHUNK_SIZE) otherwise.
+ * Insert: O(CHUNK_SIZE) from head or tail, O(n / CHUNK_SIZE + CHUNK_SIZE) otherwise.
+ * Delete: O(CHUNK_SIZE) from head or tail, O(n / CHUNK_SIZE + CHUNK_SIZE) otherwise.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class ChunkedList<E extends Comparable<E>> {
+	private final int CHUNK_SIZE = 64; // elements per chunk
+	private Chunk head = null;
+	private Chunk end = null;
+	private int size = 0;
+	private int offset; // position within the chunk returned by the last call to locate()
+	
+	private class Chunk {
+		final Object[] elements = new Object[CHUNK_SIZE];
+		int count = 0; // number of elements held
+		Chunk prev = null;
+		Chunk next = null;
+		
+		@SuppressWarnings("unchecked")
+		E get(int i) {
+			return (E) elements[i];
+		}
+	}
+	
+	/**
+	 * Internal function finding the chunk holding the element at the specified position, walking from the nearer end.
+	 * The position within the chunk is left in offset.
+	 * @param index position of the element, 0 <= index < size.
+	 * @return the chunk holding the element.
+	 */
+	private Chunk locate(int index) {
+		Chunk chunk;
+		
+		if (index < size / 2) {
+			chunk = head;
+			while (index >= chunk.count) { // skip whole chunks
+				index -= chunk.count;
+				chunk = chunk.next;
+			}
+		} else {
+			index = size - 1 - index; // distance from the end
+			chunk = end;
+			while (index >= chunk.count) {
+				index -= chunk.count;
+				chunk = chunk.prev;
+			}
+			index = chunk.count - 1 - index;
+		}
+		
+		offset = index;
+		return chunk;
+	}
+	
+	/**
+	 * Internal function to link a new empty chunk after the specified chunk, or at the head if it is null.
+	 * @param chunk chunk to link after, or null to link at the head.
+	 * @return the new chunk.
+	 */
+	private Chunk linkAfter(Chunk chunk) {
+		Chunk newChunk = new Chunk();
+		
+		if (chunk == null) {
+			newChunk.next = head;
+			if (head != null)
+				head.prev = newChunk;
+			head = newChunk;
+		} else {
+			newChunk.prev = chunk;
+			newChunk.next = chunk.next;
+			if (chunk.next != null)
+				chunk.next.prev = newChunk;
+			chunk.next = newChunk;
+		}
+		if (newChunk.next == null)
+			end = newChunk;
+		
+		return newChunk;
+	}
+	
+	/**
+	 * Internal function to unlink an empty chunk.
+	 * @param chunk chunk to unlink.
+	 */
+	private void unlink(Chunk chunk) {
+		if (chunk.prev == null)
+			head = chunk.next;
+		else
+			chunk.prev.next = chunk.next;
+		
+		if (chunk.next == null)
+			end = chunk.prev;
+		else
+			chunk.next.prev = chunk.prev;
+	}
+	
+	/**
+	 * Internal function to insert an element into a chunk which is not full.
+	 * @param chunk chunk to insert into.
+	 * @param i position within the chunk.
+	 * @param newItem element to insert.
+	 */
+	private void insertInto(Chunk chunk, int i, E newItem) {
+		System.arraycopy(chunk.elements, i, chunk.elements, i + 1, chunk.count - i);
+		chunk.elements[i] = newItem;
+		chunk.count++;
+		size++;
+	}
+	
+	/**
+	 * Internal function to remove an element from a chunk, then unlink the chunk if empty or merge it with its successor if both fit in one.
+	 * @param chunk chunk to remove from.
+	 * @param i position within the chunk.
+	 * @return the element removed.
+	 */
+	private E removeFrom(Chunk chunk, int i) {
+		E temp = chunk.get(i);
+		System.arraycopy(chunk.elements, i + 1, chunk.elements, i, chunk.count - i - 1);
+		chunk.count--;
+		chunk.elements[chunk.count] = null;
+		size--;
+		
+		if (chunk.count == 0)
+			unlink(chunk);
+		else if (chunk.count < CHUNK_SIZE / 2 && chunk.next != null && chunk.count + chunk.next.count <= CHUNK_SIZE) {
+			Chunk next = chunk.next;
+			System.arraycopy(next.elements, 0, chunk.elements, chunk.count, next.count);
+			chunk.count += next.count;
+			unlink(next);
+		}
+		
+		return temp;
+	}
+	
+	/**
+	 * Appends the specified element to the end of the list.
+	 * @param newItem new element to be appended to the list.
+	 * @return true.
+	 */
+	public boolean add(E newItem) {
+		Chunk chunk = end;
+		if (chunk == null || chunk.count == CHUNK_SIZE)
+			chunk = linkAfter(end);
+		
+		insertInto(chunk, chunk.count, newItem);
+		return true;
+	}
+	
+	/**
+	 * Adds the new element to the front of the list.
+	 * @param newItem new element to be added.
+	 */
+	public void push(E newItem) {
+		Chunk chunk = head;
+		if (chunk == null || chunk.count == CHUNK_SIZE)
+			chunk = linkAfter(null);
+		
+		insertInto(chunk, 0, newItem);
+	}
+	
+	/**
+	 * Inserts the element at the specified position in the list. Shifts any subsequent elements to the right.
+	 * @param index index to store the new element.
+	 * @param newItem new element to be stored at the specified position.
+	 * @return true if the element was successfully inserted, false if not.
+	 */
+	public boolean insert(int index, E newItem) {
+		if (index < 0 || index > size)
+			return false;
+		
+		if (index == size)
+			return add(newItem);
+		
+		Chunk chunk = locate(index);
+		int i = offset;
+		
+		if (chunk.count == CHUNK_SIZE) { // split the full chunk, moving its upper half into a new chunk
+			Chunk upper = linkAfter(chunk);
+			int half = CHUNK_SIZE / 2;
+			System.arraycopy(chunk.elements, half, upper.elements, 0, CHUNK_SIZE - half);
+			Arrays.fill(chunk.elements, half, CHUNK_SIZE, null);
+			upper.count = CHUNK_SIZE - half;
+			chunk.count = half;
+			if (i > half) {
+				chunk = upper;
+				i -= half;
+			}
+		}
+		
+		insertInto(chunk, i, newItem);
+		return true;
+	}
+	
+	/**
+	 * Returns true if the list contains the specified element.
+	 * @param item search item.
+	 * @return true if the list contains the specified element, false otherwise.
+	 */
+	public boolean contains(E item) {
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			for (int i = 0; i < chunk.count; i++) {
+				if (chunk.get(i).compareTo(item) == 0)
+					return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the element at the specified position in the list.
+	 * @param index index of the element to return.
+	 * @return the element at the specified position in the list.
+	 */
+	public E get(int index) {
+		if (index >= size || index < 0)
+			return null;
+		
+		Chunk chunk = locate(index);
+		return chunk.get(offset);
+	}
+	
+	/**
+	 * Replaces the element at the specified position in the list with the specified element.
+	 * @param index index of the element to replace.
+	 * @param item new element to be stored at the specified position.
+	 * @return the element previously at the specified position.
+	 */
+	public E set(int index, E item) {
+		if (index < 0 || index >= size)
+			return null;
+		
+		Chunk chunk = locate(index);
+		E temp = chunk.get(offset);
+		chunk.elements[offset] = item;
+		return temp;
+	}
+	
+	/**
+	 * Returns the first element in the list.
+	 * @return the first element in the list.
+	 */
+	public E getFirst() {
+		return peek();
+	}
+	
+	/**
+	 * Returns the last element in the list.
+	 * @return the last element in the list.
+	 */
+	public E getLast() {
+		return peekLast();
+	}
+	
+	/**
+	 * Returns an array of all items in list order.
+	 * @return an array of all items in list order.
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] toArray() {
+		if (head == null)
+			return null;
+		
+		E[] array = (E[]) Array.newInstance(head.elements[0].getClass(), size);
+		int index = 0;
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			System.arraycopy(chunk.elements, 0, array, index, chunk.count);
+			index += chunk.count;
+		}
+		return array;
+	}
+	
+	/**
+	 * Returns the first element of the list.
+	 * @return the first element of the list.
+	 */
+	public E peek() {
+		if (head == null)
+			return null;
+		return head.get(0);
+	}
+	
+	/**
+	 * Returns the first element of the list.
+	 * @return the first element of the list.
+	 */
+	public E peekFirst() {
+		return peek();
+	}
+	
+	/**
+	 * Returns the last element of the list.
+	 * @return the last element of the list.
+	 */
+	public E peekLast() {
+		if (end == null)
+			return null;
+		return end.get(end.count - 1);
+	}
+	
+	/**
+	 * Returns and removes the first element of the list.
+	 * @return the first element of the list.
+	 */
+	public E poll() {
+		if (head == null)
+			return null;
+		return removeFrom(head, 0);
+	}
+	
+	/**
+	 * Returns and removes the first element of the list.
+	 * @return the first element of the list.
+	 */
+	public E pollFirst() {
+		return poll();
+	}
+	
+	/**
+	 * Returns and removes the last element of the list.
+	 * @return the last element of the list.
+	 */
+	public E pollLast() {
+		if (end == null)
+			return null;
+		return removeFrom(end, end.count - 1);
+	}
+	
+	/**
+	 * Removes the element at the specified position in the list. Shifts any subsequent elements to the left.
+	 * @param index index of the element to be removed.
+	 * @return the element previously at the specified position.
+	 */
+	public E remove(int index) {
+		if (index >= size || index < 0)
+			return null;
+		
+		Chunk chunk = locate(index);
+		return removeFrom(chunk, offset);
+	}
+	
+	/**
+	 * Removes the first occurrence of the specified element from the list, if it exists. Shifts any subsequent elements to the left.
+	 * @param item element to be removed from the list.
+	 * @return true if the element was found and removed, false otherwise.
+	 */
+	public boolean remove(E item) {
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			for (int i = 0; i < chunk.count; i++) {
+				if (chunk.get(i).compareTo(item) == 0) {
+					removeFrom(chunk, i);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns and removes the first element of the list.
+	 * @return the first element of the list.
+	 */
+	public E remove() {
+		return poll();
+	}
+	
+	/**
+	 * Returns and removes the first element of the list.
+	 * @return the first element of the list.
+	 */
+	public E removeFirst() {
+		return poll();
+	}
+	
+	/**
+	 * Returns and removes the last element of the list.
+	 * @return the last element of the list.
+	 */
+	public E removeLast() {
+		return pollLast();
+	}
+	
+	/**
+	 * Returns and removes the first element of the list.
+	 * @return the first element of the list.
+	 */
+	public E pop() {
+		return poll();
+	}
+	
+	/**
+	 * Returns the number of elements in the list.
+	 * @return the number of elements in the list.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the list is empty.
+	 * @return true if the list is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Clear the list.
+	 */
+	public void clear() {
+		head = null;
+		end = null;
+		size = 0;
+	}
+	
+	/**
+	 * Reverses the order of the list, by reversing the links between chunks and the elements within each chunk.
+	 */
+	public void reverse() {
+		for (Chunk chunk = head; chunk != null; chunk = chunk.prev) { // prev is the old next once swapped
+			Chunk temp = chunk.next;
+			chunk.next = chunk.prev;
+			chunk.prev = temp;
+			
+			for (int i = 0, j = chunk.count - 1; i < j; i++, j--) {
+				Object element = chunk.elements[i];
+				chunk.elements[i] = chunk.elements[j];
+				chunk.elements[j] = element;
+			}
+		}
+		
+		Chunk temp = head;
+		head = end;
+		end = temp;
+	}
+	
+	/**
+	 * Stable sort of the elements in the list in natural order.
+	 */
+	public void sort() {
+		sort(false);
+	}
+	
+	/**
+	 * Stable sort of the elements in the list in natural order.
+	 * The elements are gathered into one array, sorted, then written back into the same chunks, which keep their counts.
+	 * Space: O(n)
+	 * Time: O(n log n), O(n) if the list is already sorted or reversed.
+	 * @param parallel true to sort parts of the list on separate cores of the common ForkJoinPool, then merge them.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void sort(boolean parallel) {
+		if (size <= 1)
+			return;
+		
+		Object[] array = new Object[size];
+		int index = 0;
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			System.arraycopy(chunk.elements, 0, array, index, chunk.count);
+			index += chunk.count;
+		}
+		
+		if (parallel)
+			Arrays.parallelSort(array, (Comparator<Object>) (Comparator) Comparator.naturalOrder());
+		else
+			Arrays.sort(array);
+		
+		index = 0;
+		for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+			System.arraycopy(array, index, chunk.elements, 0, chunk.count);
+			index += chunk.count;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,487 @@
+package com.jameschin.java.algorithms;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ConcurrentHashMap
+ * Thread-safe HashMap with the same linked list buckets.
+ * Reads take no locks. Writes claim an empty bucket with a single compare-and-set, otherwise lock only the first node of the bucket.
+ * Resizing is cooperative: the table is split into strides which any writing thread may claim and transfer,
+ * transferred buckets are marked with a forwarding node so that readers continue in the resized table.
+ * Type: Unsorted Linked List Bucket, Per-Bucket Locking, Lock-Free Reads, Cooperative Geometric Resizing
+ * Space: O(n)
+ * Best: O(1)
+ * Worst: O(n) where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class ConcurrentHashMap<K, V> {
+	private final int MOVED = -1; // hash of a forwarding node
+	private final int RESERVED = -2; // hash of a placeholder held while computeIfAbsent fills an empty bucket
+	private volatile AtomicReferenceArray<Node> mTable;
+	private volatile int threshold; // size threshold of the current table before resizing
+	private final AtomicReference<Resize> resize = new AtomicReference<Resize>(); // resize in progress, null otherwise
+	private final LongAdder size = new LongAdder(); // number of mappings contained, striped to avoid contention
+	private final double loadFactor = 0.75; // size/tableSize ratio threshold before resizing
+	private final int resizeFactor = 2; // table resize multiplier
+	private final int transferStride = 16; // buckets claimed at a time by a thread helping to resize
+	
+	ConcurrentHashMap() {
+		int tableSize = 16; // number of table buckets, must be a power of two
+		mTable = new AtomicReferenceArray<Node>(tableSize);
+		threshold = (int) (tableSize * loadFactor);
+	}
+	
+	private class Node {
+		final int hash;
+		final K mKey;
+		volatile V mValue;
+		volatile Node next;
+		
+		Node(int hash, K key, V value, Node next) {
+			this.hash = hash;
+			mKey = key;
+			mValue = value;
+			this.next = next;
+		}
+	}
+	
+	/**
+	 * Marks a bucket that has been transferred into nextTable.
+	 */
+	private final class ForwardingNode extends Node {
+		final AtomicReferenceArray<Node> nextTable;
+		
+		ForwardingNode(AtomicReferenceArray<Node> nextTable) {
+			super(MOVED, null, null, null);
+			this.nextTable = nextTable;
+		}
+	}
+	
+	/**
+	 * State of a resize shared by every thread helping with it.
+	 */
+	private final class Resize {
+		final AtomicReferenceArray<Node> oldTable;
+		final AtomicReferenceArray<Node> nextTable;
+		final AtomicInteger transferIndex = new AtomicInteger(0); // next bucket to be claimed
+		final AtomicInteger transferred = new AtomicInteger(0); // number of buckets transferred so far
+		
+		Resize(AtomicReferenceArray<Node> oldTable) {
+			this.oldTable = oldTable;
+			nextTable = new AtomicReferenceArray<Node>(oldTable.length() * resizeFactor);
+		}
+	}
+	
+	/**
+	 * Internal function to hash the key.
+	 * Spreads the higher bits of key.hashCode() downward and clears the sign bit, which is reserved for forwarding and placeholder nodes.
+	 * @param key key to be hashed.
+	 * @return non-negative spread hash, masked with (table length - 1) to find the bucket.
+	 */
+	private int hashFunction(Object key) {
+		int h = key.hashCode();
+		return (h ^ (h >>> 16)) & 0x7fffffff;
+	}
+	
+	/**
+	 * Returns the value to which the specified key is mapped. Takes no locks.
+	 * @param key the key whose associated value is to be returned.
+	 * @return the value to which the specified key is mapped, or null if there exists no mapping for the key.
+	 */
+	public V get(K key) {
+		if (key == null)
+			return null;
+		
+		int hash = hashFunction(key);
+		AtomicReferenceArray<Node> table = mTable;
+		
+		while (true) {
+			Node currentNode = table.get(hash & (table.length() - 1));
+			
+			if (currentNode == null || currentNode.hash == RESERVED)
+				return null;
+			if (currentNode.hash == MOVED) { // bucket already transferred, continue in the resized table
+				table = ((ForwardingNode) currentNode).nextTable;
+				continue;
+			}
+			
+			while (currentNode != null) {
+				if (currentNode.hash == hash && (currentNode.mKey == key || currentNode.mKey.equals(key)))
+					return currentNode.mValue;
+				currentNode = currentNode.next;
+			}
+			return null; // key not found
+		}
+	}
+	
+	/**
+	 * Returns true if there is a mapping for the specified key.
+	 * @param key search key.
+	 * @return true if there is a mapping for the specified key, false if not.
+	 */
+	public boolean containsKey(K key) {
+		return get(key) != null;
+	}
+	
+	/**
+	 * Associates the specified value with the specified key in this map.
+	 * If the map previously contained a mapping for the key, the old value is replaced.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added, must not be null.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	public V put(K newKey, V newValue) {
+		return put(newKey, newValue, false);
+	}
+	
+	/**
+	 * Associates the specified value with the specified key in this map, atomically, only if the key is not already mapped.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added, must not be null.
+	 * @return the value currently associated with key, or null if there was no mapping for the key and newValue was added.
+	 */
+	public V putIfAbsent(K newKey, V newValue) {
+		return put(newKey, newValue, true);
+	}
+	
+	/**
+	 * Internal put function shared by put() and putIfAbsent().
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 * @param onlyIfAbsent true to leave an existing mapping unchanged.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	private V put(K newKey, V newValue, boolean onlyIfAbsent) {
+		if (newKey == null || newValue == null)
+			return null;
+		
+		int hash = hashFunction(newKey);
+		AtomicReferenceArray<Node> table = mTable;
+		
+		while (true) {
+			int index = hash & (table.length() - 1);
+			Node first = table.get(index);
+			
+			if (first == null) { // table bucket is empty, claim it without locking
+				if (table.compareAndSet(index, null, new Node(hash, newKey, newValue, null)))
+					break;
+				continue; // lost the race, retry
+			}
+			
+			if (first.hash == MOVED) {
+				table = helpResize(table, (ForwardingNode) first);
+				continue;
+			}
+			
+			synchronized (first) {
+				if (table.get(index) != first)
+					continue; // bucket changed before the lock was taken, retry
+				
+				if (first.hash != RESERVED) {
+					Node currentNode = first;
+					
+					// check if key is already mapped
+					while (true) {
+						if (currentNode.hash == hash && (currentNode.mKey == newKey || currentNode.mKey.equals(newKey))) {
+							V temp = currentNode.mValue;
+							if (! onlyIfAbsent)
+								currentNode.mValue = newValue;
+							return temp;
+						} else if (currentNode.next == null)
+							break;
+						else
+							currentNode = currentNode.next;
+					}
+					
+					// key is not already mapped, currentNode.next == null
+					currentNode.next = new Node(hash, newKey, newValue, null);
+					break;
+				}
+			}
+			// placeholder was replaced once its lock was released, retry
+		}
+		
+		addCount(1, table);
+		return null;
+	}
+	
+	/**
+	 * If the key is not already mapped, computes its value with the mapping function and adds it, atomically.
+	 * The mapping function is called at most once and holds the bucket lock, so it should be short and must not modify this map.
+	 * @param key key of the item to be found or added.
+	 * @param mappingFunction function computing the value for a missing key, returning null adds no mapping.
+	 * @return the current (existing or computed) value associated with the key, or null if the computed value is null.
+	 */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		if (key == null || mappingFunction == null)
+			return null;
+		
+		int hash = hashFunction(key);
+		AtomicReferenceArray<Node> table = mTable;
+		V value = null;
+		
+		while (true) {
+			int index = hash & (table.length() - 1);
+			Node first = table.get(index);
+			
+			if (first == null) { // table bucket is empty, hold it with a locked placeholder while computing
+				Node placeholder = new Node(RESERVED, null, null, null);
+				synchronized (placeholder) {
+					if (table.compareAndSet(index, null, placeholder)) {
+						try {
+							value = mappingFunction.apply(key);
+						} finally {
+							table.set(index, (value != null) ? new Node(hash, key, value, null) : null);
+						}
+						if (value == null)
+							return null;
+						break;
+					}
+				}
+				continue; // lost the race, retry
+			}
+			
+			if (first.hash == MOVED) {
+				table = helpResize(table, (ForwardingNode) first);
+				continue;
+			}
+			
+			synchronized (first) {
+				if (table.get(index) != first)
+					continue; // bucket changed before the lock was taken, retry
+				
+				if (first.hash != RESERVED) {
+					Node currentNode = first;
+					
+					while (true) {
+						if (currentNode.hash == hash && (currentNode.mKey == key || currentNode.mKey.equals(key)))
+							return currentNode.mValue;
+						else if (currentNode.next == null)
+							break;
+						else
+							currentNode = currentNode.next;
+					}
+					
+					value = mappingFunction.apply(key);
+					if (value == null)
+						return null;
+					currentNode.next = new Node(hash, key, value, null);
+					break;
+				}
+			}
+			// placeholder was replaced once its lock was released, retry
+		}
+		
+		addCount(1, table);
+		return value;
+	}
+	
+	/**
+	 * Remove the mapping associated with the key, if it exists.
+	 * @param key key for which the mapping should be removed.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	public V remove(K key) {
+		if (key == null)
+			return null;
+		
+		int hash = hashFunction(key);
+		AtomicReferenceArray<Node> table = mTable;
+		
+		while (true) {
+			int index = hash & (table.length() - 1);
+			Node first = table.get(index);
+			
+			if (first == null) // table bucket is empty
+				return null;
+			
+			if (first.hash == MOVED) {
+				table = helpResize(table, (ForwardingNode) first);
+				continue;
+			}
+			
+			synchronized (first) {
+				if (table.get(index) != first)
+					continue; // bucket changed before the lock was taken, retry
+				
+				if (first.hash != RESERVED) {
+					Node prevNode = null;
+					Node currentNode = first;
+					
+					while (currentNode != null) {
+						if (currentNode.hash == hash && (currentNode.mKey == key || currentNode.mKey.equals(key))) {
+							if (prevNode == null)
+								table.set(index, currentNode.next);
+							else
+								prevNode.next = currentNode.next;
+							size.decrement();
+							return currentNode.mValue;
+						}
+						prevNode = currentNode;
+						currentNode = currentNode.next;
+					}
+					return null; // key not found
+				}
+			}
+			// placeholder was replaced once its lock was released, retry
+		}
+	}
+	
+	/**
+	 * Clear the map. Mappings added concurrently with clear() may or may not be kept.
+	 */
+	public void clear() {
+		AtomicReferenceArray<Node> table = mTable;
+		int index = 0;
+		
+		while (index < table.length()) {
+			Node first = table.get(index);
+			
+			if (first == null) {
+				index++;
+			} else if (first.hash == MOVED) { // restart in the resized table
+				table = helpResize(table, (ForwardingNode) first);
+				index = 0;
+			} else {
+				synchronized (first) {
+					if (table.get(index) == first && first.hash != RESERVED) {
+						int count = 0;
+						for (Node currentNode = first; currentNode != null; currentNode = currentNode.next)
+							count++;
+						table.set(index, null);
+						size.add(-count);
+						index++;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of key-value mappings in this map. The count is only exact while no other thread is modifying the map.
+	 * @return the number of key-value mappings in this map.
+	 */
+	public int size() {
+		long sum = size.sum();
+		return (sum < 0) ? 0 : (int) sum;
+	}
+	
+	/**
+	 * Returns true if the map is empty.
+	 * @return true if the map is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	 * Internal function to count a new mapping and start a resize if the load factor is exceeded.
+	 * @param delta number of mappings added.
+	 * @param table table the mappings were added to.
+	 */
+	private void addCount(int delta, AtomicReferenceArray<Node> table) {
+		size.add(delta);
+		
+		if (size.sum() > threshold && table == mTable && resize.get() == null) {
+			Resize newResize = new Resize(table);
+			if (resize.compareAndSet(null, newResize)) {
+				if (newResize.oldTable != mTable) { // another resize finished between the check and the claim
+					resize.set(null);
+					return;
+				}
+				transfer(newResize);
+			}
+		}
+	}
+	
+	/**
+	 * Internal function to help with the resize that forwarded a bucket, then return the table to continue in.
+	 * @param table table containing the forwarding node.
+	 * @param forwardingNode forwarding node found in the table.
+	 * @return the resized table.
+	 */
+	private AtomicReferenceArray<Node> helpResize(AtomicReferenceArray<Node> table, ForwardingNode forwardingNode) {
+		Resize currentResize = resize.get();
+		if (currentResize != null && currentResize.oldTable == table)
+			transfer(currentResize);
+		return forwardingNode.nextTable;
+	}
+	
+	/**
+	 * Internal function to claim strides of buckets and transfer them into the resized table until none are left.
+	 * The thread that transfers the last bucket publishes the resized table.
+	 * @param currentResize resize to help with.
+	 */
+	private void transfer(Resize currentResize) {
+		int oldSize = currentResize.oldTable.length();
+		
+		while (true) {
+			int start = currentResize.transferIndex.getAndAdd(transferStride);
+			if (start >= oldSize)
+				return; // nothing left to claim, other threads are finishing their strides
+			
+			int end = Math.min(start + transferStride, oldSize);
+			for (int i = start; i < end; i++)
+				transferBucket(currentResize, i);
+			
+			if (currentResize.transferred.addAndGet(end - start) == oldSize) { // resized table complete
+				threshold = (int) (currentResize.nextTable.length() * loadFactor);
+				mTable = currentResize.nextTable;
+				resize.set(null);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Internal function to transfer one bucket into the resized table and replace it with a forwarding node.
+	 * Nodes are copied rather than relinked so that readers still walking the old bucket are not disturbed.
+	 * @param currentResize resize in progress.
+	 * @param index bucket to transfer.
+	 */
+	private void transferBucket(Resize currentResize, int index) {
+		AtomicReferenceArray<Node> oldTable = currentResize.oldTable;
+		AtomicReferenceArray<Node> nextTable = currentResize.nextTable;
+		ForwardingNode forwardingNode = new ForwardingNode(nextTable);
+		int oldSize = oldTable.length();
+		
+		while (true) {
+			Node first = oldTable.get(index);
+			
+			if (first == null) {
+				if (oldTable.compareAndSet(index, null, forwardingNode))
+					return;
+				continue; // a mapping was just added, retry
+			}
+			
+			if (first.hash == MOVED)
+				return; // already transferred
+			
+			synchronized (first) {
+				if (oldTable.get(index) != first)
+					continue; // bucket changed before the lock was taken, retry
+				
+				if (first.hash != RESERVED) {
+					// each mapping either stays at index or moves to index + oldSize
+					Node low = null;
+					Node high = null;
+					for (Node currentNode = first; currentNode != null; currentNode = currentNode.next) {
+						if ((currentNode.hash & oldSize) == 0)
+							low = new Node(currentNode.hash, currentNode.mKey, currentNode.mValue, low);
+						else
+							high = new Node(currentNode.hash, currentNode.mKey, currentNode.mValue, high);
+					}
+					nextTable.set(index, low);
+					nextTable.set(index + oldSize, high);
+					oldTable.set(index, forwardingNode);
+					return;
+				}
+			}
+			// placeholder was replaced once its lock was released, retry
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.jameschin.java.algorithms;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ConcurrentLinkedQueue
+ * Thread-safe FIFO queue with the add/poll/peek methods of LinkedList, no operation takes a lock (Michael-Scott queue).
+ * The list always starts with a dummy node, the first element is held by its successor.
+ * add() links a node after the last node with a compare-and-set, then swings tail to it, any thread finding tail behind helps swing it.
+ * poll() swings head to the successor of the dummy node with a compare-and-set, which then becomes the new dummy node.
+ * Null elements are not allowed.
+ * Type: Queue, Lock-Free Singly Linked List
+ * Space: O(n) where n is the number of elements.
+ * Insert: O(1) at tail
+ * Delete: O(1) at head
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class ConcurrentLinkedQueue<E> {
+	private final AtomicReference<Node> head; // dummy node, its successor holds the first element
+	private final AtomicReference<Node> tail; // last node, or briefly the node before it
+	
+	/**
+	 * The node is its own link to its successor, saving an object per element.
+	 */
+	private final class Node extends AtomicReference<Node> {
+		private static final long serialVersionUID = 1L;
+		E data; // null once the node has become the dummy node
+		
+		Node(E d) {data = d;}
+	}
+	
+	/**
+	 * Creates an empty queue.
+	 */
+	public ConcurrentLinkedQueue() {
+		Node dummy = new Node(null);
+		head = new AtomicReference<Node>(dummy);
+		tail = new AtomicReference<Node>(dummy);
+	}
+	
+	/**
+	 * Appends the specified element to the end of the queue.
+	 * @param newItem new element to be appended to the queue, must not be null.
+	 * @return true if the element was added, false if it is null.
+	 */
+	public boolean add(E newItem) {
+		if (newItem == null)
+			return false;
+		
+		Node newNode = new Node(newItem);
+		
+		while (true) {
+			Node last = tail.get();
+			Node next = last.get();
+			
+			if (next == null) {
+				if (last.compareAndSet(null, newNode)) { // linked, this is the point the element joins the queue
+					tail.compareAndSet(last, newNode); // may fail if another thread already helped
+					return true;
+				}
+			} else
+				tail.compareAndSet(last, next); // tail is behind, help swing it before retrying
+		}
+	}
+	
+	/**
+	 * Returns the first element of the queue.
+	 * @return the first element of the queue, or null if the queue is empty.
+	 */
+	public E peek() {
+		while (true) {
+			Node first = head.get().get();
+			if (first == null)
+				return null;
+			
+			E data = first.data;
+			if (data != null)
+				return data;
+			// first was polled and became the dummy node meanwhile, retry from the new head
+		}
+	}
+	
+	/**
+	 * Returns the first element of the queue.
+	 * @return the first element of the queue, or null if the queue is empty.
+	 */
+	public E peekFirst() {
+		return peek();
+	}
+	
+	/**
+	 * Returns and removes the first element of the queue.
+	 * @return the first element of the queue, or null if the queue is empty.
+	 */
+	public E poll() {
+		while (true) {
+			Node dummy = head.get();
+			Node last = tail.get();
+			Node first = dummy.get();
+			
+			if (first == null)
+				return null;
+			
+			if (dummy == last) { // tail is behind the node being removed, help swing it first
+				tail.compareAndSet(last, first);
+				continue;
+			}
+			
+			E data = first.data;
+			if (head.compareAndSet(dummy, first)) { // first becomes the new dummy node
+				first.data = null; // let go of the reference
+				return data;
+			}
+		}
+	}
+	
+	/**
+	 * Returns and removes the first element of the queue.
+	 * @return the first element of the queue, or null if the queue is empty.
+	 */
+	public E pollFirst() {
+		return poll();
+	}
+	
+	/**
+	 * Returns and removes the first element of the queue.
+	 * @return the first element of the queue, or null if the queue is empty.
+	 */
+	public E remove() {
+		return poll();
+	}
+	
+	/**
+	 * Returns the number of elements in the queue. The count is only exact while no other thread is modifying the queue.
+	 * Time: O(n)
+	 * @return the number of elements in the queue.
+	 */
+	public int size() {
+		int count = 0;
+		for (Node node = head.get().get(); node != null; node = node.get()) {
+			if (node.data != null)
+				count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns true if the queue is empty.
+	 * @return true if the queue is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return peek() == null;
+	}
+}
\ No newline at end of file
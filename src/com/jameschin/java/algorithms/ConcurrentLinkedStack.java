@@ -0,0 +1,99 @@
+package com.jameschin.java.algorithms;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ConcurrentLinkedStack
+ * Thread-safe LIFO stack with the push/pop/peek methods of LinkedList, no operation takes a lock (Treiber stack).
+ * push() and pop() each swing top with a single compare-and-set, retrying if another thread moved it first.
+ * Nodes are never reused, so a top that compares equal has not been popped and pushed back in between (no ABA problem).
+ * Null elements are not allowed.
+ * Type: Stack, Lock-Free Singly Linked List
+ * Space: O(n) where n is the number of elements.
+ * Insert: O(1) at top
+ * Delete: O(1) at top
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class ConcurrentLinkedStack<E> {
+	private final AtomicReference<Node> top = new AtomicReference<Node>();
+	
+	private class Node {
+		final E data;
+		final Node next;
+		
+		Node(E d, Node n) {
+			data = d;
+			next = n;
+		}
+	}
+	
+	/**
+	 * Pushes the new element onto the top of the stack.
+	 * @param newItem new element to be pushed, must not be null.
+	 * @return true if the element was pushed, false if it is null.
+	 */
+	public boolean push(E newItem) {
+		if (newItem == null)
+			return false;
+		
+		Node oldTop;
+		Node newNode;
+		do {
+			oldTop = top.get();
+			newNode = new Node(newItem, oldTop);
+		} while (!top.compareAndSet(oldTop, newNode));
+		
+		return true;
+	}
+	
+	/**
+	 * Returns and removes the element at the top of the stack.
+	 * @return the element at the top of the stack, or null if the stack is empty.
+	 */
+	public E pop() {
+		Node oldTop;
+		do {
+			oldTop = top.get();
+			if (oldTop == null)
+				return null;
+		} while (!top.compareAndSet(oldTop, oldTop.next));
+		
+		return oldTop.data;
+	}
+	
+	/**
+	 * Returns the element at the top of the stack.
+	 * @return the element at the top of the stack, or null if the stack is empty.
+	 */
+	public E peek() {
+		Node node = top.get();
+		return (node == null) ? null : node.data;
+	}
+	
+	/**
+	 * Returns the number of elements in the stack. The count is only exact while no other thread is modifying the stack.
+	 * Time: O(n)
+	 * @return the number of elements in the stack.
+	 */
+	public int size() {
+		int count = 0;
+		for (Node node = top.get(); node != null; node = node.next)
+			count++;
+		return count;
+	}
+	
+	/**
+	 * Returns true if the stack is empty.
+	 * @return true if the stack is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return top.get() == null;
+	}
+	
+	/**
+	 * Clear the stack. Elements pushed concurrently with clear() may or may not be kept.
+	 */
+	public void clear() {
+		top.set(null);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.jameschin.java.algorithms;
+
+import java.lang.reflect.Array;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConcurrentMinHeap
+ * Thread-safe relaxed priority queue with the add/findMin/deleteMin methods of MinHeap (MultiQueue).
+ * Elements are spread over several DaryHeaps, each behind its own lock, at least two per core so that threads rarely meet.
+ * add() locks a random heap. deleteMin() samples two random heaps, reading their mins without a lock, and removes from the smaller one.
+ * A busy heap is never waited for, the operation picks other heaps instead.
+ * The order is relaxed: deleteMin() returns an element close to the min, its expected rank is O(number of heaps),
+ * but it only returns null when every heap is empty. Use a MinHeap behind a lock where the exact min is required.
+ * Null elements are not allowed.
+ * Type: Comparative, Relaxed, Array Based, Per-Heap Locking
+ * Space: O(n)
+ * Find Min: O(h) where h is the number of heaps.
+ * Insert: O(log n)
+ * Delete: O(log n) where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class ConcurrentMinHeap<E extends Comparable<E>> {
+	private static final int ARITY = 4; // arity of each heap
+	private final Heap[] heaps;
+	private final LongAdder size = new LongAdder(); // number of elements contained, striped to avoid contention
+	
+	private final class Heap {
+		final ReentrantLock lock = new ReentrantLock();
+		final DaryHeap<E> heap = new DaryHeap<E>(Comparator.<E>naturalOrder(), ARITY);
+		volatile E min = null; // min of heap, readable without the lock
+	}
+	
+	/**
+	 * Creates an empty priority queue with two heaps per available core.
+	 */
+	public ConcurrentMinHeap() {
+		this(2 * Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates an empty priority queue.
+	 * @param heapCount number of heaps, at least 2, more heaps mean less contention but a looser order.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentMinHeap(int heapCount) {
+		heaps = (Heap[]) Array.newInstance(Heap.class, Math.max(2, heapCount));
+		for (int i = 0; i < heaps.length; i++)
+			heaps[i] = new Heap();
+	}
+	
+	/**
+	 * Add new element to the queue.
+	 * @param newItem new element to be added, must not be null.
+	 * @return true if the element was added, false if it is null.
+	 */
+	public boolean add(E newItem) {
+		if (newItem == null)
+			return false;
+		
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (true) {
+			Heap h = heaps[random.nextInt(heaps.length)];
+			if (h.lock.tryLock()) { // busy heaps are skipped, not waited for
+				try {
+					h.heap.add(newItem);
+					h.min = h.heap.findMin();
+					size.increment(); // counted before unlocking, so no deleteMin() can count its removal first
+				} finally {
+					h.lock.unlock();
+				}
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Returns an element close to the min of the queue, the smallest of the heap mins at the time each is read.
+	 * @return the smallest of the heap mins, or null if every heap is empty.
+	 */
+	public E findMin() {
+		E min = null;
+		for (Heap h : heaps) {
+			E candidate = h.min;
+			if (candidate != null && (min == null || candidate.compareTo(min) < 0))
+				min = candidate;
+		}
+		return min;
+	}
+	
+	/**
+	 * Removes and returns an element close to the min of the queue, the smaller min of two randomly sampled heaps.
+	 * @return the element removed, or null if every heap is empty.
+	 */
+	public E deleteMin() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		
+		for (int attempt = 0; attempt < heaps.length; attempt++) {
+			Heap a = heaps[random.nextInt(heaps.length)];
+			Heap b = heaps[random.nextInt(heaps.length)];
+			E minA = a.min;
+			E minB = b.min;
+			
+			if (minA == null && minB == null)
+				continue;
+			
+			Heap h = (minB == null || (minA != null && minA.compareTo(minB) <= 0)) ? a : b;
+			E removed = tryDeleteMin(h);
+			if (removed != null)
+				return removed;
+		}
+		
+		// the samples kept finding empty or busy heaps, sweep every heap in turn, waiting for locks
+		int start = random.nextInt(heaps.length);
+		for (int i = 0; i < heaps.length; i++) {
+			Heap h = heaps[(start + i) % heaps.length];
+			if (h.min == null)
+				continue;
+			
+			h.lock.lock();
+			try {
+				E removed = h.heap.deleteMin();
+				if (removed != null) {
+					h.min = h.heap.findMin();
+					size.decrement();
+					return removed;
+				}
+			} finally {
+				h.lock.unlock();
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Internal function to remove the min of a heap, unless another thread holds its lock.
+	 * @param h heap to remove from.
+	 * @return the element removed, or null if the heap is busy or empty.
+	 */
+	private E tryDeleteMin(Heap h) {
+		if (!h.lock.tryLock())
+			return null;
+		
+		try {
+			E removed = h.heap.deleteMin();
+			if (removed != null) {
+				h.min = h.heap.findMin();
+				size.decrement();
+			}
+			return removed;
+		} finally {
+			h.lock.unlock();
+		}
+	}
+	
+	/**
+	 * Clear the queue. Elements added concurrently with clear() may or may not be kept.
+	 */
+	public void clear() {
+		for (Heap h : heaps) {
+			h.lock.lock();
+			try {
+				size.add(-h.heap.size());
+				h.heap.clear();
+				h.min = null;
+			} finally {
+				h.lock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the size of the queue. The count is only exact while no other thread is modifying the queue.
+	 * @return size of the queue.
+	 */
+	public int size() {
+		long sum = size.sum(); // the striped count is not read atomically, a concurrent read may fall below 0
+		return (sum < 0) ? 0 : (int) sum;
+	}
+	
+	/**
+	 * Returns true if the queue is empty.
+	 * @return true if the queue is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return findMin() == null;
+	}
+}
\ No newline at end of file
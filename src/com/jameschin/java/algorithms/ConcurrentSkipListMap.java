@@ -0,0 +1,474 @@
+package com.jameschin.java.algorithms;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentSkipListMap
+ * Thread-safe sorted map with the same key ordering as TreeMap, no operation takes a lock.
+ * A mapping is removed in three steps: its value is set to null with a compare-and-set, which is the point the mapping disappears,
+ * then every level of its node is marked so no node can be linked after it, then any traversal that passes a marked node unlinks it.
+ * A link is marked by wrapping its successor in a Marker, so unmarked links point straight at the next node.
+ * Null keys and values are not allowed.
+ * Type: Sorted, Comparative, Lock-Free Skip List
+ * Space: O(n)
+ * Search: O(log n) expected
+ * Insert: O(log n) expected
+ * Delete: O(log n) expected where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class ConcurrentSkipListMap<K extends Comparable<K>, V> {
+	private final int MAX_LEVEL = 32; // levels of the head node, enough for any int sized map
+	private final Node head = new Node(null, null, MAX_LEVEL); // sentinel ordered before every key
+	private final LongAdder size = new LongAdder(); // number of mappings contained, striped to avoid contention
+	
+	private class Node {
+		final K mKey;
+		final AtomicReference<V> mValue; // null once the mapping has been removed
+		final AtomicReferenceArray<Object> next; // successor at each level, wrapped in a Marker once this node is being unlinked
+		
+		Node(K key, V value, int levels) {
+			mKey = key;
+			mValue = new AtomicReference<V>(value);
+			next = new AtomicReferenceArray<Object>(levels);
+		}
+	}
+	
+	/**
+	 * Marked link, holds the successor of a node being unlinked.
+	 */
+	private static final class Marker {
+		final Object successor;
+		
+		Marker(Object successor) {
+			this.successor = successor;
+		}
+	}
+	
+	/**
+	 * Internal function returning the node a link points to, marked or not.
+	 * @param link link read from a next array.
+	 * @return the node the link points to, or null at the end of a level.
+	 */
+	@SuppressWarnings("unchecked")
+	private Node nodeOf(Object link) {
+		return (Node) ((link instanceof Marker) ? ((Marker) link).successor : link);
+	}
+	
+	/**
+	 * Internal function to pick the number of levels of a new node, each further level with probability 1/2.
+	 * @return number of levels, between 1 and MAX_LEVEL.
+	 */
+	private int randomLevels() {
+		int bits = ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1));
+		return Integer.numberOfTrailingZeros(bits) + 1;
+	}
+	
+	/**
+	 * Internal function locating the nodes around key at every level, unlinking any marked node on the way.
+	 * @param key search key.
+	 * @param preds filled with the last node before key at each level.
+	 * @param succs filled with the first node at or after key at each level, null at the end of a level.
+	 * @return true if the node at level 0 holds key, false if not.
+	 */
+	private boolean find(K key, Node[] preds, Node[] succs) {
+		retry:
+		while (true) {
+			Node pred = head;
+			for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+				Node curr = nodeOf(pred.next.get(level));
+				while (curr != null) {
+					Object link = curr.next.get(level);
+					while (link instanceof Marker) { // curr is being removed, unlink it from pred
+						Node succ = nodeOf(link);
+						if (!pred.next.compareAndSet(level, curr, succ))
+							continue retry; // pred changed or is itself being removed
+						curr = succ;
+						if (curr == null)
+							break;
+						link = curr.next.get(level);
+					}
+					if (curr != null && curr.mKey.compareTo(key) < 0) {
+						pred = curr;
+						curr = nodeOf(link);
+					} else
+						break;
+				}
+				preds[level] = pred;
+				succs[level] = curr;
+			}
+			return succs[0] != null && succs[0].mKey.compareTo(key) == 0;
+		}
+	}
+	
+	/**
+	 * Internal function locating the node holding key without modifying the list. Takes no locks and never retries.
+	 * @param key search key.
+	 * @return the node holding key, or null if there is none.
+	 */
+	private Node findNode(K key) {
+		Node pred = head;
+		Node curr = null;
+		
+		for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+			curr = nodeOf(pred.next.get(level));
+			while (curr != null) {
+				Object link = curr.next.get(level);
+				while (link instanceof Marker) { // skip nodes being removed
+					curr = nodeOf(link);
+					if (curr == null)
+						break;
+					link = curr.next.get(level);
+				}
+				if (curr != null && curr.mKey.compareTo(key) < 0) {
+					pred = curr;
+					curr = nodeOf(link);
+				} else
+					break;
+			}
+		}
+		
+		return (curr != null && curr.mKey.compareTo(key) == 0) ? curr : null;
+	}
+	
+	/**
+	 * Internal function to mark every level of a node, top down, so that nothing can be linked after it.
+	 * @param node node being removed.
+	 */
+	private void markNode(Node node) {
+		for (int level = node.next.length() - 1; level >= 0; level--) {
+			Object link = node.next.get(level);
+			while (!(link instanceof Marker) && !node.next.compareAndSet(level, link, new Marker(link)))
+				link = node.next.get(level);
+		}
+	}
+	
+	/**
+	 * Internal function to finish removing a node whose value has been set to null, by marking and unlinking it.
+	 * @param node node being removed.
+	 */
+	@SuppressWarnings("unchecked")
+	private void unlink(Node node) {
+		markNode(node);
+		find(node.mKey, (Node[]) Array.newInstance(Node.class, MAX_LEVEL), (Node[]) Array.newInstance(Node.class, MAX_LEVEL));
+	}
+	
+	/**
+	 * Associates the specified value with the specified key in this map.
+	 * If the map previously contained a mapping for the key, the old value is replaced.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added, must not be null.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(K newKey, V newValue) {
+		if (newKey == null || newValue == null)
+			return null;
+		
+		Node[] preds = (Node[]) Array.newInstance(Node.class, MAX_LEVEL);
+		Node[] succs = (Node[]) Array.newInstance(Node.class, MAX_LEVEL);
+		int levels = randomLevels();
+		
+		while (true) {
+			if (find(newKey, preds, succs)) {
+				Node node = succs[0];
+				V oldValue = node.mValue.get();
+				if (oldValue != null && node.mValue.compareAndSet(oldValue, newValue))
+					return oldValue;
+				if (oldValue == null)
+					unlink(node); // help remove the dead node before inserting a new one
+				continue;
+			}
+			
+			Node node = new Node(newKey, newValue, levels);
+			for (int level = 0; level < levels; level++)
+				node.next.set(level, succs[level]);
+			
+			// linking level 0 is the point the mapping appears
+			if (!preds[0].next.compareAndSet(0, succs[0], node))
+				continue;
+			size.increment();
+			
+			// link the upper levels, these only speed up searches
+			for (int level = 1; level < levels; level++) {
+				while (true) {
+					Node succ = succs[level];
+					Object link = node.next.get(level);
+					if (link instanceof Marker || (link != succ && !node.next.compareAndSet(level, link, succ)))
+						return null; // node is already being removed, stop linking it
+					if (preds[level].next.compareAndSet(level, succ, node))
+						break;
+					find(newKey, preds, succs); // neighbours changed, locate them again
+					if (succs[0] != node)
+						return null; // node was removed meanwhile
+				}
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * Returns the value to which the specified key is mapped. Takes no locks.
+	 * @param key the key whose associated value is to be returned.
+	 * @return the value to which the specified key is mapped, or null if there exists no mapping for the key.
+	 */
+	public V get(K key) {
+		if (key == null)
+			return null;
+		
+		Node node = findNode(key);
+		return (node == null) ? null : node.mValue.get();
+	}
+	
+	/**
+	 * Returns true if there is a mapping for the specified key.
+	 * @param key search key.
+	 * @return true if there is a mapping for the specified key, false if not.
+	 */
+	public boolean containsKey(K key) {
+		return get(key) != null;
+	}
+	
+	/**
+	 * Remove the mapping associated with the key, if it exists.
+	 * @param key key for which the mapping should be removed.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	public V remove(K key) {
+		if (key == null)
+			return null;
+		
+		Node node = findNode(key);
+		if (node == null)
+			return null;
+		
+		return removeNode(node);
+	}
+	
+	/**
+	 * Internal function to remove the mapping held by a node.
+	 * @param node node holding the mapping.
+	 * @return the value removed, or null if another thread removed the mapping first.
+	 */
+	private V removeNode(Node node) {
+		while (true) {
+			V oldValue = node.mValue.get();
+			if (oldValue == null)
+				return null; // another thread owns the removal
+			if (node.mValue.compareAndSet(oldValue, null)) {
+				size.decrement();
+				unlink(node);
+				return oldValue;
+			}
+		}
+	}
+	
+	/**
+	 * Internal function returning the first node holding a mapping.
+	 * @return the first live node, or null if the map is empty.
+	 */
+	private Node firstNode() {
+		Node node = nodeOf(head.next.get(0));
+		
+		while (node != null && node.mValue.get() == null) // skip nodes being removed
+			node = nodeOf(node.next.get(0));
+		
+		return node;
+	}
+	
+	/**
+	 * Internal function returning the last node holding a mapping, helping to remove any dead node found at the end.
+	 * @return the last live node, or null if the map is empty.
+	 */
+	private Node lastNode() {
+		while (true) {
+			Node node = head;
+			
+			for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+				Node next = nodeOf(node.next.get(level));
+				while (next != null) {
+					node = next;
+					next = nodeOf(node.next.get(level));
+				}
+			}
+			
+			if (node == head)
+				return null;
+			if (node.mValue.get() != null)
+				return node;
+			unlink(node); // dead node at the end, remove it and look again
+		}
+	}
+	
+	/**
+	 * Returns the first key in the map.
+	 * @return the first key in the map, or null if the map is empty.
+	 */
+	public K firstKey() {
+		Node node = firstNode();
+		return (node == null) ? null : node.mKey;
+	}
+	
+	/**
+	 * Returns the last key in the map.
+	 * @return the last key in the map, or null if the map is empty.
+	 */
+	public K lastKey() {
+		Node node = lastNode();
+		return (node == null) ? null : node.mKey;
+	}
+	
+	/**
+	 * Removes the mapping for the min key and returns the value which was mapped to it.
+	 * @return the value which was mapped to the min key in the map, or null if the map is empty.
+	 */
+	public V removeMin() {
+		while (true) {
+			Node node = firstNode();
+			if (node == null)
+				return null;
+			
+			V oldValue = removeNode(node);
+			if (oldValue != null)
+				return oldValue;
+			// another thread took it first, try the next
+		}
+	}
+	
+	/**
+	 * Removes the mapping for the max key and returns the value which was mapped to it.
+	 * @return the value which was mapped to the max key in the map, or null if the map is empty.
+	 */
+	public V removeMax() {
+		while (true) {
+			Node node = lastNode();
+			if (node == null)
+				return null;
+			
+			V oldValue = removeNode(node);
+			if (oldValue != null)
+				return oldValue;
+			// another thread took it first, try again
+		}
+	}
+	
+	/**
+	 * Clear the map. Mappings added concurrently with clear() may or may not be kept.
+	 */
+	public void clear() {
+		while (removeMin() != null);
+	}
+	
+	/**
+	 * Returns the number of key-value mappings in this map. The count is only exact while no other thread is modifying the map.
+	 * @return the number of key-value mappings in this map.
+	 */
+	public int size() {
+		long sum = size.sum();
+		return (sum < 0) ? 0 : (int) sum;
+	}
+	
+	/**
+	 * Returns true if the map is empty.
+	 * @return true if the map is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return firstNode() == null;
+	}
+	
+	/**
+	 * Returns a cursor over all mappings in key order.
+	 * The cursor may be used while other threads modify the map, it reflects some of the changes made after it was created.
+	 * @return a cursor positioned before the first mapping.
+	 */
+	public Cursor cursor() {
+		return new Cursor(null, null);
+	}
+	
+	/**
+	 * Returns a cursor over the mappings whose keys range from fromKey, inclusive, to toKey, exclusive.
+	 * The cursor may be used while other threads modify the map, it reflects some of the changes made after it was created.
+	 * @param fromKey low endpoint (inclusive), or null for no lower bound.
+	 * @param toKey high endpoint (exclusive), or null for no upper bound.
+	 * @return a cursor positioned before the first mapping in range.
+	 */
+	public Cursor cursor(K fromKey, K toKey) {
+		return new Cursor(fromKey, toKey);
+	}
+	
+	/**
+	 * Cursor over the mappings of the map in key order, call advance() before reading each mapping.
+	 * Walks level 0 of the list, skipping removed mappings, so advancing allocates nothing.
+	 */
+	public final class Cursor {
+		private final K toKey; // exclusive upper bound, null if unbounded
+		private Node next; // node to be visited next
+		private K currentKey = null;
+		private V currentValue = null;
+		
+		private Cursor(K fromKey, K toKey) {
+			this.toKey = toKey;
+			
+			if (fromKey == null)
+				next = nodeOf(head.next.get(0));
+			else {
+				// descend to the last node before fromKey, its successor is the first candidate
+				Node pred = head;
+				for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+					Node curr = nodeOf(pred.next.get(level));
+					while (curr != null && curr.mKey.compareTo(fromKey) < 0) {
+						pred = curr;
+						curr = nodeOf(curr.next.get(level));
+					}
+				}
+				next = nodeOf(pred.next.get(0));
+			}
+		}
+		
+		/**
+		 * Moves the cursor to the next mapping.
+		 * @return true if the cursor is at a mapping, false if there are no more mappings in range.
+		 */
+		public boolean advance() {
+			while (next != null) {
+				Node node = next;
+				next = nodeOf(node.next.get(0));
+				
+				if (toKey != null && node.mKey.compareTo(toKey) >= 0) {
+					next = null;
+					break;
+				}
+				
+				V value = node.mValue.get();
+				if (value != null) {
+					currentKey = node.mKey;
+					currentValue = value;
+					return true;
+				}
+			}
+			
+			currentKey = null;
+			currentValue = null;
+			return false;
+		}
+		
+		/**
+		 * Returns the key of the current mapping.
+		 * @return the key of the current mapping.
+		 */
+		public K key() {
+			return currentKey;
+		}
+		
+		/**
+		 * Returns the value of the current mapping, as it was when the cursor reached it.
+		 * @return the value of the current mapping.
+		 */
+		public V value() {
+			return currentValue;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.jameschin.java.algorithms;
+
+/**
+ * ConcurrentSkipListSet
+ * Thread-safe sorted set with the same ordering as TreeSet, no operation takes a lock.
+ * Backed by a ConcurrentSkipListMap mapping each element to itself.
+ * Null elements are not allowed.
+ * Type: Sorted, Comparative, Lock-Free Skip List
+ * Space: O(n)
+ * Search: O(log n) expected
+ * Insert: O(log n) expected
+ * Delete: O(log n) expected where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class ConcurrentSkipListSet<E extends Comparable<E>> {
+	private final ConcurrentSkipListMap<E, E> map = new ConcurrentSkipListMap<E, E>();
+	
+	/**
+	 * Add new item.
+	 * @param newItem new item to be added, must not be null.
+	 * @return true if successfully added, false if item already exists in set.
+	 */
+	public boolean add(E newItem) {
+		return newItem != null && map.put(newItem, newItem) == null;
+	}
+	
+	/**
+	 * Returns true if item is in the set.
+	 * @param item search item.
+	 * @return true if item is in the set, false if not.
+	 */
+	public boolean contains(E item) {
+		return map.containsKey(item);
+	}
+	
+	/**
+	 * Remove item from set, if it exists.
+	 * @param item element to remove from set.
+	 * @return true if the item was found in the set and removed, false if not.
+	 */
+	public boolean remove(E item) {
+		return map.remove(item) != null;
+	}
+	
+	/**
+	 * Returns the first element in the set.
+	 * @return the first element in the set, or null if the set is empty.
+	 */
+	public E first() {
+		return map.firstKey();
+	}
+	
+	/**
+	 * Returns the last element in the set.
+	 * @return the last element in the set, or null if the set is empty.
+	 */
+	public E last() {
+		return map.lastKey();
+	}
+	
+	/**
+	 * Removes and returns the min element of the set.
+	 * @return the min element which was in the set, or null if the set is empty.
+	 */
+	public E removeMin() {
+		return map.removeMin();
+	}
+	
+	/**
+	 * Removes and returns the max element of the set.
+	 * @return the max element which was in the set, or null if the set is empty.
+	 */
+	public E removeMax() {
+		return map.removeMax();
+	}
+	
+	/**
+	 * Clear the set. Elements added concurrently with clear() may or may not be kept.
+	 */
+	public void clear() {
+		map.clear();
+	}
+	
+	/**
+	 * Returns the size of the set. The count is only exact while no other thread is modifying the set.
+	 * @return size of the set.
+	 */
+	public int size() {
+		return map.size();
+	}
+	
+	/**
+	 * Returns true if the set is empty.
+	 * @return true if the set is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+	
+	/**
+	 * Returns a cursor over the elements ranging from fromItem, inclusive, to toItem, exclusive, read with key().
+	 * The cursor may be used while other threads modify the set, it reflects some of the changes made after it was created.
+	 * @param fromItem low endpoint (inclusive), or null for no lower bound.
+	 * @param toItem high endpoint (exclusive), or null for no upper bound.
+	 * @return a cursor positioned before the first element in range.
+	 */
+	public ConcurrentSkipListMap<E, E>.Cursor cursor(E fromItem, E toItem) {
+		return map.cursor(fromItem, toItem);
+	}
+}
\ No newline at end of file
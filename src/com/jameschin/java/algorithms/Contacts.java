@@ -2,7 +2,6 @@ package com.jameschin.java.algorithms;
 
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -16,9 +15,9 @@ import java.util.Set;
  * @author: James Chin <jameslchin@gmail.com>
  */
 public final class Contacts {
-	private MinHeap<Integer> userIdMinHeap;
+	private IntMinHeap userIdMinHeap;
 	private int nextUserId;
-	private HashMap<Integer, Contact> userIdMap;
+	private IntObjectHashMap<Contact> userIdMap;
 	private HashMap<String, HashSet<Contact>> displayNameMap;
 	private HashMap<String, HashSet<Contact>> firstNameMap;
 	private HashMap<String, HashSet<Contact>> lastNameMap;
@@ -26,11 +25,11 @@ public final class Contacts {
 	private HashMap<String, HashSet<Contact>> phoneNumberMap;
 	
 	Contacts() {
-		userIdMinHeap = new MinHeap<Integer>();
+		userIdMinHeap = new IntMinHeap();
 		userIdMinHeap.add(0);
 		nextUserId = 1;
 		
-		userIdMap = new HashMap<Integer, Contact>();
+		userIdMap = new IntObjectHashMap<Contact>();
 		displayNameMap = new HashMap<String, HashSet<Contact>>();
 		firstNameMap = new HashMap<String, HashSet<Contact>>();
 		lastNameMap = new HashMap<String, HashSet<Contact>>();
@@ -276,13 +275,14 @@ public final class Contacts {
 	}
 	
 	public void printContacts() {
-		for (Map.Entry<Integer, Contact> entry : userIdMap.entrySet()) {
-			System.out.print(entry.getKey() + " ");
-			System.out.print(entry.getValue().displayName + " ");
-			System.out.print(entry.getValue().firstName + " ");
-			System.out.print(entry.getValue().lastName + " ");
-			System.out.print(entry.getValue().email + " ");
-			System.out.print(entry.getValue().phoneNumber + " ");
+		IntObjectHashMap<Contact>.Cursor cursor = userIdMap.cursor();
+		while (cursor.advance()) {
+			System.out.print(cursor.key() + " ");
+			System.out.print(cursor.value().displayName + " ");
+			System.out.print(cursor.value().firstName + " ");
+			System.out.print(cursor.value().lastName + " ");
+			System.out.print(cursor.value().email + " ");
+			System.out.print(cursor.value().phoneNumber + " ");
 			System.out.println();
 		}
 	}
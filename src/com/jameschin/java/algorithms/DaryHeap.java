@@ -0,0 +1,239 @@
+package com.jameschin.java.algorithms;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * D-ary Heap
+ * Heap ordered by a Comparator, the min is the element ordered first, so a reversed Comparator makes a max heap.
+ * Each node has arity children (a power of two, typically 2, 4 or 8), stored contiguously in a flat array.
+ * A wider node makes the tree shallower, so deleteMin() touches fewer levels and the children compared at each level share cache lines,
+ * at the cost of more comparisons per level. add() only compares with parents, so it gets faster as arity grows.
+ * Sifting moves a hole instead of swapping, each level costs one array write.
+ * Type: Comparative, Array Based, In-Place, Automatic Geometric Resizing
+ * Space: O(n)
+ * Find Min: O(1)
+ * Insert: O(log n / log d)
+ * Delete: O(d log n / log d) where n is the number of elements, d is the arity.
+ * Heapify: O(n)
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class DaryHeap<E> {
+	private final Comparator<? super E> comparator;
+	private final int shift; // log2 of the arity, children of slot i start at (i << shift) + 1
+	private Object[] heap;
+	private int size = 0; // array index of next empty slot
+	private final int resizeFactor = 2; // array resize multiplier
+	
+	/**
+	 * Creates an empty heap.
+	 * @param comparator ordering of the heap, the first element by this ordering is at the top.
+	 * @param arity number of children per node, rounded up to a power of two, at least 2.
+	 */
+	public DaryHeap(Comparator<? super E> comparator, int arity) {
+		this.comparator = comparator;
+		int s = 1;
+		while ((1 << s) < arity)
+			s++;
+		shift = s;
+		heap = new Object[16];
+	}
+	
+	/**
+	 * Creates a heap holding the elements of the array, heapified bottom-up in O(n) instead of n O(log n) insertions.
+	 * The array is copied, not modified.
+	 * @param comparator ordering of the heap, the first element by this ordering is at the top.
+	 * @param arity number of children per node, rounded up to a power of two, at least 2.
+	 * @param array elements to be added to the heap.
+	 */
+	public DaryHeap(Comparator<? super E> comparator, int arity, E[] array) {
+		this(comparator, arity);
+		heap = Arrays.copyOf(array, Math.max(16, array.length), Object[].class);
+		size = array.length;
+		
+		// sift down every internal node, starting from the parent of the last element
+		for (int i = (size - 2) >> shift; i >= 0; i--)
+			heapifyDown(i, heap[i]);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private int compare(Object a, Object b) {
+		return comparator.compare((E) a, (E) b);
+	}
+	
+	/**
+	 * Add new element to heap.
+	 * @param newItem new element to be added to the heap.
+	 * @return this heap object.
+	 */
+	public DaryHeap<E> add(E newItem) {
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, heap.length * resizeFactor);
+		
+		heapifyUp(size++, newItem);
+		return this;
+	}
+	
+	/**
+	 * Heapify upwards, moving the hole at index up past every parent ordered after item, then filling it.
+	 * @param index index of the hole.
+	 * @param item element to be placed.
+	 */
+	private void heapifyUp(int index, Object item) {
+		while (index > 0) {
+			int parentIndex = (index - 1) >> shift;
+			Object parent = heap[parentIndex];
+			if (compare(item, parent) >= 0)
+				break;
+			heap[index] = parent;
+			index = parentIndex;
+		}
+		heap[index] = item;
+	}
+	
+	/**
+	 * Heapify downwards, moving the hole at index down past every child ordered before item, then filling it.
+	 * @param index index of the hole.
+	 * @param item element to be placed.
+	 */
+	private void heapifyDown(int index, Object item) {
+		while (true) {
+			int firstChild = (index << shift) + 1;
+			if (firstChild >= size || firstChild < 0) // leaf, or the index overflowed past any slot
+				break;
+			
+			// find the first child by the ordering
+			int lastChild = Math.min(firstChild + (1 << shift), size);
+			int minIndex = firstChild;
+			Object min = heap[firstChild];
+			for (int i = firstChild + 1; i < lastChild; i++) {
+				if (compare(heap[i], min) < 0) {
+					minIndex = i;
+					min = heap[i];
+				}
+			}
+			
+			if (compare(item, min) <= 0)
+				break;
+			heap[index] = min;
+			index = minIndex;
+		}
+		heap[index] = item;
+	}
+	
+	/**
+	 * Returns the element at the top of the heap.
+	 * @return the element at the top of the heap, or null if the heap is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public E findMin() {
+		return (size == 0) ? null : (E) heap[0];
+	}
+	
+	/**
+	 * Removes the element at the top of the heap and re-heapifies.
+	 * @return the element that was removed, or null if the heap is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public E deleteMin() {
+		if (size == 0)
+			return null;
+		
+		E min = (E) heap[0];
+		removeAt(0);
+		return min;
+	}
+	
+	/**
+	 * Removes a single instance of the specified element from the heap, if it is present.
+	 * @param item element to be removed from this heap, if present, matched by the comparator.
+	 * @return true if element was found and removed, false if not.
+	 */
+	public boolean remove(E item) {
+		for (int i = 0; i < size; i++) {
+			if (compare(item, heap[i]) == 0) {
+				removeAt(i);
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Internal function to remove the element at index, refilling it with the last element on the last level.
+	 * @param index index of the element to be removed.
+	 */
+	private void removeAt(int index) {
+		size--;
+		Object last = heap[size];
+		heap[size] = null; // let go of the reference
+		
+		if (index < size) { // the last element may belong above or below index
+			heapifyDown(index, last);
+			if (heap[index] == last)
+				heapifyUp(index, last);
+		}
+	}
+	
+	/**
+	 * Clear the heap.
+	 */
+	public void clear() {
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+	
+	/**
+	 * Returns the size of the heap.
+	 * @return the size of the heap.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the heap is empty.
+	 * @return true if the heap is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Returns the number of children per node.
+	 * @return the arity of the heap.
+	 */
+	public int arity() {
+		return 1 << shift;
+	}
+	
+	/**
+	 * Returns an array representing the heap.
+	 * @param e the array into which the elements of the heap are to be stored, if it is big enough, otherwise a new array will be created.
+	 * @return an array representing the heap, index 0 contains the min item, the next arity indexes contain the next level of the tree, etc.
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] toArray(E[] e) {
+		if (e.length < size)
+			e = (E[]) Array.newInstance(e.getClass().getComponentType(), size);
+		System.arraycopy(heap, 0, e, 0, size);
+		if (e.length > size)
+			e[size] = null;
+		return e;
+	}
+	
+	/**
+	 * Returns an array representing the heap, or null array if the heap is empty.
+	 * @return an array representing the heap, index 0 contains the min item, the next arity indexes contain the next level of the tree, etc.
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] toArray() {
+		if (size == 0)
+			return null;
+		
+		E[] array = (E[]) Array.newInstance(heap[0].getClass(), size);
+		System.arraycopy(heap, 0, array, 0, size);
+		return array;
+	}
+}
\ No newline at end of file
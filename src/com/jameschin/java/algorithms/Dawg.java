@@ -0,0 +1,462 @@
+package com.jameschin.java.algorithms;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Dawg
+ * Directed Acyclic Word Graph, the minimal acyclic finite-state automaton accepting a set of words.
+ * Where a Trie shares prefixes only, a DAWG also shares every common suffix, so word lists with regular endings shrink many times over.
+ * fromSorted() builds it in one pass over sorted words, without ever holding the full trie (Daciuk, Mihov, Watson, Watson 2000):
+ * the states of the previous word below its common prefix with the next word can no longer change, so each is either replaced
+ * by an equivalent state from the register, or added to it. Two states are equivalent when they agree on being final and on every transition.
+ * Once built, the automaton is flattened into arrays, its transitions sorted by char, with no objects per state.
+ * Each state also counts the words accepted from it, which makes the words of the DAWG a minimal perfect hash:
+ * indexOf() maps a word to its position in lexicographic order and get() maps it back.
+ * Immutable, a DAWG holds the set of words without counts.
+ * Type: Minimal Acyclic Automaton, Sorted, Immutable
+ * Space: O(s + t) where s is the number of states, t is the number of transitions.
+ * Search: O(m log a)
+ * Index: O(m a) where m is the length of the string, a is the alphabet size.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class Dawg {
+	private final int size; // number of words accepted
+	private final int[] firstEdge; // transitions of state s are firstEdge[s] to firstEdge[s + 1] - 1, state 0 is the start
+	private final char[] labels; // char of each transition, sorted within a state
+	private final int[] targets; // state reached by each transition
+	private final int[] words; // number of words accepted from each state, including the empty suffix if it is final
+	private final boolean[] terminal; // true if the state is final, the path to it spells a word
+	
+	private static final class State {
+		boolean terminal = false;
+		int childCount = 0;
+		char[] chars = null; // chars of the transitions, in the order added until sealed, then sorted
+		State[] children = null; // target of each transition
+		int words = 0; // number of words accepted from the state, set when sealed
+		int hash = 0; // set when sealed
+		int number = -1; // index of the state once flattened
+		
+		/**
+		 * Adds a transition, after every existing one.
+		 * @param c char of the transition.
+		 * @param child target of the transition.
+		 */
+		void addChild(char c, State child) {
+			if (chars == null) {
+				chars = new char[2];
+				children = new State[2];
+			} else if (childCount == chars.length) {
+				chars = Arrays.copyOf(chars, childCount * 2);
+				children = Arrays.copyOf(children, childCount * 2);
+			}
+			chars[childCount] = c;
+			children[childCount++] = child;
+		}
+		
+		/**
+		 * Returns true if the state has a transition on the char.
+		 * @param c char of the transition.
+		 * @return true if the state has a transition on the char, false if not.
+		 */
+		boolean hasChild(char c) {
+			for (int i = 0; i < childCount; i++) {
+				if (chars[i] == c)
+					return true;
+			}
+			return false;
+		}
+		
+		/**
+		 * Freezes the state once its transitions are final, sorting them, counting its words and hashing it.
+		 * Its children must already be sealed.
+		 */
+		void seal() {
+			// insertion sort, the transitions of a state are few and usually added in order already
+			for (int i = 1; i < childCount; i++) {
+				char c = chars[i];
+				State child = children[i];
+				int j = i - 1;
+				for (; j >= 0 && chars[j] > c; j--) {
+					chars[j + 1] = chars[j];
+					children[j + 1] = children[j];
+				}
+				chars[j + 1] = c;
+				children[j + 1] = child;
+			}
+			
+			int h = terminal ? 1 : 0;
+			words = h;
+			for (int i = 0; i < childCount; i++) {
+				words += children[i].words;
+				h = h * 31 + chars[i];
+				h = h * 31 + System.identityHashCode(children[i]); // children are already unique, identity is equivalence
+			}
+			hash = h;
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof State))
+				return false;
+			
+			State other = (State) o;
+			if (hash != other.hash || terminal != other.terminal || childCount != other.childCount)
+				return false;
+			for (int i = 0; i < childCount; i++) {
+				if (chars[i] != other.chars[i] || children[i] != other.children[i])
+					return false;
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * Flattens the automaton reachable from the start state into arrays.
+	 * @param start start state, sealed.
+	 * @param size number of words accepted.
+	 * @param stateCount number of states.
+	 */
+	private Dawg(State start, int size, int stateCount) {
+		this.size = size;
+		
+		// number the states in pre-order from the start state
+		State[] states = new State[stateCount];
+		int edgeCount = 0;
+		State[] stack = new State[16];
+		int top = 0;
+		stack[top++] = start;
+		start.number = 0;
+		int count = 1;
+		while (top > 0) {
+			State s = stack[--top];
+			states[s.number] = s;
+			edgeCount += s.childCount;
+			for (int i = s.childCount - 1; i >= 0; i--) {
+				State child = s.children[i];
+				if (child.number < 0) {
+					child.number = count++;
+					if (top == stack.length)
+						stack = Arrays.copyOf(stack, top * 2);
+					stack[top++] = child;
+				}
+			}
+		}
+		
+		firstEdge = new int[stateCount + 1];
+		labels = new char[edgeCount];
+		targets = new int[edgeCount];
+		words = new int[stateCount];
+		terminal = new boolean[stateCount];
+		int e = 0;
+		for (int i = 0; i < stateCount; i++) {
+			State s = states[i];
+			firstEdge[i] = e;
+			words[i] = s.words;
+			terminal[i] = s.terminal;
+			for (int j = 0; j < s.childCount; j++, e++) {
+				labels[e] = s.chars[j];
+				targets[e] = s.children[j].number;
+			}
+		}
+		firstEdge[stateCount] = e;
+	}
+	
+	/**
+	 * Builds the minimal automaton accepting the words of a sorted array, such as the output of Trie.toArray() or RadixSortAlphaNum.sort().
+	 * Any order keeping together the words that share a prefix will do, duplicates are skipped.
+	 * Time: O(n m) where n is the number of words, m is their average length.
+	 * @param sorted words in sorted order, not modified.
+	 * @return the automaton, or null if a word follows another it shares a prefix with, after a word it does not.
+	 */
+	public static Dawg fromSorted(String[] sorted) {
+		HashMap<State, State> register = new HashMap<State, State>(); // unique states whose transitions are final
+		State start = new State();
+		State[] path = new State[16]; // states of the previous word, path[d] is reached by its first d chars
+		path[0] = start;
+		String previous = "";
+		int size = 0;
+		
+		for (String word : sorted) {
+			int prefix = 0;
+			int max = Math.min(word.length(), previous.length());
+			while (prefix < max && word.charAt(prefix) == previous.charAt(prefix))
+				prefix++;
+			
+			// the states of the previous word below the common prefix are now final
+			replaceOrRegister(register, path, previous.length(), prefix);
+			previous = word;
+			
+			if (prefix == word.length()) { // the word is the previous word, or a prefix of it
+				if (!path[prefix].terminal) {
+					path[prefix].terminal = true;
+					size++;
+				}
+				continue;
+			}
+			
+			if (path[prefix].hasChild(word.charAt(prefix))) // this branch was left earlier, the words are not sorted
+				return null;
+			
+			if (path.length <= word.length())
+				path = Arrays.copyOf(path, Math.max(word.length() + 1, path.length * 2));
+			for (int d = prefix; d < word.length(); d++) {
+				State s = new State();
+				path[d].addChild(word.charAt(d), s);
+				path[d + 1] = s;
+			}
+			path[word.length()].terminal = true;
+			size++;
+		}
+		
+		replaceOrRegister(register, path, previous.length(), 0);
+		start.seal();
+		return new Dawg(start, size, register.size() + 1);
+	}
+	
+	/**
+	 * Internal function to replace each state of the path below depth by its equivalent in the register, or to register it, from the bottom up.
+	 * @param register unique states whose transitions are final.
+	 * @param path states of the previous word, each the last child of the one before.
+	 * @param length number of chars of the previous word.
+	 * @param depth depth of the deepest state to keep unsealed.
+	 */
+	private static void replaceOrRegister(HashMap<State, State> register, State[] path, int length, int depth) {
+		for (int d = length; d > depth; d--) {
+			State s = path[d];
+			s.seal();
+			State equivalent = register.get(s);
+			if (equivalent != null) {
+				State parent = path[d - 1];
+				parent.children[parent.childCount - 1] = equivalent; // s was the last child added
+			} else {
+				register.put(s, s);
+			}
+			path[d] = null;
+		}
+	}
+	
+	/**
+	 * Internal function returning the transition from the state on the char.
+	 * @param state state to leave.
+	 * @param c char of the transition.
+	 * @return index of the transition, or -1 if there is none.
+	 */
+	private int edge(int state, char c) {
+		int index = Arrays.binarySearch(labels, firstEdge[state], firstEdge[state + 1], c);
+		return (index >= 0) ? index : -1;
+	}
+	
+	/**
+	 * Internal function following the string from the start state.
+	 * @param word search string.
+	 * @return the state reached, or -1 if no word starts with the string.
+	 */
+	private int find(String word) {
+		int state = 0;
+		for (int i = 0; i < word.length(); i++) {
+			int e = edge(state, word.charAt(i));
+			if (e < 0)
+				return -1;
+			state = targets[e];
+		}
+		return state;
+	}
+	
+	/**
+	 * Returns true if the word is accepted.
+	 * @param word search string.
+	 * @return true if the word is accepted, false if not.
+	 */
+	public boolean contains(String word) {
+		int state = find(word);
+		return state >= 0 && terminal[state];
+	}
+	
+	/**
+	 * Returns the position of the word in lexicographic order, a minimal perfect hash of the words.
+	 * @param word search string.
+	 * @return the position of the word, from 0 to size() - 1, or -1 if it is not accepted.
+	 */
+	public int indexOf(String word) {
+		int index = 0;
+		int state = 0;
+		for (int i = 0; i < word.length(); i++) {
+			int e = edge(state, word.charAt(i));
+			if (e < 0)
+				return -1;
+			
+			// every word ending here, or branching off on a lesser char, comes first
+			if (terminal[state])
+				index++;
+			for (int f = firstEdge[state]; f < e; f++)
+				index += words[targets[f]];
+			state = targets[e];
+		}
+		return terminal[state] ? index : -1;
+	}
+	
+	/**
+	 * Returns the word at the position in lexicographic order, the inverse of indexOf().
+	 * @param i position of the word.
+	 * @return the word at position i, or null if i is out of range.
+	 */
+	public String get(int i) {
+		if (i < 0 || i >= size)
+			return null;
+		
+		StringBuilder word = new StringBuilder();
+		int state = 0;
+		while (true) {
+			if (terminal[state]) {
+				if (i == 0)
+					return word.toString();
+				i--;
+			}
+			for (int e = firstEdge[state]; e < firstEdge[state + 1]; e++) {
+				int w = words[targets[e]];
+				if (i < w) { // the word is below this transition
+					word.append(labels[e]);
+					state = targets[e];
+					break;
+				}
+				i -= w;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of words starting with the prefix.
+	 * Time: O(|prefix| log a)
+	 * @param prefix search prefix, the empty string matches every word.
+	 * @return the number of words starting with the prefix, including the prefix itself if it is a word.
+	 */
+	public int countWithPrefix(String prefix) {
+		int state = find(prefix);
+		return (state < 0) ? 0 : words[state];
+	}
+	
+	/**
+	 * Returns an iterator over the words starting with the prefix, in lexicographic order.
+	 * @param prefix search prefix, the empty string matches every word.
+	 * @return an iterator over the words starting with the prefix, empty if there are none.
+	 */
+	public Iterator<String> keysWithPrefix(String prefix) {
+		return new PrefixIterator(prefix, find(prefix));
+	}
+	
+	private final class PrefixIterator implements Iterator<String> {
+		private final int prefixLength;
+		private char[] currentWord; // prefix followed by the chars leading to the current state
+		private int[] states = new int[16]; // states from the prefix state down to the current one
+		private int[] next = new int[16]; // next transition to follow from each state, -1 if its own word has not been checked
+		private int depth; // depth of the current state below the prefix state, -1 when finished
+		private String nextWord = null;
+		
+		PrefixIterator(String prefix, int state) {
+			prefixLength = prefix.length();
+			currentWord = Arrays.copyOf(prefix.toCharArray(), prefixLength + 16);
+			states[0] = state;
+			next[0] = -1;
+			depth = (state < 0) ? -1 : 0;
+			advance();
+		}
+		
+		/**
+		 * Walks the automaton in pre-order up to the next final state.
+		 */
+		private void advance() {
+			while (depth >= 0) {
+				int state = states[depth];
+				int i = next[depth]++;
+				if (i < 0) { // check the state's own word before its transitions
+					if (terminal[state]) {
+						nextWord = new String(currentWord, 0, prefixLength + depth);
+						return;
+					}
+				} else if (firstEdge[state] + i < firstEdge[state + 1]) { // follow the next transition
+					int e = firstEdge[state] + i;
+					if (depth + 1 == states.length) {
+						states = Arrays.copyOf(states, states.length * 2);
+						next = Arrays.copyOf(next, next.length * 2);
+					}
+					if (prefixLength + depth == currentWord.length)
+						currentWord = Arrays.copyOf(currentWord, currentWord.length * 2);
+					currentWord[prefixLength + depth] = labels[e];
+					depth++;
+					states[depth] = targets[e];
+					next[depth] = -1;
+				} else { // every transition followed, go back up
+					depth--;
+				}
+			}
+			nextWord = null;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return nextWord != null;
+		}
+		
+		@Override
+		public String next() {
+			if (nextWord == null)
+				throw new NoSuchElementException();
+			String word = nextWord;
+			advance();
+			return word;
+		}
+	}
+	
+	/**
+	 * Returns array of all words in lexicographic order.
+	 * @return array of all words in lexicographic order.
+	 */
+	public String[] toArray() {
+		String[] array = new String[size];
+		Iterator<String> iterator = keysWithPrefix("");
+		for (int i = 0; iterator.hasNext(); i++)
+			array[i] = iterator.next();
+		return array;
+	}
+	
+	/**
+	 * Returns the number of states of the automaton.
+	 * @return the number of states.
+	 */
+	public int stateCount() {
+		return words.length;
+	}
+	
+	/**
+	 * Returns the number of transitions of the automaton.
+	 * @return the number of transitions.
+	 */
+	public int transitionCount() {
+		return labels.length;
+	}
+	
+	/**
+	 * Returns the number of words accepted.
+	 * @return the number of words accepted.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if no word is accepted.
+	 * @return true if no word is accepted, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+}
\ No newline at end of file
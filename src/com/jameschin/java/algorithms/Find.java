@@ -2,10 +2,12 @@ package com.jameschin.java.algorithms;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Find Algorithms
@@ -48,18 +50,9 @@ public final class Find {
 		if (array == null || k >= array.length || k < 0)
 			return null;
 		
-		MaxHeap<E> maxheap = new MaxHeap<E>();
-		
-		for (E e : array) {
-			if (maxheap.size() < k + 1)
-				maxheap.add(e);
-			else if (e.compareTo(maxheap.findMax()) < 0) {
-				maxheap.deleteMax();
-				maxheap.add(e);
-			}
-		}
-		
-		return maxheap.findMax();
+		// keep the k + 1 least, the greatest of them is the kth smallest
+		TopK<E> topK = new TopK<E>(k + 1, Comparator.<E>reverseOrder());
+		return topK.offerAll(array, 0, array.length).peek();
 	}
 	
 	/**
@@ -74,18 +67,8 @@ public final class Find {
 		if (array == null || k >= array.length || k < 0)
 			return null;
 		
-		MinHeap<E> minheap = new MinHeap<E>();
-		
-		for (E e : array) {
-			if (minheap.size() < k + 1)
-				minheap.add(e);
-			else if (e.compareTo(minheap.findMin()) > 0) {
-				minheap.deleteMin();
-				minheap.add(e);
-			}
-		}
-		
-		return minheap.findMin();
+		TopK<E> topK = new TopK<E>(k + 1);
+		return topK.offerAll(array, 0, array.length).peek();
 	}
 	
 	/**
@@ -361,7 +344,7 @@ public final class Find {
 		
 		// handle 1 factors
 		boolean factorsContainsOne = false;
-		LinkedList<Integer> fac = new LinkedList<Integer>();
+		ArrayDeque<Integer> fac = new ArrayDeque<Integer>();
 		for (int i : factors) {
 			if (i != 1)
 				fac.add(i);
@@ -547,7 +530,7 @@ public final class Find {
 	/**
 	 * Return the top k elements of array in no particular order, k must be larger than the size of the array.
 	 * Space: O(k) where k is the number of top elements to return.
-	 * Time: O(n) where n is the number of elements.
+	 * Time: O(n log k), O(n) if most elements are less than the top k seen before them, where n is the number of elements.
 	 * @param array array of Comparable elements.
 	 * @param k the number of top Comparable elements to return.
 	 * @return array containing the top k Comparable elements in no particular order.
@@ -556,18 +539,56 @@ public final class Find {
 		if (array == null || array.length == 0 || k <= 0)
 			return null;
 		
-		MinHeap<E> minHeap = new MinHeap<E>();		
-		minHeap.add(array[0]);
-
-		for (int i = 1; i < array.length; i++) {
-			if (minHeap.size() < k)
-				minHeap.add(array[i]);
-			else if (array[i].compareTo(minHeap.findMin()) > 0) {
-				minHeap.deleteMin();
-				minHeap.add(array[i]);
-			}
+		TopK<E> topK = new TopK<E>(k);
+		return topK.offerAll(array, 0, array.length).toArray();
+	}
+	
+	/**
+	 * Return the top k elements of array in no particular order.
+	 * Space: O(k p) where p is the number of parts, each scanned into its own TopK by a separate task before they are merged.
+	 * Time: O(n log k / c) where n is the number of elements, c is the number of cores.
+	 * @param array array of Comparable elements.
+	 * @param k the number of top Comparable elements to return.
+	 * @param parallel true to scan parts of the array on separate cores of the common ForkJoinPool, then merge their top k.
+	 * @return array containing the top k Comparable elements in no particular order.
+	 */
+	public static <E extends Comparable<E>> E[] getTop(E[] array, int k, boolean parallel) {
+		if (!parallel)
+			return getTop(array, k);
+		if (array == null || array.length == 0 || k <= 0)
+			return null;
+		
+		return ForkJoinPool.commonPool().invoke(new TopKTask<E>(array, k, 0, array.length)).toArray();
+	}
+	
+	/**
+	 * Collects the top k of a range of an array, splitting ranges longer than PARALLEL_THRESHOLD in half as subtasks.
+	 */
+	private static final class TopKTask<E extends Comparable<E>> extends RecursiveTask<TopK<E>> {
+		private static final long serialVersionUID = 1L;
+		private static final int PARALLEL_THRESHOLD = 1 << 16; // shorter ranges are scanned on the current thread
+		private final E[] array;
+		private final int k;
+		private final int from;
+		private final int to;
+		
+		TopKTask(E[] array, int k, int from, int to) {
+			this.array = array;
+			this.k = k;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected TopK<E> compute() {
+			if (to - from <= PARALLEL_THRESHOLD)
+				return new TopK<E>(k).offerAll(array, from, to);
+			
+			int middle = (from + to) >>> 1;
+			TopKTask<E> left = new TopKTask<E>(array, k, from, middle);
+			left.fork();
+			TopK<E> right = new TopKTask<E>(array, k, middle, to).compute();
+			return left.join().merge(right);
 		}
-
-		return minHeap.toArray();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,298 @@
+package com.jameschin.java.algorithms;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * FrozenTrie
+ * Read-only snapshot of a Trie, made by Trie.freeze(), as a path-compressed radix tree packed into one flat buffer.
+ * Every chain of nodes with a single child and no word is merged into one node whose label holds all of its chars.
+ * Each node is a record in the buffer, children are reached by int offsets, so there are no objects per node at all.
+ * Record: label length (int), label (chars), count (int), words in the sub-tree (int), child count (int),
+ * first char of each child label (chars, sorted), offset of each child record (ints).
+ * save() writes the buffer to a file as it is, load() maps the file back in without reading or decoding it,
+ * so a large dictionary opens in milliseconds and its pages are shared between processes through the page cache.
+ * Every method works on the buffer directly, whether it is on the heap or mapped. A snapshot is limited to 2GB.
+ * Type: Radix Tree, Sorted, Immutable, Memory-Mapped
+ * Space: O(n)
+ * Search: O(m log s) where m is the length of the string, s is the alphabet size.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class FrozenTrie {
+	static final int MAGIC = 0x46545231; // "FTR1", identifies a FrozenTrie file
+	static final int HEADER_SIZE = 16; // magic, size, length of the buffer, reserved
+	
+	private final ByteBuffer buffer;
+	private final int size; // number of words stored
+	
+	/**
+	 * Wraps a buffer laid out by Trie.freeze(), or mapped from a file written by save().
+	 * @param buffer buffer holding the header and the records, the root record directly follows the header.
+	 */
+	FrozenTrie(ByteBuffer buffer) {
+		this.buffer = buffer;
+		size = buffer.getInt(4);
+	}
+	
+	/**
+	 * Maps a snapshot written by save() back in, read-only. The file is not read until its pages are touched.
+	 * @param filename file holding the snapshot.
+	 * @return the snapshot.
+	 * @throws IOException if the file cannot be opened or mapped, or does not hold a FrozenTrie.
+	 */
+	public static FrozenTrie load(String filename) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+			FileChannel channel = file.getChannel();
+			long length = channel.size();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE)
+				throw new IOException(filename + " does not hold a FrozenTrie");
+			
+			// the mapping stays valid after the file is closed
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(8) != length)
+				throw new IOException(filename + " does not hold a FrozenTrie");
+			return new FrozenTrie(buffer);
+		}
+	}
+	
+	/**
+	 * Writes the snapshot to a file, replacing its contents.
+	 * @param filename file to write the snapshot to.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void save(String filename) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+			FileChannel channel = file.getChannel();
+			channel.truncate(0);
+			ByteBuffer source = buffer.duplicate();
+			source.clear();
+			while (source.hasRemaining())
+				channel.write(source);
+		}
+	}
+	
+	/**
+	 * Internal function returning the offset of the count field of a record, which follows its label.
+	 * @param node offset of the record.
+	 * @return offset of the count field.
+	 */
+	private int fields(int node) {
+		return node + 4 + 2 * buffer.getInt(node);
+	}
+	
+	/**
+	 * Internal function returning the child whose label starts with c.
+	 * @param node offset of the record.
+	 * @param c first char of the child label.
+	 * @return offset of the child record, or -1 if there is none.
+	 */
+	private int child(int node, char c) {
+		int f = fields(node);
+		int childCount = buffer.getInt(f + 8);
+		int keys = f + 12;
+		
+		// binary search of the sorted first chars
+		int low = 0;
+		int high = childCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			char key = buffer.getChar(keys + 2 * mid);
+			if (key < c)
+				low = mid + 1;
+			else if (key > c)
+				high = mid - 1;
+			else
+				return buffer.getInt(keys + 2 * childCount + 4 * mid);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Internal function following the string from the root, through the labels.
+	 * @param word search string.
+	 * @return the offset of the record whose label holds the last char of the string in the high 32 bits,
+	 * and the number of label chars matched in the low 32 bits, or -1 if no word starts with the string.
+	 */
+	private long find(String word) {
+		int node = HEADER_SIZE;
+		int i = 0;
+		while (true) {
+			int labelLength = buffer.getInt(node);
+			for (int j = 0; j < labelLength; j++, i++) {
+				if (i == word.length())
+					return ((long) node << 32) | j; // the string ends inside the label
+				if (buffer.getChar(node + 4 + 2 * j) != word.charAt(i))
+					return -1;
+			}
+			if (i == word.length())
+				return ((long) node << 32) | labelLength;
+			
+			node = child(node, word.charAt(i));
+			if (node < 0)
+				return -1;
+		}
+	}
+	
+	/**
+	 * Returns number of times word has been added.
+	 * @param word search string.
+	 * @return number of times word has been added, 0 if not found.
+	 */
+	public int contains(String word) {
+		long found = find(word);
+		if (found < 0)
+			return 0;
+		
+		int node = (int) (found >>> 32);
+		if ((int) found != buffer.getInt(node)) // ends inside a label, so not at a word
+			return 0;
+		return buffer.getInt(fields(node));
+	}
+	
+	/**
+	 * Returns the number of words starting with the prefix.
+	 * Time: O(|prefix|)
+	 * @param prefix search prefix, the empty string matches every word.
+	 * @return the number of distinct words starting with the prefix, including the prefix itself if it is a word.
+	 */
+	public int countWithPrefix(String prefix) {
+		long found = find(prefix);
+		if (found < 0)
+			return 0;
+		return buffer.getInt(fields((int) (found >>> 32)) + 4);
+	}
+	
+	/**
+	 * Returns an iterator over the words starting with the prefix, in lexicographic order.
+	 * @param prefix search prefix, the empty string matches every word.
+	 * @return an iterator over the words starting with the prefix, empty if there are none.
+	 */
+	public Iterator<String> keysWithPrefix(String prefix) {
+		long found = find(prefix);
+		if (found < 0)
+			return new PrefixIterator("", -1);
+		
+		// the words start with the string leading to the record, its label is added back by the iterator
+		String base = prefix.substring(0, prefix.length() - (int) found);
+		return new PrefixIterator(base, (int) (found >>> 32));
+	}
+	
+	private final class PrefixIterator implements Iterator<String> {
+		private char[] currentWord; // chars leading to the current record, including its label
+		private int[] nodes = new int[16]; // records from the start record down to the current one
+		private int[] next = new int[16]; // next child to visit of each record, -1 if its own word has not been checked
+		private int[] lengths = new int[16]; // length of currentWord at each record
+		private int depth; // depth of the current record below the start record, -1 when finished
+		private String nextWord = null;
+		
+		PrefixIterator(String base, int node) {
+			currentWord = Arrays.copyOf(base.toCharArray(), base.length() + 16);
+			depth = -1;
+			if (node >= 0)
+				push(node, base.length());
+			advance();
+		}
+		
+		/**
+		 * Descends into a record, appending its label to the current word.
+		 * @param node offset of the record.
+		 * @param length length of the current word before the label.
+		 */
+		private void push(int node, int length) {
+			depth++;
+			if (depth == nodes.length) {
+				nodes = Arrays.copyOf(nodes, depth * 2);
+				next = Arrays.copyOf(next, depth * 2);
+				lengths = Arrays.copyOf(lengths, depth * 2);
+			}
+			
+			int labelLength = buffer.getInt(node);
+			if (length + labelLength > currentWord.length)
+				currentWord = Arrays.copyOf(currentWord, Math.max(length + labelLength, currentWord.length * 2));
+			for (int j = 0; j < labelLength; j++)
+				currentWord[length + j] = buffer.getChar(node + 4 + 2 * j);
+			
+			nodes[depth] = node;
+			next[depth] = -1;
+			lengths[depth] = length + labelLength;
+		}
+		
+		/**
+		 * Walks the records in pre-order up to the next one storing a word.
+		 */
+		private void advance() {
+			while (depth >= 0) {
+				int f = fields(nodes[depth]);
+				int i = next[depth]++;
+				if (i < 0) { // check the record's own word before its children
+					if (buffer.getInt(f) > 0) {
+						nextWord = new String(currentWord, 0, lengths[depth]);
+						return;
+					}
+				} else {
+					int childCount = buffer.getInt(f + 8);
+					if (i < childCount) // descend into the next child
+						push(buffer.getInt(f + 12 + 2 * childCount + 4 * i), lengths[depth]);
+					else // every child visited, go back up
+						depth--;
+				}
+			}
+			nextWord = null;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return nextWord != null;
+		}
+		
+		@Override
+		public String next() {
+			if (nextWord == null)
+				throw new NoSuchElementException();
+			String word = nextWord;
+			advance();
+			return word;
+		}
+	}
+	
+	/**
+	 * Returns array of all terms in lexicographic order.
+	 * @return array of all terms in lexicographic order.
+	 */
+	public String[] toArray() {
+		String[] array = new String[size];
+		Iterator<String> iterator = keysWithPrefix("");
+		for (int i = 0; iterator.hasNext(); i++)
+			array[i] = iterator.next();
+		return array;
+	}
+	
+	/**
+	 * Returns the number of bytes of the snapshot, header included, which is also the size of its file.
+	 * @return the number of bytes of the snapshot.
+	 */
+	public int byteSize() {
+		return buffer.capacity();
+	}
+	
+	/**
+	 * Returns the number of words stored.
+	 * @return the number of words stored.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if no word is stored.
+	 * @return true if no word is stored, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+}
\ No newline at end of file
@@ -4,7 +4,9 @@ import java.lang.reflect.Array;
 
 /**
  * HashMap
- * Type: Unsorted Linked List Bucket, Automatic Geometric Resizing
+ * Resizing is incremental: the old and resized tables live side by side and each put/get/remove migrates a few buckets,
+ * so no single put pays for rehashing the whole table.
+ * Type: Unsorted Linked List Bucket, Power of Two Table, Automatic Geometric Incremental Resizing
  * Space: O(n)
  * Best: O(1)
  * Worst: O(n) where n is the number of elements.
@@ -12,11 +14,13 @@ import java.lang.reflect.Array;
  */
 public final class HashMap<K, V> {
 	private Node[] mTable;
-	private Node[] resizedTable; // temp area to build resized table 
-	private int tableSize = 16; // number of table buckets
+	private Node[] resizedTable = null; // table being filled while an incremental resize is in progress, null otherwise
+	private int rehashIndex = -1; // next mTable bucket to migrate into resizedTable, -1 when not resizing
+	private int tableSize = 16; // number of table buckets of the newest table, must be a power of two
 	private int size = 0; // number of mappings contained
 	private final double loadFactor = 0.75; // size/tableSize ratio threshold before resizing
 	private final int resizeFactor = 2; // table resize multiplier
+	private final int rehashSteps = 4; // buckets migrated per operation while resizing
 	
 	@SuppressWarnings("unchecked")
 	HashMap() {
@@ -36,16 +40,41 @@ public final class HashMap<K, V> {
 	
 	/**
 	 * Internal function to hash the key value into a table index value.
+	 * Spreads the higher bits of key.hashCode() downward so that masking with a power of two table size still sees them.
 	 * @param key key of new item to be added.
+	 * @param table table to be indexed, its length must be a power of two.
 	 * @return hashed value to be used as the table index.
 	 */
-	private int hashFunction(K key) {
-		int sum = 0;
-		String keyString = key.toString();
-		for (int i = 0; i < keyString.length(); i++) {
-			sum += (int) keyString.charAt(i);
+	private int hashFunction(K key, Node[] table) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return h & (table.length - 1);
+	}
+	
+	/**
+	 * Internal function to find the node mapped to the key, searching the resized table as well while resizing.
+	 * @param key search key.
+	 * @return the node mapped to the key, or null if there exists no mapping for the key.
+	 */
+	private Node getNode(K key) {
+		Node currentNode = mTable[hashFunction(key, mTable)];
+		
+		while (currentNode != null) {
+			if (currentNode.mKey == key || currentNode.mKey.equals(key))
+				return currentNode;
+			currentNode = currentNode.next;
 		}
-		return sum % tableSize;
+		
+		if (resizedTable != null) { // bucket may already have been migrated
+			currentNode = resizedTable[hashFunction(key, resizedTable)];
+			
+			while (currentNode != null) {
+				if (currentNode.mKey == key || currentNode.mKey.equals(key))
+					return currentNode;
+				currentNode = currentNode.next;
+			}
+		}
+		return null; // key not found
 	}
 	
 	/**
@@ -59,37 +88,27 @@ public final class HashMap<K, V> {
 		if (newKey == null)
 			return null;
 		
-		int index = hashFunction(newKey);
+		if (resizedTable != null)
+			rehash();
 		
-		if (mTable[index] != null) { // table bucket contains at least one entry already
-			Node currentNode = mTable[index];
-			
-			// check if key is already mapped
-			while (true) {
-				if (currentNode.mKey == newKey) {
-					V temp = currentNode.mValue;
-					currentNode.mValue = newValue;
-					return temp;
-				} else if (currentNode.next == null)
-					break;
-				else
-					currentNode = currentNode.next;
-			}
-			
-			// key is not already mapped, currentNode.next == null
-			currentNode.next = new Node(newKey, newValue);
-			size++;
-			if ((double) size/tableSize > loadFactor)
-				resize();
-			return null;
-			
-		} else { // table bucket is empty
-			mTable[index] = new Node(newKey, newValue);
-			size++;
-			if ((double) size/tableSize > loadFactor)
-				resize();
-			return null;
+		Node currentNode = getNode(newKey);
+		if (currentNode != null) { // key is already mapped
+			V temp = currentNode.mValue;
+			currentNode.mValue = newValue;
+			return temp;
 		}
+		
+		// key is not already mapped, new mappings go straight into the resized table while resizing
+		Node[] table = (resizedTable != null) ? resizedTable : mTable;
+		int index = hashFunction(newKey, table);
+		Node newNode = new Node(newKey, newValue);
+		newNode.next = table[index];
+		table[index] = newNode;
+		
+		size++;
+		if (resizedTable == null && (double) size/tableSize > loadFactor)
+			resize();
+		return null;
 	}
 	
 	/**
@@ -98,19 +117,14 @@ public final class HashMap<K, V> {
 	 * @return the value to which the specified key is mapped, or null if there exists no mapping for the key.
 	 */
 	public V get(K key) {
-		int index = hashFunction(key);
+		if (key == null)
+			return null;
 		
-		if (mTable[index] != null) { // table bucket contains at least one entry
-			Node currentNode = mTable[index];
-			
-			while (currentNode != null) {
-				if (currentNode.mKey == key) 
-					return currentNode.mValue;
-				else
-					currentNode = currentNode.next;
-			}
-		}
-		return null; // key not found
+		if (resizedTable != null)
+			rehash();
+		
+		Node currentNode = getNode(key);
+		return (currentNode != null) ? currentNode.mValue : null;
 	}
 	
 	/**
@@ -121,6 +135,8 @@ public final class HashMap<K, V> {
 		tableSize = 16;
 		size = 0;
 		mTable = (Node[]) Array.newInstance(Node.class, tableSize);
+		resizedTable = null;
+		rehashIndex = -1;
 	}
 	
 	/**
@@ -140,49 +156,40 @@ public final class HashMap<K, V> {
 	}
 	
 	/**
-	 * Internal function to resize the table when the load factor is exceeded.
+	 * Internal function to start resizing the table when the load factor is exceeded.
+	 * Only allocates the resized table, mappings are migrated a few buckets at a time by rehash().
 	 */
 	@SuppressWarnings("unchecked")
 	private void resize() {
 		tableSize = tableSize * resizeFactor;
 		resizedTable = (Node[]) Array.newInstance(Node.class, tableSize);
-		Node currentNode;
-		
-		for (int i = 0; i < tableSize / resizeFactor; i++) { // old tableSize
-			currentNode = mTable[i];
-			
-			// transfer all mappings into new resized table
-			while (currentNode != null) { 
-				resizePut(currentNode.mKey, currentNode.mValue); // note hashing with new tableSize value
-				currentNode = currentNode.next;
-			}
-		}
-		
-		// new resized table complete
-		mTable = resizedTable;
+		rehashIndex = 0;
 	}
 	
 	/**
-	 * Internal put function to transfer mappings to resizedTable, assumes there will be no pre-existing mapping for the new key.
-	 * @param newKey key of new item to be added.
-	 * @param newValue new item to be added.
+	 * Internal function to migrate the next rehashSteps buckets of mTable into resizedTable.
+	 * Nodes are relinked rather than copied. Once every bucket has been migrated, resizedTable becomes mTable.
+	 * With rehashSteps >= 2 the migration always finishes before the resized table reaches the load factor.
 	 */
-	private void resizePut(K newKey, V newValue) {		
-		int index = hashFunction(newKey);
-		
-		if (resizedTable[index] != null) { // table bucket contains at least one entry already
-			Node currentNode = resizedTable[index];
+	private void rehash() {
+		for (int step = 0; step < rehashSteps && rehashIndex < mTable.length; step++, rehashIndex++) {
+			Node currentNode = mTable[rehashIndex];
+			mTable[rehashIndex] = null;
 			
-			// advance to end of linked list
-			while (currentNode.next != null) {
-				currentNode = currentNode.next;
+			// transfer all mappings in the bucket into new resized table
+			while (currentNode != null) {
+				Node nextNode = currentNode.next;
+				int index = hashFunction(currentNode.mKey, resizedTable); // note hashing with new table size
+				currentNode.next = resizedTable[index];
+				resizedTable[index] = currentNode;
+				currentNode = nextNode;
 			}
-			
-			currentNode.next = new Node(newKey, newValue);
-			return;
-		} else { // table bucket is empty
-			resizedTable[index] = new Node(newKey, newValue);
-			return;
+		}
+		
+		if (rehashIndex == mTable.length) { // new resized table complete
+			mTable = resizedTable;
+			resizedTable = null;
+			rehashIndex = -1;
 		}
 	}
 	
@@ -195,38 +202,45 @@ public final class HashMap<K, V> {
 		if (key == null)
 			return null;
 		
-		int index = hashFunction(key);
+		if (resizedTable != null)
+			rehash();
 		
-		if (mTable[index] != null) { // table bucket contains at least one entry
-			Node currentNode = mTable[index];
-			V temp;
-			
-			if (currentNode.mKey == key) { // if first node matches key
-				temp = currentNode.mValue;
-				
-				if (currentNode.next != null) { // if there is another node following the one to be removed
-					mTable[index] = currentNode.next;
-				} else
-					mTable[index] = null;
-				
+		Node removed = remove(key, mTable);
+		if (removed == null && resizedTable != null) // bucket may already have been migrated
+			removed = remove(key, resizedTable);
+		
+		if (removed == null)
+			return null;
+		size--;
+		return removed.mValue;
+	}
+	
+	/**
+	 * Internal function to unlink the node mapped to the key from its bucket in the specified table, if it exists.
+	 * @param key key for which the mapping should be removed.
+	 * @param table table to search.
+	 * @return the removed node, or null if there was no mapping for the key in the table.
+	 */
+	private Node remove(K key, Node[] table) {
+		int index = hashFunction(key, table);
+		Node currentNode = table[index];
+		
+		if (currentNode == null) // table bucket is empty
+			return null;
+		
+		if (currentNode.mKey == key || currentNode.mKey.equals(key)) { // if first node matches key
+			table[index] = currentNode.next;
+			return currentNode;
+		}
+		
+		while (currentNode.next != null) { // first node does not match, check rest of list
+			if (currentNode.next.mKey == key || currentNode.next.mKey.equals(key)) {
+				Node temp = currentNode.next;
+				currentNode.next = temp.next;
 				return temp;
 			}
-			
-			while (true) { // first node does not match, check rest of list
-				if (currentNode.next == null) {
-					return null;
-				} else if (currentNode.next.mKey == key) {
-					temp = currentNode.next.mValue;
-					
-					if (currentNode.next.next != null) { // if there is another node following the one to be removed
-						currentNode.next = currentNode.next.next;
-					} else
-						currentNode.next = null;
-					return temp;
-				} else
-					currentNode = currentNode.next;
-			}
-		} else // table bucket is empty
-			return null;
+			currentNode = currentNode.next;
+		}
+		return null;
 	}
 }
\ No newline at end of file
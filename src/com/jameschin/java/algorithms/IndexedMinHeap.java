@@ -0,0 +1,263 @@
+package com.jameschin.java.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * IndexedMinHeap
+ * Binary MinHeap of int ids ordered by a key per id, an indexed priority queue.
+ * A position map from each id to its slot in the heap lets decreaseKey() and remove() go straight to the id, nothing is scanned.
+ * Ids are ints from 0 up to, but not including, MAX_ARRAY (Integer.MAX_VALUE - 8, the largest array the VM reliably allocates),
+ * the id arrays grow to fit the largest id added so ids should be kept dense.
+ * Type: Comparative, Array Based, Indexed, Automatic Geometric Resizing
+ * Space: O(n + m) where m is the largest id.
+ * Find Min: O(1)
+ * Insert: O(log n)
+ * Decrease Key: O(log n)
+ * Delete: O(log n) where n is the number of ids in the heap.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class IndexedMinHeap<E extends Comparable<E>> {
+	private int[] heap = new int[16]; // ids in heap order
+	private int[] position = new int[16]; // slot of each id in the heap, -1 if absent
+	private Object[] keys = new Object[16]; // key of each id
+	private int size = 0; // array index of next empty slot
+	private final int resizeFactor = 2; // array resize multiplier
+	private static final int MAX_ARRAY = Integer.MAX_VALUE - 8; // largest array length the VM reliably allocates
+	
+	IndexedMinHeap() {
+		Arrays.fill(position, -1);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private E keyAt(int slot) {
+		return (E) keys[heap[slot]];
+	}
+	
+	/**
+	 * Internal function to grow the id arrays to fit the specified id.
+	 * @param id id to fit.
+	 */
+	private void ensureId(int id) {
+		if (id < position.length)
+			return;
+		
+		int oldLength = position.length;
+		int newLength = Math.max(id + 1, (int) Math.min((long) oldLength * resizeFactor, MAX_ARRAY)); // the long product cannot overflow
+		
+		position = Arrays.copyOf(position, newLength);
+		Arrays.fill(position, oldLength, newLength, -1);
+		keys = Arrays.copyOf(keys, newLength);
+	}
+	
+	/**
+	 * Heapify upwards, moving the hole at slot up past every larger parent, then filling it with id.
+	 * @param slot slot of the hole.
+	 * @param id id to be placed.
+	 */
+	@SuppressWarnings("unchecked")
+	private void heapifyUp(int slot, int id) {
+		E key = (E) keys[id];
+		while (slot > 0) {
+			int parentSlot = (slot - 1) >>> 1;
+			int parent = heap[parentSlot];
+			if (key.compareTo((E) keys[parent]) >= 0)
+				break;
+			heap[slot] = parent;
+			position[parent] = slot;
+			slot = parentSlot;
+		}
+		heap[slot] = id;
+		position[id] = slot;
+	}
+	
+	/**
+	 * Heapify downwards, moving the hole at slot down past every smaller child, then filling it with id.
+	 * @param slot slot of the hole.
+	 * @param id id to be placed.
+	 */
+	@SuppressWarnings("unchecked")
+	private void heapifyDown(int slot, int id) {
+		E key = (E) keys[id];
+		int half = size >>> 1; // slots from half onwards are leaves
+		while (slot < half) {
+			int childSlot = slot * 2 + 1;
+			int child = heap[childSlot];
+			E childKey = (E) keys[child];
+			if (childSlot + 1 < size) { // pick the smaller child
+				int right = heap[childSlot + 1];
+				E rightKey = (E) keys[right];
+				if (rightKey.compareTo(childKey) < 0) {
+					childSlot++;
+					child = right;
+					childKey = rightKey;
+				}
+			}
+			if (key.compareTo(childKey) <= 0)
+				break;
+			heap[slot] = child;
+			position[child] = slot;
+			slot = childSlot;
+		}
+		heap[slot] = id;
+		position[id] = slot;
+	}
+	
+	/**
+	 * Add new id with the specified key.
+	 * @param id id to be added, from 0 to MAX_ARRAY - 1.
+	 * @param key key of the id, must not be null.
+	 * @return true if successfully added, false if the id is already in the heap or invalid.
+	 */
+	public boolean add(int id, E key) {
+		if (id < 0 || id >= MAX_ARRAY || key == null || contains(id))
+			return false;
+		
+		ensureId(id);
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, (int) Math.min((long) heap.length * resizeFactor, MAX_ARRAY));
+		
+		keys[id] = key;
+		heapifyUp(size++, id);
+		return true;
+	}
+	
+	/**
+	 * Returns true if the id is in the heap.
+	 * @param id search id.
+	 * @return true if the id is in the heap, false if not.
+	 */
+	public boolean contains(int id) {
+		return id >= 0 && id < position.length && position[id] >= 0;
+	}
+	
+	/**
+	 * Returns the key of the specified id.
+	 * @param id search id.
+	 * @return the key of the id, or null if the id is not in the heap.
+	 */
+	@SuppressWarnings("unchecked")
+	public E keyOf(int id) {
+		return contains(id) ? (E) keys[id] : null;
+	}
+	
+	/**
+	 * Lowers the key of the specified id and moves it up the heap.
+	 * @param id id whose key should be lowered.
+	 * @param key new key, must not be greater than the current key.
+	 * @return true if the key was lowered, false if the id is not in the heap or the new key is greater.
+	 */
+	public boolean decreaseKey(int id, E key) {
+		if (key == null || !contains(id) || key.compareTo(keyOf(id)) > 0)
+			return false;
+		
+		keys[id] = key;
+		heapifyUp(position[id], id);
+		return true;
+	}
+	
+	/**
+	 * Replaces the key of the specified id, moving it up or down the heap.
+	 * @param id id whose key should be replaced.
+	 * @param key new key.
+	 * @return true if the key was replaced, false if the id is not in the heap.
+	 */
+	public boolean changeKey(int id, E key) {
+		if (key == null || !contains(id))
+			return false;
+		
+		boolean lower = key.compareTo(keyOf(id)) < 0;
+		keys[id] = key;
+		if (lower)
+			heapifyUp(position[id], id);
+		else
+			heapifyDown(position[id], id);
+		return true;
+	}
+	
+	/**
+	 * Returns the id with the min key.
+	 * @return the id with the min key, or -1 if the heap is empty.
+	 */
+	public int findMinId() {
+		return (size == 0) ? -1 : heap[0];
+	}
+	
+	/**
+	 * Returns the min key.
+	 * @return the min key, or null if the heap is empty.
+	 */
+	public E findMin() {
+		return (size == 0) ? null : keyAt(0);
+	}
+	
+	/**
+	 * Removes the id with the min key from the heap and re-heapifies.
+	 * @return the id that was removed, or -1 if the heap is empty.
+	 */
+	public int deleteMin() {
+		if (size == 0)
+			return -1;
+		
+		int min = heap[0];
+		removeAt(0);
+		return min;
+	}
+	
+	/**
+	 * Removes the specified id from the heap, if it is present.
+	 * @param id id to be removed from this heap, if present.
+	 * @return true if the id was found and removed, false if not.
+	 */
+	public boolean remove(int id) {
+		if (!contains(id))
+			return false;
+		
+		removeAt(position[id]);
+		return true;
+	}
+	
+	/**
+	 * Internal function to remove the id at the specified slot, refilling the slot with the last id on the last level.
+	 * @param slot slot of the id to be removed.
+	 */
+	private void removeAt(int slot) {
+		int id = heap[slot];
+		position[id] = -1;
+		keys[id] = null; // let go of the reference
+		size--;
+		
+		if (slot < size) { // the last id may belong above or below slot
+			int last = heap[size];
+			heapifyDown(slot, last);
+			if (heap[slot] == last)
+				heapifyUp(slot, last);
+		}
+	}
+	
+	/**
+	 * Clear the heap.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			position[heap[i]] = -1;
+			keys[heap[i]] = null;
+		}
+		size = 0;
+	}
+	
+	/**
+	 * Returns the size of the heap.
+	 * @return the number of ids in the heap.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the heap is empty.
+	 * @return true if the heap is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.jameschin.java.algorithms;
+
+/**
+ * IntObjectHashMap
+ * HashMap specialized for primitive int keys, no boxing and no allocation on put/get/remove.
+ * Key 0 marks an empty slot, a mapping for key 0 itself is stored outside the table.
+ * Null values are not distinguished from missing mappings.
+ * Type: Open Addressing, Linear Probing, Backward Shift Deletion, Automatic Geometric Resizing
+ * Space: O(n)
+ * Best: O(1)
+ * Worst: O(n) where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class IntObjectHashMap<V> {
+	private final int EMPTY = 0; // sentinel key marking an empty slot
+	private int[] keys;
+	private Object[] values;
+	private boolean hasZeroKey = false; // true if key EMPTY is mapped
+	private Object zeroValue = null; // value mapped to key EMPTY
+	private int tableSize = 16; // number of table slots, must be a power of two
+	private int size = 0; // number of mappings contained, including key EMPTY
+	private final double loadFactor = 0.75; // size/tableSize ratio threshold before resizing
+	private final int resizeFactor = 2; // table resize multiplier
+	
+	IntObjectHashMap() {
+		keys = new int[tableSize];
+		values = new Object[tableSize];
+	}
+	
+	/**
+	 * Internal function to hash the key into its home slot.
+	 * @param key key to be hashed.
+	 * @return home slot of the key.
+	 */
+	private int hashFunction(int key) {
+		int h = key * 0x9E3779B9; // golden ratio multiplier scatters sequential keys
+		return (h ^ (h >>> 16)) & (tableSize - 1);
+	}
+	
+	/**
+	 * Internal function returning the slot holding key, or -1 if there is no mapping for the key.
+	 * @param key search key, must not be EMPTY.
+	 * @return the slot holding key, or -1 if there is no mapping for the key.
+	 */
+	private int indexOf(int key) {
+		int mask = tableSize - 1;
+		int index = hashFunction(key);
+		
+		while (keys[index] != EMPTY) {
+			if (keys[index] == key)
+				return index;
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Associates the specified value with the specified key in this map.
+	 * If the map previously contained a mapping for the key, the old value is replaced.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int newKey, V newValue) {
+		if (newKey == EMPTY) {
+			V temp = (V) zeroValue;
+			if (! hasZeroKey) {
+				hasZeroKey = true;
+				size++;
+			}
+			zeroValue = newValue;
+			return temp;
+		}
+		
+		int mask = tableSize - 1;
+		int index = hashFunction(newKey);
+		
+		while (keys[index] != EMPTY) {
+			if (keys[index] == newKey) { // key is already mapped
+				V temp = (V) values[index];
+				values[index] = newValue;
+				return temp;
+			}
+			index = (index + 1) & mask;
+		}
+		
+		keys[index] = newKey;
+		values[index] = newValue;
+		size++;
+		if ((double) size/tableSize > loadFactor)
+			resize();
+		return null;
+	}
+	
+	/**
+	 * Returns the value to which the specified key is mapped.
+	 * @param key the key whose associated value is to be returned.
+	 * @return the value to which the specified key is mapped, or null if there exists no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		if (key == EMPTY)
+			return (V) zeroValue;
+		
+		int index = indexOf(key);
+		return (index >= 0) ? (V) values[index] : null;
+	}
+	
+	/**
+	 * Returns true if there is a mapping for the specified key.
+	 * @param key search key.
+	 * @return true if there is a mapping for the specified key, false if not.
+	 */
+	public boolean containsKey(int key) {
+		if (key == EMPTY)
+			return hasZeroKey;
+		return indexOf(key) >= 0;
+	}
+	
+	/**
+	 * Remove the mapping associated with the key, if it exists.
+	 * Following entries are shifted back into the freed slot where their probe sequence allows, so no tombstones are needed.
+	 * @param key key for which the mapping should be removed.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		if (key == EMPTY) {
+			if (! hasZeroKey)
+				return null;
+			V temp = (V) zeroValue;
+			hasZeroKey = false;
+			zeroValue = null;
+			size--;
+			return temp;
+		}
+		
+		int gap = indexOf(key);
+		if (gap < 0)
+			return null;
+		
+		V temp = (V) values[gap];
+		int mask = tableSize - 1;
+		int next = (gap + 1) & mask;
+		
+		while (keys[next] != EMPTY) {
+			int home = hashFunction(keys[next]);
+			if (((next - home) & mask) >= ((next - gap) & mask)) { // entry may move back into the gap without passing its home slot
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		
+		keys[gap] = EMPTY;
+		values[gap] = null; // release the value for garbage collection
+		size--;
+		return temp;
+	}
+	
+	/**
+	 * Clear the map.
+	 */
+	public void clear() {
+		tableSize = 16;
+		size = 0;
+		hasZeroKey = false;
+		zeroValue = null;
+		keys = new int[tableSize];
+		values = new Object[tableSize];
+	}
+	
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 * @return the number of key-value mappings in this map.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the map is empty.
+	 * @return true if the map is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Returns a cursor over the mappings in this map, in no particular order.
+	 * The cursor allocates nothing per element. The map must not be modified while the cursor is in use.
+	 * @return a cursor positioned before the first mapping.
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+	
+	/**
+	 * Internal function to resize the table when the load factor is exceeded.
+	 */
+	private void resize() {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		
+		tableSize = tableSize * resizeFactor;
+		keys = new int[tableSize];
+		values = new Object[tableSize];
+		int mask = tableSize - 1;
+		
+		// transfer all mappings into new resized table
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int index = hashFunction(oldKeys[i]);
+				while (keys[index] != EMPTY)
+					index = (index + 1) & mask;
+				keys[index] = oldKeys[i];
+				values[index] = oldValues[i];
+			}
+		}
+	}
+	
+	/**
+	 * Cursor over the mappings of the map, call advance() before reading each mapping.
+	 */
+	public final class Cursor {
+		private int index = -2; // -2 before the first mapping, -1 at the mapping for key EMPTY, otherwise a table slot
+		
+		private Cursor() {}
+		
+		/**
+		 * Moves the cursor to the next mapping.
+		 * @return true if the cursor is at a mapping, false if there are no more mappings.
+		 */
+		public boolean advance() {
+			if (index == -2) {
+				index = -1;
+				if (hasZeroKey)
+					return true;
+			}
+			while (++index < keys.length) {
+				if (keys[index] != EMPTY)
+					return true;
+			}
+			index = keys.length;
+			return false;
+		}
+		
+		/**
+		 * Returns the key of the current mapping.
+		 * @return the key of the current mapping.
+		 */
+		public int key() {
+			return (index == -1) ? EMPTY : keys[index];
+		}
+		
+		/**
+		 * Returns the value of the current mapping.
+		 * @return the value of the current mapping.
+		 */
+		@SuppressWarnings("unchecked")
+		public V value() {
+			return (V) ((index == -1) ? zeroValue : values[index]);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.jameschin.java.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * IntTopK
+ * TopK specialized for primitive ints, keeping the k greatest ints offered in a raw int array with no boxing.
+ * Once full, an offered int greater than the top replaces it with a single sift down, other ints are rejected with one comparison.
+ * Partial results built by separate threads over separate parts of an input can be combined with merge().
+ * Reading the kth greatest before any int has been kept returns noValue (0 unless specified).
+ * Type: Comparative, Array Based, Bounded Heap
+ * Space: O(k)
+ * Find Kth: O(1)
+ * Offer: O(1) if rejected, O(log k) otherwise.
+ * Top K of n ints: O(n log k), O(n) if the input is mostly rejected, where k is the number of ints kept.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class IntTopK {
+	private final int k; // maximum number of ints kept
+	private int[] heap;
+	private int size = 0; // array index of next empty slot
+	private final int resizeFactor = 2; // array resize multiplier
+	private final int noValue; // returned when no int has been kept
+	
+	/**
+	 * Creates an empty accumulator keeping the k greatest ints, reading the kth greatest before any int is kept returns 0.
+	 * @param k maximum number of ints kept.
+	 */
+	public IntTopK(int k) {
+		this(k, 0);
+	}
+	
+	/**
+	 * Creates an empty accumulator keeping the k greatest ints.
+	 * @param k maximum number of ints kept.
+	 * @param noValue returned by reading the kth greatest before any int has been kept.
+	 */
+	public IntTopK(int k, int noValue) {
+		this.k = Math.max(0, k);
+		this.noValue = noValue;
+		heap = new int[Math.min(this.k, 16)];
+	}
+	
+	/**
+	 * Offers an int, keeping it if it is among the k greatest offered so far.
+	 * @param item int to be offered.
+	 * @return true if the int was kept, false if not.
+	 */
+	public boolean offer(int item) {
+		if (size < k) { // not full, add as last element on the last level
+			if (size == heap.length)
+				heap = Arrays.copyOf(heap, Math.min(k, heap.length * resizeFactor));
+			heapifyUp(size++, item);
+			return true;
+		}
+		
+		if (k == 0 || item <= heap[0]) // not greater than the kth greatest
+			return false;
+		
+		heapifyDown(0, item); // replace the top
+		return true;
+	}
+	
+	/**
+	 * Offers every int in a range of the array.
+	 * @param array array of ints.
+	 * @param from index of the first int to offer, inclusive.
+	 * @param to index of the last int to offer, exclusive.
+	 * @return this accumulator.
+	 */
+	public IntTopK offerAll(int[] array, int from, int to) {
+		int i = from;
+		while (i < to && size < k) // fill up
+			offer(array[i++]);
+		
+		if (size == 0)
+			return this;
+		
+		int top = heap[0];
+		for (; i < to; i++) {
+			if (array[i] > top) { // only ints beating the top are sifted
+				heapifyDown(0, array[i]);
+				top = heap[0];
+			}
+		}
+		return this;
+	}
+	
+	/**
+	 * Offers every int kept by another accumulator, so that this one keeps the k greatest of both.
+	 * The other accumulator is left unchanged.
+	 * @param other accumulator to merge into this one.
+	 * @return this accumulator.
+	 */
+	public IntTopK merge(IntTopK other) {
+		if (other == this)
+			return this;
+		return offerAll(other.heap, 0, other.size);
+	}
+	
+	/**
+	 * Heapify upwards, moving the hole at index up past every greater parent, then filling it.
+	 * @param index index of the hole.
+	 * @param item int to be placed.
+	 */
+	private void heapifyUp(int index, int item) {
+		while (index > 0) {
+			int parentIndex = (index - 1) >>> 1;
+			if (item >= heap[parentIndex])
+				break;
+			heap[index] = heap[parentIndex];
+			index = parentIndex;
+		}
+		heap[index] = item;
+	}
+	
+	/**
+	 * Heapify downwards, moving the hole at index down past every lesser child, then filling it.
+	 * @param index index of the hole.
+	 * @param item int to be placed.
+	 */
+	private void heapifyDown(int index, int item) {
+		int half = size >>> 1; // nodes from half onwards are leaves
+		while (index < half) {
+			int childIndex = index * 2 + 1;
+			int child = heap[childIndex];
+			if (childIndex + 1 < size && heap[childIndex + 1] < child)
+				child = heap[++childIndex];
+			if (item <= child)
+				break;
+			heap[index] = child;
+			index = childIndex;
+		}
+		heap[index] = item;
+	}
+	
+	/**
+	 * Returns the least int kept, the kth greatest offered once k ints have been offered.
+	 * @return the least int kept, or noValue if no int has been kept.
+	 */
+	public int peek() {
+		return (size == 0) ? noValue : heap[0];
+	}
+	
+	/**
+	 * Returns the number of ints kept.
+	 * @return the number of ints kept, at most k.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if no int has been kept.
+	 * @return true if no int has been kept, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Returns the maximum number of ints kept.
+	 * @return k.
+	 */
+	public int capacity() {
+		return k;
+	}
+	
+	/**
+	 * Clear the accumulator, so that it may be reused.
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * Returns an array of the ints kept in no particular order.
+	 * @return an array of the ints kept.
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(heap, size);
+	}
+	
+	/**
+	 * Returns an array of the ints kept, greatest first.
+	 * Time: O(k log k)
+	 * @return an array of the ints kept, greatest first.
+	 */
+	public int[] toSortedArray() {
+		int[] array = toArray();
+		Arrays.sort(array);
+		for (int i = 0, j = array.length - 1; i < j; i++, j--) {
+			int temp = array[i];
+			array[i] = array[j];
+			array[j] = temp;
+		}
+		return array;
+	}
+}
\ No newline at end of file
@@ -1,26 +1,28 @@
 package com.jameschin.java.algorithms;
 
 import java.lang.reflect.Array;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * LinkedList
- * Singly linked list with MergeSort and Reverse.
+ * Singly linked list with natural MergeSort and Reverse.
  * Type: List, Queue, Stack
  * Space: O(n) where n is the number of elements.
  * Search: O(1) from head or tail, O(n) otherwise.
  * Insert: O(1) from head or tail, O(n) otherwise.
  * Delete: O(1) from head or tail, O(n) otherwise.
  * 
- * Sort Type: Comparative, In-Place, Recursive, Stable, Highly Parallelizable
- * Sort Space: O(1)
- * Sort Time: O(n log n)
+ * Sort Type: Comparative, In-Place, Natural, Bottom-Up, Stable, Optionally Parallel
+ * Sort Space: O(log n)
+ * Sort Time: O(n log n), O(n) if the list is already sorted or reversed.
  * @author: James Chin <jameslchin@gmail.com>
  */
 public final class LinkedList<E extends Comparable<E>> {
 	private Node head = null;
 	private Node end = null;
 	private int size = 0;
-
+	
 	private class Node {
 		E data;
 		Node next = null;
@@ -426,97 +428,203 @@ public final class LinkedList<E extends Comparable<E>> {
 	}
 	
 	/**
-	 * MergeSort on the elements in the list.
+	 * Natural MergeSort on the elements in the list.
 	 */
 	public void sort() {
-		head = mergeSort(head, size);
+		sort(false);
 	}
 	
 	/**
-	 * MergeSort
-	 * Type: Comparative, In-Place, Recursive, Stable, Highly Parallelizable
-	 * Space: O(1)
-	 * Time: O(n log n)
-	 * @param start starting node of the sublist to sort.
-	 * @param length length of the sublist to sort.
-	 * @return starting node of the sorted sublist.
+	 * Natural MergeSort on the elements in the list.
+	 * @param parallel true to sort sublists of the list on separate cores of the common ForkJoinPool, then merge them.
 	 */
-	private Node mergeSort(Node start, int length) {
-		if (length <= 1)
-			return start;
+	public void sort(boolean parallel) {
+		if (size <= 1)
+			return;
 		
-		int leftLength = length / 2;
-		int rightLength = length - leftLength;
-		int index = 0;
-		Node cursor = start;
-		
-		while (index++ < leftLength)
-			cursor = cursor.next;
-		
-		start = mergeSort(start, leftLength);
-		cursor = mergeSort(cursor, rightLength);
+		SortTask task = new SortTask(head, size, parallel);
+		if (parallel)
+			ForkJoinPool.commonPool().invoke(task);
+		else
+			task.sortRuns();
 		
-		return merge(start, leftLength, cursor, rightLength);
+		head = task.start;
+		end = task.last;
 	}
 	
 	/**
-	 * MergeSort helper function, merges two sublists in stable order.
-	 * @param startLeft starting node of the left sublist to merge.
-	 * @param leftLength length of the left sublist to merge.
-	 * @param startRight starting node of the right sublist to merge.
-	 * @param rightLength length of the right sublist to merge.
-	 * @return starting node of the merged lists.
+	 * Sorts a null terminated sublist, leaving its new first and last nodes in start and last.
+	 * Sublists longer than PARALLEL_THRESHOLD are cut in half and the halves sorted as subtasks, when parallel.
 	 */
-	private Node merge(Node startLeft, int leftLength, Node startRight, int rightLength) {
-		int leftCounter = 0;
-		Node leftCursor = startLeft;
-		
-		int rightCounter = 0;
-		Node rightCursor = startRight;
+	private final class SortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private static final int PARALLEL_THRESHOLD = 1 << 16; // shorter sublists are sorted on the current thread
+		private static final int MAX_SLOTS = 32; // slot i holds 2^i runs merged together, enough for 2^32 runs
+		private final int length;
+		private final boolean parallel;
+		Node start;
+		Node last;
+		
+		SortTask(Node start, int length, boolean parallel) {
+			this.start = start;
+			this.length = length;
+			this.parallel = parallel;
+		}
 		
-		Node startCursor = null;
-		Node mergeCursor = null;
-		int totalLength = leftLength + rightLength;
+		@Override
+		protected void compute() {
+			if (!parallel || length <= PARALLEL_THRESHOLD) {
+				sortRuns();
+				return;
+			}
+			
+			// cut the sublist in half
+			int leftLength = length / 2;
+			Node cursor = start;
+			for (int i = 1; i < leftLength; i++)
+				cursor = cursor.next;
+			Node rightStart = cursor.next;
+			cursor.next = null;
+			
+			SortTask left = new SortTask(start, leftLength, true);
+			SortTask right = new SortTask(rightStart, length - leftLength, true);
+			invokeAll(left, right);
+			
+			start = merge(left.start, right.start);
+			last = lastOf(left.last, right.last);
+		}
 		
-		for (int i = 0; i < totalLength; i++) {
-			if (leftCounter < leftLength && (rightCounter >= rightLength || leftCursor.data.compareTo(rightCursor.data) <= 0)) {
-				if (startCursor == null){
-					mergeCursor = leftCursor;
-					startCursor = mergeCursor;
+		/**
+		 * Bottom-up natural MergeSort, the sublist is consumed as a sequence of runs which are already in order.
+		 * Non-descending runs are taken as they are, strictly descending runs are reversed, keeping the sort stable.
+		 * Runs are merged like a binary counter increments, so only runs of a similar size are merged together.
+		 * Type: Comparative, In-Place, Natural, Bottom-Up, Stable
+		 * Space: O(log n)
+		 * Time: O(n log r) where r is the number of runs, O(n) if the sublist is already sorted or reversed.
+		 */
+		void sortRuns() {
+			@SuppressWarnings("unchecked")
+			Node[] slots = (Node[]) Array.newInstance(Node.class, MAX_SLOTS); // first node of each merged run, null if empty
+			@SuppressWarnings("unchecked")
+			Node[] slotLasts = (Node[]) Array.newInstance(Node.class, MAX_SLOTS); // last node of each merged run
+			Node cursor = start;
+			
+			while (cursor != null) {
+				// take the next run
+				Node runStart = cursor;
+				Node runLast = cursor;
+				cursor = cursor.next;
+				if (cursor != null && cursor.data.compareTo(runStart.data) < 0) { // strictly descending, reverse it while scanning
+					while (cursor != null && cursor.data.compareTo(runStart.data) < 0) {
+						Node nextNode = cursor.next;
+						cursor.next = runStart;
+						runStart = cursor;
+						cursor = nextNode;
+					}
+				} else {
+					while (cursor != null && cursor.data.compareTo(runLast.data) >= 0) {
+						runLast = cursor;
+						cursor = cursor.next;
+					}
 				}
-				else {
-					mergeCursor.next = leftCursor;
-					mergeCursor = leftCursor;
+				runLast.next = null; // unlink the run to avoid cycles
+				
+				// carry, the run in each occupied slot precedes the new run in the list
+				int i = 0;
+				while (slots[i] != null) {
+					runLast = lastOf(slotLasts[i], runLast);
+					runStart = merge(slots[i], runStart);
+					slots[i] = null;
+					i++;
 				}
-				leftCursor = leftCursor.next;
-				leftCounter++;
+				slots[i] = runStart;
+				slotLasts[i] = runLast;
 			}
-			else {
-				if (startCursor == null) {
-					mergeCursor = rightCursor;
-					startCursor = mergeCursor;
-				}
-				else {
-					mergeCursor.next = rightCursor;
-					mergeCursor = rightCursor;
+			
+			// merge the remaining slots, higher slots hold earlier runs
+			Node mergedStart = null;
+			Node mergedLast = null;
+			for (int i = 0; i < MAX_SLOTS; i++) {
+				if (slots[i] == null)
+					continue;
+				if (mergedStart == null) {
+					mergedStart = slots[i];
+					mergedLast = slotLasts[i];
+				} else {
+					mergedLast = lastOf(slotLasts[i], mergedLast);
+					mergedStart = merge(slots[i], mergedStart);
 				}
-				rightCursor = rightCursor.next;
-				rightCounter++;
+			}
+			
+			start = mergedStart;
+			last = mergedLast;
+		}
+	}
+	
+	/**
+	 * MergeSort helper function, merges two null terminated sorted sublists in stable order.
+	 * @param left starting node of the left sublist to merge.
+	 * @param right starting node of the right sublist to merge.
+	 * @return starting node of the merged lists.
+	 */
+	private Node merge(Node left, Node right) {
+		Node startCursor;
+		if (left.data.compareTo(right.data) <= 0) {
+			startCursor = left;
+			left = left.next;
+		} else {
+			startCursor = right;
+			right = right.next;
+		}
+		
+		Node mergeCursor = startCursor;
+		while (left != null && right != null) {
+			if (left.data.compareTo(right.data) <= 0) {
+				mergeCursor.next = left;
+				mergeCursor = left;
+				left = left.next;
+			} else {
+				mergeCursor.next = right;
+				mergeCursor = right;
+				right = right.next;
 			}
 		}
 		
-		mergeCursor.next = null; // unlink the last node to avoid cycles
+		mergeCursor.next = (left != null) ? left : right; // append whichever sublist remains
 		return startCursor;
 	}
 	
 	/**
-	 * MergeSort on Comparable array.
+	 * MergeSort helper function, returns the last node of two sorted sublists once merged, without walking them.
+	 * A stable merge places the last node of the right sublist last unless the last node of the left sublist is greater.
+	 * @param leftLast last node of the left sublist.
+	 * @param rightLast last node of the right sublist.
+	 * @return last node of the merged lists.
+	 */
+	private Node lastOf(Node leftLast, Node rightLast) {
+		return (leftLast.data.compareTo(rightLast.data) <= 0) ? rightLast : leftLast;
+	}
+	
+	/**
+	 * Natural MergeSort on Comparable array.
 	 * Space: O(n)
-	 * Time: O(n log n)
+	 * Time: O(n log n), O(n) if the array is already sorted or reversed.
 	 * @param array Comparable array.
 	 * @return Comparable array in sorted order.
 	 */
 	public static <E extends Comparable<E>> E[] sort(E[] array) {
+		return sort(array, false);
+	}
+	
+	/**
+	 * Natural MergeSort on Comparable array.
+	 * Space: O(n)
+	 * Time: O(n log n), O(n) if the array is already sorted or reversed.
+	 * @param array Comparable array.
+	 * @param parallel true to sort parts of the array on separate cores of the common ForkJoinPool, then merge them.
+	 * @return Comparable array in sorted order.
+	 */
+	public static <E extends Comparable<E>> E[] sort(E[] array, boolean parallel) {
 		if (array == null)
 			return null;
 		
@@ -524,7 +632,7 @@ public final class LinkedList<E extends Comparable<E>> {
 		for (E e : array) {
 			linkedList.add(e);
 		}
-		linkedList.sort();
+		linkedList.sort(parallel);
 		return linkedList.toArray();
 	}
 }
\ No newline at end of file
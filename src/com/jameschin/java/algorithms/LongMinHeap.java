@@ -0,0 +1,159 @@
+package com.jameschin.java.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * LongMinHeap
+ * Binary MinHeap specialized for primitive longs, kept in a raw long array with no boxing and no allocation except on resize.
+ * Sifting moves a hole instead of swapping, each level costs one array write.
+ * Reading or removing the min of an empty heap returns noValue (0 unless specified).
+ * Type: Comparative, Array Based, In-Place, Automatic Geometric Resizing
+ * Space: O(n)
+ * Find Min: O(1)
+ * Insert: O(log n)
+ * Delete: O(log n) where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class LongMinHeap {
+	private long[] heap = new long[16];
+	private int size = 0; // array index of next empty slot
+	private static final int MAX_ARRAY = Integer.MAX_VALUE - 8; // largest array length the VM reliably allocates
+	private final int resizeFactor = 2; // array resize multiplier
+	private final long noValue; // returned when the heap is empty
+	
+	LongMinHeap() {
+		this(0);
+	}
+	
+	LongMinHeap(long noValue) {
+		this.noValue = noValue;
+	}
+	
+	/**
+	 * Add new element to heap.
+	 * @param newItem new element to be added to the heap.
+	 * @return this heap object.
+	 * @throws IllegalStateException if the heap already holds MAX_ARRAY elements.
+	 */
+	public LongMinHeap add(long newItem) {
+		if (size == heap.length) {
+			if (size == MAX_ARRAY)
+				throw new IllegalStateException("heap is full, size " + size);
+			heap = Arrays.copyOf(heap, (int) Math.min((long) heap.length * resizeFactor, MAX_ARRAY)); // the long product cannot overflow
+		}
+		
+		heapifyUp(size++, newItem);
+		return this;
+	}
+	
+	/**
+	 * Heapify upwards, moving the hole at index up past every larger parent, then filling it.
+	 * @param index index of the hole.
+	 * @param item element to be placed.
+	 */
+	private void heapifyUp(int index, long item) {
+		while (index > 0) {
+			int parentIndex = (index - 1) >>> 1;
+			if (item >= heap[parentIndex])
+				break;
+			heap[index] = heap[parentIndex];
+			index = parentIndex;
+		}
+		heap[index] = item;
+	}
+	
+	/**
+	 * Heapify downwards, moving the hole at index down past every smaller child, then filling it.
+	 * @param index index of the hole.
+	 * @param item element to be placed.
+	 */
+	private void heapifyDown(int index, long item) {
+		int half = size >>> 1; // nodes from half onwards are leaves
+		while (index < half) {
+			int childIndex = index * 2 + 1;
+			long child = heap[childIndex];
+			if (childIndex + 1 < size && heap[childIndex + 1] < child)
+				child = heap[++childIndex];
+			if (item <= child)
+				break;
+			heap[index] = child;
+			index = childIndex;
+		}
+		heap[index] = item;
+	}
+	
+	/**
+	 * Returns the element at the top of the MinHeap.
+	 * @return the element at the top of the MinHeap, or noValue if the heap is empty.
+	 */
+	public long findMin() {
+		return (size == 0) ? noValue : heap[0];
+	}
+	
+	/**
+	 * Removes the min element from the heap and re-heapifies.
+	 * @return the min element that was removed, or noValue if the heap is empty.
+	 */
+	public long deleteMin() {
+		if (size == 0)
+			return noValue;
+		
+		long min = heap[0];
+		size--;
+		if (size > 0)
+			heapifyDown(0, heap[size]); // refill the root with the last element on the last level
+		return min;
+	}
+	
+	/**
+	 * Removes a single instance of the specified element from the heap, if it is present.
+	 * @param item element to be removed from this heap, if present.
+	 * @return true if element was found and removed, false if not.
+	 */
+	public boolean remove(long item) {
+		for (int i = 0; i < size; i++) {
+			if (heap[i] == item) { // replace with last element on last level, which may belong above or below i
+				size--;
+				if (i < size) {
+					long last = heap[size];
+					heapifyDown(i, last);
+					if (heap[i] == last)
+						heapifyUp(i, last);
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Clear the heap.
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * Returns the size of the heap.
+	 * @return the size of the heap.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the heap is empty.
+	 * @return true if the heap is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Returns an array representing the heap.
+	 * @return an array representing the heap, index 0 contains the min item, index 1-2 contain the next level of the tree, etc.
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(heap, size);
+	}
+}
\ No newline at end of file
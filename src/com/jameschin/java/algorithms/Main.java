@@ -1,9 +1,12 @@
 package com.jameschin.java.algorithms;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -16,172 +19,1915 @@ public class Main {
 	public static void main(String[] args) {
 		testKnapsack();
 	}
-
+	
 	public static <E extends Comparable<E>> boolean isInOrder(E[] array) {
 		if (array.length <= 1)
 			return true;
 		
-		for (int i = 1; i < array.length; i++) {
-			if (array[i].compareTo(array[i - 1]) < 0) {
-				return false;
+		for (int i = 1; i < array.length; i++) {
+			if (array[i].compareTo(array[i - 1]) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public static <E extends Comparable<E>> boolean isInReverseOrder(E[] array) {
+		if (array.length <= 1)
+			return true;
+		
+		for (int i = 1; i < array.length; i++) {
+			if (array[i].compareTo(array[i - 1]) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns the Levenshtein distance between two strings, computed over the full table, as a reference for Trie.fuzzySearch().
+	 * @param a first string.
+	 * @param b second string.
+	 * @return the minimum number of single char insertions, deletions or substitutions turning a into b.
+	 */
+	public static int editDistance(String a, String b) {
+		int[] row = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++)
+			row[j] = j;
+		
+		for (int i = 1; i <= a.length(); i++) {
+			int diagonal = row[0];
+			row[0] = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int temp = row[j];
+				int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+				row[j] = Math.min(Math.min(row[j] + 1, row[j - 1] + 1), diagonal + cost);
+				diagonal = temp;
+			}
+		}
+		return row[b.length()];
+	}
+	
+	/**
+	 * Returns an estimate of the heap currently in use, after requesting a garbage collection.
+	 * @return bytes of heap in use.
+	 */
+	public static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	/**
+	 * Starts every thread and waits for all of them to finish.
+	 * @param threads threads to run.
+	 */
+	public static void runAll(Thread[] threads) {
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the big-endian bytes of a long.
+	 * @param value long to convert.
+	 * @return 8 byte array.
+	 */
+	public static byte[] toBytes(long value) {
+		byte[] bytes = new byte[8];
+		for (int i = 7; i >= 0; i--) {
+			bytes[i] = (byte) value;
+			value >>>= 8;
+		}
+		return bytes;
+	}
+	
+	public static void speedComparison() {
+		int SIZE = 1000000;
+		Timer timer = new Timer();
+		Random random = new Random();
+		int k = 10; // top k elements
+		
+		Integer[] array = new Integer[SIZE];
+		int[] arrayCopy = new int[SIZE];
+		int[] arrayCopy2 = new int[SIZE];
+		Integer[] arrayCopy3 = new Integer[SIZE];
+		LinkedList<Integer> linkedList = new LinkedList<Integer>();
+		for (int i = 0; i < array.length; i++) {
+			array[i] = random.nextInt(Integer.MAX_VALUE);
+			arrayCopy[i] = array[i];
+			arrayCopy2[i] = array[i];
+			arrayCopy3[i] = array[i];
+			linkedList.add(array[i]);
+		}
+		
+		// RadixSortLSD
+		timer.start();
+		RadixSortLSD.sort(arrayCopy2);
+		timer.stop();
+		System.out.println("RadixSortLSD: " + timer.getTime());
+		for (int i = arrayCopy2.length - k; i < arrayCopy2.length; i++) {
+			System.out.print(arrayCopy2[i] + " ");
+		}
+		System.out.println();
+		timer.reset();
+		
+		// IntegerTrie
+		timer.start();
+		IntegerTrie intTrie = new IntegerTrie(arrayCopy);
+		int[] sortedIntTrie = intTrie.toArray();
+		timer.stop();
+		System.out.println("IntegerTrie: " + timer.getTime());
+		for (int i = sortedIntTrie.length - k; i < sortedIntTrie.length; i++) {
+			System.out.print(sortedIntTrie[i] + " ");
+		}
+		System.out.println();
+		timer.reset();
+		
+		// Find.getTop()
+		Integer[] top;
+		timer.start();
+		top = Find.getTop(array, k);
+		timer.stop();
+		System.out.println("getTop: " + timer.getTime());
+		for (int i : top) {
+			System.out.print(i + " ");
+		}
+		System.out.println();
+		timer.reset();
+		
+		// TreeSet
+		timer.start();
+		TreeSet<Integer> treeSet = new TreeSet<Integer>();
+		for (int i : array) {
+			treeSet.add(i);
+		}
+		Integer[] sortedTreeSet = treeSet.toArray();
+		timer.stop();
+		System.out.println("TreeSet: " + timer.getTime());
+		for (int i = sortedTreeSet.length - k; i < sortedTreeSet.length; i++) {
+			System.out.print(sortedTreeSet[i] + " ");
+		}
+		System.out.println();
+		timer.reset();
+		
+		// LinkedList MergeSort
+		timer.start();
+		linkedList.sort();
+		Integer[] sortedLinkedList = linkedList.toArray(); 
+		timer.stop();
+		System.out.println("LinkedList MergeSort: " + timer.getTime());
+		for (int i = sortedLinkedList.length - k; i < sortedLinkedList.length; i++) {
+			System.out.print(sortedLinkedList[i] + " ");
+		}
+		System.out.println();
+		timer.reset();
+		
+		// HeapSort
+		timer.start();
+		HeapSort.sort(array);
+		timer.stop();
+		System.out.println("HeapSort: " + timer.getTime());
+		for (int i = array.length - k; i < array.length; i++) {
+			System.out.print(array[i] + " ");
+		}
+		System.out.println();
+		timer.reset();
+		
+		// RadixSort
+		timer.start();
+		RadixSort.sort(arrayCopy);
+		timer.stop();
+		System.out.println("RadixSort: " + timer.getTime());
+		for (int i = arrayCopy.length - k; i < arrayCopy.length; i++ ) {
+			System.out.print(arrayCopy[i] + " ");
+		}
+		System.out.println();
+		timer.reset();
+		
+		// MergeSort
+		timer.start();
+		MergeSort.sort(arrayCopy3);
+		timer.stop();
+		System.out.println("MergeSort: " + timer.getTime());
+		for (int i = arrayCopy3.length - k; i < arrayCopy3.length; i++) {
+			System.out.print(arrayCopy3[i] + " ");
+		}
+		System.out.println();
+		timer.reset();
+	}
+	
+	public static void speedComparisonArrayDeque() {
+		int SIZE = 100000;
+		int QUERIES = 100000;
+		Timer timer = new Timer();
+		Random random = new Random();
+		int[] indexes = new int[QUERIES];
+		for (int i = 0; i < QUERIES; i++)
+			indexes[i] = random.nextInt(SIZE);
+		
+		// LinkedList
+		LinkedList<Integer> linkedList = new LinkedList<Integer>();
+		for (int i = 0; i < SIZE; i++)
+			linkedList.add(i);
+		long sum = 0;
+		timer.start();
+		for (int i = 0; i < QUERIES / 100; i++) // 100x fewer queries, each one walks the list
+			sum += linkedList.get(indexes[i]);
+		timer.stop();
+		System.out.println("LinkedList get (1/100 of the queries): " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		linkedList = null;
+		
+		// ArrayDeque
+		ArrayDeque<Integer> arrayDeque = new ArrayDeque<Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			arrayDeque.add(i);
+		timer.stop();
+		System.out.println("ArrayDeque add: " + timer.getTime());
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		for (int i = 0; i < QUERIES; i++)
+			sum += arrayDeque.get(indexes[i]);
+		timer.stop();
+		System.out.println("ArrayDeque get: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		
+		timer.start();
+		for (int i = 0; i < QUERIES / 10; i++)
+			arrayDeque.insert(indexes[i], i);
+		timer.stop();
+		System.out.println("ArrayDeque insert (1/10 of the queries): " + timer.getTime());
+		timer.reset();
+		arrayDeque = null;
+		
+		// ChunkedList
+		ChunkedList<Integer> chunkedList = new ChunkedList<Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			chunkedList.add(i);
+		timer.stop();
+		System.out.println("ChunkedList add: " + timer.getTime());
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		for (int i = 0; i < QUERIES; i++)
+			sum += chunkedList.get(indexes[i]);
+		timer.stop();
+		System.out.println("ChunkedList get: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		
+		timer.start();
+		for (int i = 0; i < QUERIES / 10; i++)
+			chunkedList.insert(indexes[i], i);
+		timer.stop();
+		System.out.println("ChunkedList insert (1/10 of the queries): " + timer.getTime());
+		timer.reset();
+	}
+	
+	public static void speedComparisonBTreeMap() {
+		int SIZE = 2000000;
+		Timer timer = new Timer();
+		Random random = new Random();
+		Integer[] keys = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			keys[i] = random.nextInt();
+		
+		// TreeMap
+		TreeMap<Integer, Integer> treeMap = new TreeMap<Integer, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			treeMap.put(keys[i], keys[i]);
+		timer.stop();
+		System.out.println("TreeMap put: " + timer.getTime());
+		timer.reset();
+		
+		int hits = 0;
+		timer.start();
+		for (int i = 0; i < SIZE; i++) {
+			if (treeMap.get(keys[i]) != null)
+				hits++;
+		}
+		timer.stop();
+		System.out.println("TreeMap get: " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+		
+		long sum = 0;
+		timer.start();
+		TreeMap<Integer, Integer>.Cursor treeCursor = treeMap.cursor();
+		while (treeCursor.advance())
+			sum += treeCursor.value();
+		timer.stop();
+		System.out.println("TreeMap scan: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		treeMap = null;
+		
+		// BTreeMap
+		BTreeMap<Integer, Integer> bTreeMap = new BTreeMap<Integer, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			bTreeMap.put(keys[i], keys[i]);
+		timer.stop();
+		System.out.println("BTreeMap put: " + timer.getTime());
+		timer.reset();
+		
+		hits = 0;
+		timer.start();
+		for (int i = 0; i < SIZE; i++) {
+			if (bTreeMap.get(keys[i]) != null)
+				hits++;
+		}
+		timer.stop();
+		System.out.println("BTreeMap get: " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		BTreeMap<Integer, Integer>.Cursor bTreeCursor = bTreeMap.cursor();
+		while (bTreeCursor.advance())
+			sum += bTreeCursor.value();
+		timer.stop();
+		System.out.println("BTreeMap scan: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+	}
+	
+	public static void speedComparisonConcurrentHashMap() {
+		final int KEYS = 100000;
+		final int OPERATIONS = 2000000; // per thread, one put for every nine gets
+		int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+		Timer timer = new Timer();
+		final Integer[] keys = new Integer[KEYS];
+		for (int i = 0; i < KEYS; i++)
+			keys[i] = i;
+		
+		for (int threadCount = 1; threadCount <= maxThreads; threadCount *= 2) {
+			// HashMap behind one global lock
+			final HashMap<Integer, Integer> locked = new HashMap<Integer, Integer>();
+			Thread[] threads = new Thread[threadCount];
+			for (int t = 0; t < threadCount; t++) {
+				final int seed = t;
+				threads[t] = new Thread(new Runnable() {
+					public void run() {
+						Random random = new Random(seed);
+						for (int i = 0; i < OPERATIONS; i++) {
+							Integer key = keys[random.nextInt(KEYS)];
+							synchronized (locked) {
+								if (i % 10 == 0)
+									locked.put(key, key);
+								else
+									locked.get(key);
+							}
+						}
+					}
+				});
+			}
+			timer.start();
+			runAll(threads);
+			timer.stop();
+			System.out.println(threadCount + " threads, synchronized HashMap: " + timer.getTime());
+			timer.reset();
+			
+			// ConcurrentHashMap
+			final ConcurrentHashMap<Integer, Integer> concurrent = new ConcurrentHashMap<Integer, Integer>();
+			for (int t = 0; t < threadCount; t++) {
+				final int seed = t;
+				threads[t] = new Thread(new Runnable() {
+					public void run() {
+						Random random = new Random(seed);
+						for (int i = 0; i < OPERATIONS; i++) {
+							Integer key = keys[random.nextInt(KEYS)];
+							if (i % 10 == 0)
+								concurrent.put(key, key);
+							else
+								concurrent.get(key);
+						}
+					}
+				});
+			}
+			timer.start();
+			runAll(threads);
+			timer.stop();
+			System.out.println(threadCount + " threads, ConcurrentHashMap: " + timer.getTime());
+			timer.reset();
+		}
+	}
+	
+	public static void speedComparisonConcurrentLinkedQueue() {
+		final int ITEMS = 2000000; // per producer
+		int maxPairs = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		Timer timer = new Timer();
+		final Integer[] items = new Integer[ITEMS];
+		for (int i = 0; i < ITEMS; i++)
+			items[i] = i;
+		String[] names = {"synchronized LinkedList", "ConcurrentLinkedQueue", "RingBuffer"};
+		
+		// producers hand every item to consumers, each consumer takes ITEMS items
+		for (int pairs = 1; pairs <= maxPairs; pairs *= 2) {
+			for (int kind = 0; kind < names.length; kind++) {
+				if (kind == 2 && pairs > 1) // single producer single consumer only
+					continue;
+				
+				final int queueKind = kind;
+				final LinkedList<Integer> locked = new LinkedList<Integer>();
+				final ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<Integer>();
+				final RingBuffer<Integer> ring = new RingBuffer<Integer>(1024);
+				Thread[] threads = new Thread[pairs * 2];
+				for (int t = 0; t < pairs; t++) {
+					threads[t * 2] = new Thread(new Runnable() {
+						public void run() {
+							for (int i = 0; i < ITEMS; i++) {
+								if (queueKind == 0) {
+									synchronized (locked) {
+										locked.add(items[i]);
+									}
+								} else if (queueKind == 1)
+									queue.add(items[i]);
+								else {
+									while (!ring.add(items[i])) // full
+										Thread.yield();
+								}
+							}
+						}
+					});
+					threads[t * 2 + 1] = new Thread(new Runnable() {
+						public void run() {
+							int taken = 0;
+							while (taken < ITEMS) {
+								Integer item;
+								if (queueKind == 0) {
+									synchronized (locked) {
+										item = locked.poll();
+									}
+								} else if (queueKind == 1)
+									item = queue.poll();
+								else
+									item = ring.poll();
+								
+								if (item != null)
+									taken++;
+								else
+									Thread.yield(); // empty
+							}
+						}
+					});
+				}
+				timer.start();
+				runAll(threads);
+				timer.stop();
+				System.out.println(pairs + " producer/consumer pairs, " + names[kind] + " queue: " + timer.getTime());
+				timer.reset();
+			}
+		}
+		
+		// every thread pushes and pops in turn
+		for (int threadCount = 1; threadCount <= maxPairs * 2; threadCount *= 2) {
+			for (int kind = 0; kind < 2; kind++) {
+				final int stackKind = kind;
+				final LinkedList<Integer> locked = new LinkedList<Integer>();
+				final ConcurrentLinkedStack<Integer> stack = new ConcurrentLinkedStack<Integer>();
+				Thread[] threads = new Thread[threadCount];
+				for (int t = 0; t < threadCount; t++) {
+					threads[t] = new Thread(new Runnable() {
+						public void run() {
+							for (int i = 0; i < ITEMS; i++) {
+								if (stackKind == 0) {
+									synchronized (locked) {
+										if (i % 2 == 0)
+											locked.push(items[i]);
+										else
+											locked.pop();
+									}
+								} else {
+									if (i % 2 == 0)
+										stack.push(items[i]);
+									else
+										stack.pop();
+								}
+							}
+						}
+					});
+				}
+				timer.start();
+				runAll(threads);
+				timer.stop();
+				System.out.println(threadCount + " threads, " + ((kind == 0) ? "synchronized LinkedList" : "ConcurrentLinkedStack") + " stack: " + timer.getTime());
+				timer.reset();
+			}
+		}
+	}
+	
+	public static void speedComparisonConcurrentMinHeap() {
+		final int PREFILL = 1000000;
+		final int OPERATIONS = 2000000; // per thread, alternating add and deleteMin
+		int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+		Timer timer = new Timer();
+		final Integer[] values = new Integer[PREFILL + OPERATIONS];
+		Random random = new Random();
+		for (int i = 0; i < values.length; i++)
+			values[i] = random.nextInt();
+		
+		for (int threadCount = 1; threadCount <= maxThreads; threadCount *= 2) {
+			// MinHeap behind one global lock
+			final MinHeap<Integer> locked = new MinHeap<Integer>();
+			for (int i = 0; i < PREFILL; i++)
+				locked.add(values[i]);
+			Thread[] threads = new Thread[threadCount];
+			for (int t = 0; t < threadCount; t++) {
+				threads[t] = new Thread(new Runnable() {
+					public void run() {
+						for (int i = 0; i < OPERATIONS; i++) {
+							synchronized (locked) {
+								if (i % 2 == 0)
+									locked.add(values[PREFILL + i]);
+								else
+									locked.deleteMin();
+							}
+						}
+					}
+				});
+			}
+			timer.start();
+			runAll(threads);
+			timer.stop();
+			System.out.println(threadCount + " threads, synchronized MinHeap: " + timer.getTime());
+			timer.reset();
+			
+			// ConcurrentMinHeap
+			final ConcurrentMinHeap<Integer> concurrent = new ConcurrentMinHeap<Integer>();
+			for (int i = 0; i < PREFILL; i++)
+				concurrent.add(values[i]);
+			for (int t = 0; t < threadCount; t++) {
+				threads[t] = new Thread(new Runnable() {
+					public void run() {
+						for (int i = 0; i < OPERATIONS; i++) {
+							if (i % 2 == 0)
+								concurrent.add(values[PREFILL + i]);
+							else
+								concurrent.deleteMin();
+						}
+					}
+				});
+			}
+			timer.start();
+			runAll(threads);
+			timer.stop();
+			System.out.println(threadCount + " threads, ConcurrentMinHeap: " + timer.getTime());
+			timer.reset();
+		}
+	}
+	
+	public static void speedComparisonConcurrentSkipListMap() {
+		final int KEYS = 1000000;
+		final int OPERATIONS = 1000000; // per thread, alternating put and removeMin
+		int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+		Timer timer = new Timer();
+		final Integer[] keys = new Integer[KEYS];
+		for (int i = 0; i < KEYS; i++)
+			keys[i] = i;
+		
+		for (int threadCount = 1; threadCount <= maxThreads; threadCount *= 2) {
+			// TreeMap behind one global lock
+			final TreeMap<Integer, Integer> locked = new TreeMap<Integer, Integer>();
+			for (int i = 0; i < KEYS; i += 2)
+				locked.put(keys[i], keys[i]);
+			Thread[] threads = new Thread[threadCount];
+			for (int t = 0; t < threadCount; t++) {
+				final int seed = t;
+				threads[t] = new Thread(new Runnable() {
+					public void run() {
+						Random random = new Random(seed);
+						for (int i = 0; i < OPERATIONS; i++) {
+							synchronized (locked) {
+								if (i % 2 == 0)
+									locked.put(keys[random.nextInt(KEYS)], i);
+								else
+									locked.removeMin();
+							}
+						}
+					}
+				});
+			}
+			timer.start();
+			runAll(threads);
+			timer.stop();
+			System.out.println(threadCount + " threads, synchronized TreeMap: " + timer.getTime());
+			timer.reset();
+			
+			// ConcurrentSkipListMap
+			final ConcurrentSkipListMap<Integer, Integer> concurrent = new ConcurrentSkipListMap<Integer, Integer>();
+			for (int i = 0; i < KEYS; i += 2)
+				concurrent.put(keys[i], keys[i]);
+			for (int t = 0; t < threadCount; t++) {
+				final int seed = t;
+				threads[t] = new Thread(new Runnable() {
+					public void run() {
+						Random random = new Random(seed);
+						for (int i = 0; i < OPERATIONS; i++) {
+							if (i % 2 == 0)
+								concurrent.put(keys[random.nextInt(KEYS)], i);
+							else
+								concurrent.removeMin();
+						}
+					}
+				});
+			}
+			timer.start();
+			runAll(threads);
+			timer.stop();
+			System.out.println(threadCount + " threads, ConcurrentSkipListMap: " + timer.getTime());
+			timer.reset();
+		}
+	}
+	
+	public static void speedComparisonDaryHeap() {
+		int SIZE = 2000000;
+		int OPERATIONS = 2000000; // deleteMin followed by add, at a steady size
+		Timer timer = new Timer();
+		Random random = new Random();
+		Integer[] values = new Integer[SIZE + OPERATIONS];
+		for (int i = 0; i < values.length; i++)
+			values[i] = random.nextInt();
+		Integer[] initial = Arrays.copyOf(values, SIZE);
+		
+		for (int arity = 2; arity <= 8; arity *= 2) {
+			DaryHeap<Integer> heap = new DaryHeap<Integer>(Comparator.<Integer>naturalOrder(), arity);
+			timer.start();
+			for (int i = 0; i < SIZE; i++)
+				heap.add(values[i]);
+			timer.stop();
+			System.out.println(arity + "-ary heap add: " + timer.getTime());
+			timer.reset();
+			
+			timer.start();
+			heap = new DaryHeap<Integer>(Comparator.<Integer>naturalOrder(), arity, initial);
+			timer.stop();
+			System.out.println(arity + "-ary heap heapify: " + timer.getTime());
+			timer.reset();
+			
+			long sum = 0;
+			timer.start();
+			for (int i = 0; i < OPERATIONS; i++) {
+				sum += heap.deleteMin();
+				heap.add(values[SIZE + i]);
+			}
+			timer.stop();
+			System.out.println(arity + "-ary heap deleteMin/add: " + timer.getTime() + " (" + sum + ")");
+			timer.reset();
+			
+			sum = 0;
+			timer.start();
+			while (!heap.isEmpty())
+				sum += heap.deleteMin();
+			timer.stop();
+			System.out.println(arity + "-ary heap drain: " + timer.getTime() + " (" + sum + ")");
+			timer.reset();
+		}
+	}
+	
+	public static void speedComparisonDawg() {
+		int STEMS = 200000;
+		int ROUNDS = 5; // contains passes
+		String[] suffixes = {"", "s", "ed", "er", "ers", "ing", "ings", "ly", "ness", "able", "ation", "ations"};
+		Timer timer = new Timer();
+		Random random = new Random();
+		String[] words = new String[STEMS * suffixes.length];
+		for (int i = 0; i < STEMS; i++) {
+			char[] stem = new char[4 + random.nextInt(6)];
+			for (int j = 0; j < stem.length; j++)
+				stem[j] = (char) ('a' + random.nextInt(26));
+			for (int j = 0; j < suffixes.length; j++)
+				words[i * suffixes.length + j] = new String(stem) + suffixes[j];
+		}
+		
+		long baseMemory = usedMemory();
+		timer.start();
+		Trie trie = new Trie();
+		for (String word : words)
+			trie.add(word);
+		timer.stop();
+		System.out.println("Trie add: " + timer.getTime() + " (size " + trie.size() + ")");
+		System.out.println("Trie memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		String[] sorted = trie.toArray();
+		baseMemory = usedMemory();
+		timer.start();
+		Dawg dawg = Dawg.fromSorted(sorted);
+		timer.stop();
+		System.out.println("Dawg fromSorted: " + timer.getTime() + " (size " + dawg.size() + ", " + dawg.stateCount() + " states, " + dawg.transitionCount() + " transitions)");
+		System.out.println("Dawg memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		FrozenTrie frozen = trie.freeze();
+		System.out.println("FrozenTrie bytes: " + frozen.byteSize() / 1024 + " KB");
+		
+		long sum = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (String word : words)
+				sum += trie.contains(word);
+		}
+		timer.stop();
+		System.out.println("Trie contains: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (String word : words) {
+				if (dawg.contains(word))
+					sum++;
+			}
+		}
+		timer.stop();
+		System.out.println("Dawg contains: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		for (String word : words)
+			sum += dawg.indexOf(word);
+		timer.stop();
+		System.out.println("Dawg indexOf: " + timer.getTime() + " (checksum " + sum + ")");
+		timer.reset();
+	}
+	
+	public static void speedComparisonFrozenTrie() {
+		int SIZE = 1000000;
+		int ROUNDS = 5; // contains passes
+		String filename = "FrozenTrie.bin";
+		Timer timer = new Timer();
+		Random random = new Random();
+		String[] words = new String[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			char[] word = new char[3 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++)
+				word[j] = (char) ('a' + random.nextInt(26));
+			words[i] = new String(word);
+		}
+		
+		// rebuilding word by word, as on every restart
+		long baseMemory = usedMemory();
+		timer.start();
+		Trie trie = new Trie();
+		for (int i = 0; i < SIZE; i++)
+			trie.add(words[i]);
+		timer.stop();
+		System.out.println("Trie add: " + timer.getTime() + " (size " + trie.size() + ")");
+		System.out.println("Trie memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		timer.start();
+		FrozenTrie frozen = trie.freeze();
+		timer.stop();
+		System.out.println("Trie freeze: " + timer.getTime() + " (" + frozen.byteSize() / 1024 + " KB)");
+		timer.reset();
+		
+		new java.io.File(filename).delete();
+		try {
+			timer.start();
+			frozen.save(filename);
+			timer.stop();
+			System.out.println("FrozenTrie save: " + timer.getTime());
+			timer.reset();
+			
+			// the file is mapped, not read, so nothing is rebuilt
+			baseMemory = usedMemory();
+			timer.start();
+			FrozenTrie mapped = FrozenTrie.load(filename);
+			timer.stop();
+			System.out.println("FrozenTrie load: " + timer.getTime() + " (size " + mapped.size() + ")");
+			System.out.println("FrozenTrie mapped heap memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+			timer.reset();
+			
+			long sum = 0;
+			timer.start();
+			for (int r = 0; r < ROUNDS; r++) {
+				for (int i = 0; i < SIZE; i++)
+					sum += trie.contains(words[i]);
+			}
+			timer.stop();
+			System.out.println("Trie contains: " + timer.getTime() + " (checksum " + sum + ")");
+			timer.reset();
+			
+			sum = 0;
+			timer.start();
+			for (int r = 0; r < ROUNDS; r++) {
+				for (int i = 0; i < SIZE; i++)
+					sum += mapped.contains(words[i]);
+			}
+			timer.stop();
+			System.out.println("FrozenTrie mapped contains: " + timer.getTime() + " (checksum " + sum + ")");
+			timer.reset();
+			
+			timer.start();
+			String[] array = mapped.toArray();
+			timer.stop();
+			System.out.println("FrozenTrie mapped toArray: " + timer.getTime() + " (" + array.length + ")");
+			timer.reset();
+		} catch (java.io.IOException e) {
+			e.printStackTrace();
+		}
+		new java.io.File(filename).delete();
+	}
+	
+	public static void speedComparisonHashMap() {
+		int SIZE = 200000;
+		int ROUNDS = 10; // lookup passes over all keys
+		int BASELINE_ROUNDS = 1; // lookup passes of the baseline, which is orders of magnitude slower
+		Timer timer = new Timer();
+		Random random = new Random();
+		
+		// baseline: minimal copy of the old put/get, hashing the chars of key.toString() modulo the table size,
+		// keys are matched with equals() rather than == so that only the hash differs
+		final class CharSumHashMap<K, V> {
+			final class Node {
+				final K mKey;
+				V mValue;
+				Node next = null;
+				
+				Node(K key, V value) {
+					mKey = key;
+					mValue = value;
+				}
+			}
+			
+			private Node[] mTable = newTable(16);
+			private int size = 0;
+			
+			@SuppressWarnings("unchecked")
+			private Node[] newTable(int tableSize) {
+				return (Node[]) java.lang.reflect.Array.newInstance(Node.class, tableSize);
+			}
+			
+			private int hashFunction(K key, int tableSize) {
+				int sum = 0;
+				String keyString = key.toString();
+				for (int i = 0; i < keyString.length(); i++)
+					sum += (int) keyString.charAt(i);
+				return sum % tableSize;
+			}
+			
+			// appends at the end of the bucket, as the old put and resizePut did
+			private void append(Node[] table, K newKey, V newValue) {
+				int index = hashFunction(newKey, table.length);
+				if (table[index] == null) {
+					table[index] = new Node(newKey, newValue);
+					return;
+				}
+				Node currentNode = table[index];
+				while (currentNode.next != null)
+					currentNode = currentNode.next;
+				currentNode.next = new Node(newKey, newValue);
+			}
+			
+			void put(K newKey, V newValue) {
+				for (Node currentNode = mTable[hashFunction(newKey, mTable.length)]; currentNode != null; currentNode = currentNode.next) {
+					if (currentNode.mKey.equals(newKey)) {
+						currentNode.mValue = newValue;
+						return;
+					}
+				}
+				append(mTable, newKey, newValue);
+				size++;
+				
+				if ((double) size / mTable.length > 0.75) {
+					Node[] resizedTable = newTable(mTable.length * 2);
+					for (Node first : mTable) {
+						for (Node currentNode = first; currentNode != null; currentNode = currentNode.next)
+							append(resizedTable, currentNode.mKey, currentNode.mValue);
+					}
+					mTable = resizedTable;
+				}
+			}
+			
+			V get(K key) {
+				for (Node currentNode = mTable[hashFunction(key, mTable.length)]; currentNode != null; currentNode = currentNode.next) {
+					if (currentNode.mKey.equals(key))
+						return currentNode.mValue;
+				}
+				return null;
+			}
+		}
+		
+		String[] stringKeys = new String[SIZE];
+		Integer[] integerKeys = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			stringKeys[i] = "key" + i; // permuted digits collide under a character-sum hash
+			integerKeys[i] = random.nextInt(Integer.MAX_VALUE);
+		}
+		
+		// String keys
+		CharSumHashMap<String, Integer> stringBaseline = new CharSumHashMap<String, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			stringBaseline.put(stringKeys[i], i);
+		timer.stop();
+		System.out.println("char-sum baseline put String keys: " + timer.getTime());
+		timer.reset();
+		
+		HashMap<String, Integer> stringMap = new HashMap<String, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			stringMap.put(stringKeys[i], i);
+		timer.stop();
+		System.out.println("HashMap put String keys: " + timer.getTime());
+		timer.reset();
+		
+		int hits = 0;
+		timer.start();
+		for (int r = 0; r < BASELINE_ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++) {
+				if (stringBaseline.get(stringKeys[i]) != null)
+					hits++;
+			}
+		}
+		timer.stop();
+		System.out.println("char-sum baseline get String keys, passes " + BASELINE_ROUNDS + ": " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+		
+		hits = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++) {
+				if (stringMap.get(stringKeys[i]) != null)
+					hits++;
+			}
+		}
+		timer.stop();
+		System.out.println("HashMap get String keys, passes " + ROUNDS + ": " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+		
+		// boxed Integer keys
+		CharSumHashMap<Integer, Integer> integerBaseline = new CharSumHashMap<Integer, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			integerBaseline.put(integerKeys[i], i);
+		timer.stop();
+		System.out.println("char-sum baseline put Integer keys: " + timer.getTime());
+		timer.reset();
+		
+		HashMap<Integer, Integer> integerMap = new HashMap<Integer, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			integerMap.put(integerKeys[i], i);
+		timer.stop();
+		System.out.println("HashMap put Integer keys: " + timer.getTime());
+		timer.reset();
+		
+		hits = 0;
+		timer.start();
+		for (int r = 0; r < BASELINE_ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++) {
+				if (integerBaseline.get(integerKeys[i]) != null)
+					hits++;
+			}
+		}
+		timer.stop();
+		System.out.println("char-sum baseline get Integer keys, passes " + BASELINE_ROUNDS + ": " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+		
+		hits = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++) {
+				if (integerMap.get(integerKeys[i]) != null)
+					hits++;
+			}
+		}
+		timer.stop();
+		System.out.println("HashMap get Integer keys, passes " + ROUNDS + ": " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+	}
+	
+	public static void speedComparisonHashMapPutLatency() {
+		int SIZE = 10000000;
+		Timer timer = new Timer();
+		Integer[] keys = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			keys[i] = i;
+		
+		HashMap<Integer, Integer> hashmap = new HashMap<Integer, Integer>();
+		long worst = 0; // slowest single put in nanoseconds
+		long start;
+		long elapsed;
+		
+		timer.start();
+		for (int i = 0; i < SIZE; i++) {
+			start = System.nanoTime();
+			hashmap.put(keys[i], keys[i]);
+			elapsed = System.nanoTime() - start;
+			if (elapsed > worst)
+				worst = elapsed;
+		}
+		timer.stop();
+		System.out.println("HashMap put total: " + timer.getTime());
+		System.out.println("HashMap slowest put: " + worst / 1000 + " us");
+		timer.reset();
+	}
+	
+	public static void speedComparisonIntIntHashMap() {
+		int SIZE = 1000000;
+		int ROUNDS = 10; // lookup passes over all keys
+		Timer timer = new Timer();
+		Random random = new Random();
+		long baseMemory;
+		long sum;
+		
+		int[] keys = new int[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			keys[i] = random.nextInt(Integer.MAX_VALUE);
+		
+		// boxed HashMap
+		baseMemory = usedMemory();
+		HashMap<Integer, Integer> boxed = new HashMap<Integer, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			boxed.put(keys[i], i);
+		timer.stop();
+		System.out.println("HashMap<Integer, Integer> put: " + timer.getTime());
+		System.out.println("HashMap<Integer, Integer> memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++)
+				sum += boxed.get(keys[i]);
+		}
+		timer.stop();
+		System.out.println("HashMap<Integer, Integer> get: " + timer.getTime() + " (checksum " + sum + ")");
+		timer.reset();
+		boxed = null;
+		
+		// primitive IntIntHashMap
+		baseMemory = usedMemory();
+		IntIntHashMap primitive = new IntIntHashMap();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			primitive.put(keys[i], i);
+		timer.stop();
+		System.out.println("IntIntHashMap put: " + timer.getTime());
+		System.out.println("IntIntHashMap memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++)
+				sum += primitive.get(keys[i]);
+		}
+		timer.stop();
+		System.out.println("IntIntHashMap get: " + timer.getTime() + " (checksum " + sum + ")");
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		IntIntHashMap.Cursor cursor = primitive.cursor();
+		while (cursor.advance())
+			sum += cursor.value();
+		timer.stop();
+		System.out.println("IntIntHashMap cursor: " + timer.getTime() + " (checksum " + sum + ")");
+		timer.reset();
+	}
+	
+	public static void speedComparisonIntMinHeap() {
+		int SIZE = 1000000;
+		int REMOVALS = 2000; // MinHeap.remove() scans, so only a few
+		Timer timer = new Timer();
+		Random random = new Random();
+		int[] values = new int[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			values[i] = random.nextInt();
+		
+		// MinHeap
+		MinHeap<Integer> minHeap = new MinHeap<Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			minHeap.add(values[i]);
+		long sum = 0;
+		while (!minHeap.isEmpty())
+			sum += minHeap.deleteMin();
+		timer.stop();
+		System.out.println("MinHeap add/deleteMin: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		
+		for (int i = 0; i < SIZE; i++)
+			minHeap.add(values[i]);
+		timer.start();
+		for (int i = 0; i < REMOVALS; i++)
+			minHeap.remove(values[random.nextInt(SIZE)]);
+		timer.stop();
+		System.out.println("MinHeap remove: " + timer.getTime());
+		timer.reset();
+		minHeap = null;
+		
+		// IntMinHeap
+		IntMinHeap intMinHeap = new IntMinHeap();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			intMinHeap.add(values[i]);
+		sum = 0;
+		while (!intMinHeap.isEmpty())
+			sum += intMinHeap.deleteMin();
+		timer.stop();
+		System.out.println("IntMinHeap add/deleteMin: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		
+		// IndexedMinHeap, ids are positions in values
+		IndexedMinHeap<Integer> indexedMinHeap = new IndexedMinHeap<Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			indexedMinHeap.add(i, values[i]);
+		sum = 0;
+		while (!indexedMinHeap.isEmpty())
+			sum += values[indexedMinHeap.deleteMin()];
+		timer.stop();
+		System.out.println("IndexedMinHeap add/deleteMin: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		
+		for (int i = 0; i < SIZE; i++)
+			indexedMinHeap.add(i, values[i]);
+		timer.start();
+		for (int i = 0; i < REMOVALS; i++)
+			indexedMinHeap.remove(random.nextInt(SIZE));
+		timer.stop();
+		System.out.println("IndexedMinHeap remove: " + timer.getTime());
+		timer.reset();
+		
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			indexedMinHeap.decreaseKey(i, Integer.MIN_VALUE + i);
+		timer.stop();
+		System.out.println("IndexedMinHeap decreaseKey (" + SIZE + "): " + timer.getTime());
+		timer.reset();
+	}
+	
+	public static void speedComparisonLinkedListSort() {
+		int SIZE = 2000000;
+		Timer timer = new Timer();
+		Random random = new Random();
+		String[] shapes = {"random", "sorted", "reversed", "nearly sorted"};
+		
+		for (int shape = 0; shape < shapes.length; shape++) {
+			Integer[] array = new Integer[SIZE];
+			for (int i = 0; i < SIZE; i++) {
+				if (shape == 0)
+					array[i] = random.nextInt();
+				else if (shape == 1)
+					array[i] = i;
+				else if (shape == 2)
+					array[i] = SIZE - i;
+				else
+					array[i] = (random.nextInt(100) == 0) ? random.nextInt(SIZE) : i; // 1% out of place
+			}
+			
+			for (int parallel = 0; parallel < 2; parallel++) {
+				LinkedList<Integer> linkedList = new LinkedList<Integer>();
+				for (Integer i : array)
+					linkedList.add(i);
+				
+				timer.start();
+				linkedList.sort(parallel == 1);
+				timer.stop();
+				System.out.println("LinkedList sort " + shapes[shape] + ((parallel == 1) ? " (parallel): " : ": ") + timer.getTime());
+				timer.reset();
+			}
+		}
+	}
+	
+	public static void speedComparisonMappedHashMap() {
+		int SIZE = 1000000;
+		String filename = "MappedHashMap.bin";
+		Timer timer = new Timer();
+		Random random = new Random();
+		long[] keys = new long[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			keys[i] = random.nextLong();
+		
+		new java.io.File(filename).delete();
+		try {
+			MappedHashMap map = new MappedHashMap(filename, 8, 8, SIZE);
+			timer.start();
+			for (int i = 0; i < SIZE; i++)
+				map.put(toBytes(keys[i]), toBytes(i));
+			timer.stop();
+			System.out.println("MappedHashMap put: " + timer.getTime() + " (size " + map.size() + ")");
+			timer.reset();
+			map.close();
+			
+			// reopen maps the existing file back in, nothing is rebuilt
+			timer.start();
+			map = new MappedHashMap(filename, 8, 8, SIZE);
+			timer.stop();
+			System.out.println("MappedHashMap reopen: " + timer.getTime() + " (size " + map.size() + ")");
+			timer.reset();
+			
+			int hits = 0;
+			timer.start();
+			for (int i = 0; i < SIZE; i++) {
+				if (map.get(toBytes(keys[i])) != null)
+					hits++;
+			}
+			timer.stop();
+			System.out.println("MappedHashMap get: " + timer.getTime() + " (" + hits + " hits)");
+			timer.reset();
+			
+			timer.start();
+			for (int i = 0; i < SIZE; i += 2)
+				map.remove(toBytes(keys[i]));
+			timer.stop();
+			System.out.println("MappedHashMap remove half: " + timer.getTime() + " (size " + map.size() + ")");
+			timer.reset();
+			map.close();
+		} catch (java.io.IOException e) {
+			e.printStackTrace();
+		}
+		new java.io.File(filename).delete();
+	}
+	
+	public static void speedComparisonPersistentTreeMap() {
+		int SIZE = 1000000;
+		int SNAPSHOT_INTERVAL = 10000; // writes between snapshots
+		Timer timer = new Timer();
+		Random random = new Random();
+		Integer[] keys = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			keys[i] = random.nextInt();
+		
+		// TreeMap, copied out with toArray() for every snapshot
+		TreeMap<Integer, Integer> treeMap = new TreeMap<Integer, Integer>();
+		long copied = 0;
+		timer.start();
+		for (int i = 0; i < SIZE; i++) {
+			treeMap.put(keys[i], keys[i]);
+			if (i % SNAPSHOT_INTERVAL == 0)
+				copied += treeMap.toArray().length;
+		}
+		timer.stop();
+		System.out.println("TreeMap put with toArray snapshots: " + timer.getTime() + " (" + copied + " values copied)");
+		timer.reset();
+		treeMap = null;
+		
+		// PersistentTreeMap, a snapshot is the current version
+		PersistentTreeMap<Integer, Integer> persistentMap = new PersistentTreeMap<Integer, Integer>();
+		List<PersistentTreeMap<Integer, Integer>> snapshots = new ArrayList<PersistentTreeMap<Integer, Integer>>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++) {
+			persistentMap = persistentMap.put(keys[i], keys[i]);
+			if (i % SNAPSHOT_INTERVAL == 0)
+				snapshots.add(persistentMap);
+		}
+		timer.stop();
+		System.out.println("PersistentTreeMap put with snapshots: " + timer.getTime() + " (" + snapshots.size() + " snapshots kept)");
+		timer.reset();
+		
+		int hits = 0;
+		timer.start();
+		for (int i = 0; i < SIZE; i++) {
+			if (persistentMap.get(keys[i]) != null)
+				hits++;
+		}
+		timer.stop();
+		System.out.println("PersistentTreeMap get: " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+	}
+	
+	public static void speedComparisonPowerSet() {
+		int SIZE = 16;
+		Timer timer = new Timer();
+		
+		Integer[] set1 = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			set1[i] = i;
+		
+		Set<Integer> set2 = new HashSet<Integer>();
+		for (int i = 0; i < SIZE; i++)
+			set2.add(i);
+		
+		// Recursive power set function
+		timer.start();
+		Set<Set<Integer>> powerset2 = Find.powerSetRecursive(set2);
+		timer.stop();
+		System.out.println("Recursive power set function: " + timer.getTime());
+		System.out.println("Size: " + powerset2.size());
+		timer.reset();
+		
+		// Non-recursive power set function
+		timer.start();
+		Integer[][] powerset1 = Find.powerSet(set1);
+		timer.stop();
+		System.out.println("Non-recursive power set function: " + timer.getTime());
+		System.out.println("Size: " + powerset1.length);
+		timer.reset();
+	}
+	
+	public static void speedComparisonRobinHoodHashMap() {
+		int SIZE = 1000000;
+		int ROUNDS = 10; // lookup passes over all keys
+		Timer timer = new Timer();
+		Random random = new Random();
+		long baseMemory;
+		
+		Integer[] keys = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			keys[i] = random.nextInt(Integer.MAX_VALUE);
+		
+		// chained HashMap
+		baseMemory = usedMemory();
+		HashMap<Integer, Integer> chained = new HashMap<Integer, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			chained.put(keys[i], keys[i]);
+		timer.stop();
+		System.out.println("HashMap put: " + timer.getTime());
+		System.out.println("HashMap memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		int hits = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++) {
+				if (chained.get(keys[i]) != null)
+					hits++;
 			}
 		}
-		return true;
+		timer.stop();
+		System.out.println("HashMap get: " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+		
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			chained.remove(keys[i]);
+		timer.stop();
+		System.out.println("HashMap remove: " + timer.getTime() + " (size " + chained.size() + ")");
+		timer.reset();
+		chained = null;
+		
+		// open addressing RobinHoodHashMap
+		baseMemory = usedMemory();
+		RobinHoodHashMap<Integer, Integer> robinHood = new RobinHoodHashMap<Integer, Integer>();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			robinHood.put(keys[i], keys[i]);
+		timer.stop();
+		System.out.println("RobinHoodHashMap put: " + timer.getTime());
+		System.out.println("RobinHoodHashMap memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		hits = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++) {
+				if (robinHood.get(keys[i]) != null)
+					hits++;
+			}
+		}
+		timer.stop();
+		System.out.println("RobinHoodHashMap get: " + timer.getTime() + " (" + hits + " hits)");
+		timer.reset();
+		
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			robinHood.remove(keys[i]);
+		timer.stop();
+		System.out.println("RobinHoodHashMap remove: " + timer.getTime() + " (size " + robinHood.size() + ")");
+		timer.reset();
 	}
 	
-	public static <E extends Comparable<E>> boolean isInReverseOrder(E[] array) {
-		if (array.length <= 1)
-			return true;
+	public static void speedComparisonTopK() {
+		int SIZE = 10000000;
+		int k = 1000;
+		Timer timer = new Timer();
+		Random random = new Random();
+		int[] ints = new int[SIZE];
+		Integer[] array = new Integer[SIZE];
+		String[] shapes = {"random", "ascending"}; // ascending input replaces the top for every element
 		
-		for (int i = 1; i < array.length; i++) {
-			if (array[i].compareTo(array[i - 1]) > 0) {
-				return false;
+		for (int shape = 0; shape < shapes.length; shape++) {
+			for (int i = 0; i < SIZE; i++) {
+				ints[i] = (shape == 0) ? random.nextInt() : i;
+				array[i] = ints[i];
 			}
+			
+			// MinHeap, deleteMin and add for every element kept
+			timer.start();
+			MinHeap<Integer> minHeap = new MinHeap<Integer>();
+			for (Integer e : array) {
+				if (minHeap.size() < k)
+					minHeap.add(e);
+				else if (e.compareTo(minHeap.findMin()) > 0) {
+					minHeap.deleteMin();
+					minHeap.add(e);
+				}
+			}
+			timer.stop();
+			System.out.println("MinHeap " + shapes[shape] + ": " + timer.getTime() + " (" + minHeap.findMin() + ")");
+			timer.reset();
+			
+			// TopK
+			timer.start();
+			TopK<Integer> topK = new TopK<Integer>(k).offerAll(array, 0, SIZE);
+			timer.stop();
+			System.out.println("TopK " + shapes[shape] + ": " + timer.getTime() + " (" + topK.peek() + ")");
+			timer.reset();
+			
+			// IntTopK
+			timer.start();
+			IntTopK intTopK = new IntTopK(k).offerAll(ints, 0, SIZE);
+			timer.stop();
+			System.out.println("IntTopK " + shapes[shape] + ": " + timer.getTime() + " (" + intTopK.peek() + ")");
+			timer.reset();
+			
+			// Find.getTop, parallel
+			timer.start();
+			Integer[] top = Find.getTop(array, k, true);
+			timer.stop();
+			System.out.println("Find.getTop parallel " + shapes[shape] + ": " + timer.getTime() + " (" + top.length + ")");
+			timer.reset();
 		}
-		return true;
 	}
 	
-	public static void speedComparison() {
+	public static void speedComparisonTreeMap() {
+		int SIZE = 100000;
+		Timer timer = new Timer();
+		Random random = new Random();
+		
+		// baseline: minimal copy of the old unbalanced insert and search, sorted keys degrade it into a list
+		final class UnbalancedTreeMap<K extends Comparable<K>, V> {
+			final class Node {
+				final K mKey;
+				V mValue;
+				Node left = null;
+				Node right = null;
+				
+				Node(K key, V value) {
+					mKey = key;
+					mValue = value;
+				}
+			}
+			
+			private Node root = null;
+			
+			void put(K newKey, V newValue) {
+				if (root == null) {
+					root = new Node(newKey, newValue);
+					return;
+				}
+				
+				Node node = root;
+				while (true) {
+					int compare = newKey.compareTo(node.mKey);
+					if (compare < 0) {
+						if (node.left == null) {
+							node.left = new Node(newKey, newValue);
+							return;
+						}
+						node = node.left;
+					} else if (compare > 0) {
+						if (node.right == null) {
+							node.right = new Node(newKey, newValue);
+							return;
+						}
+						node = node.right;
+					} else {
+						node.mValue = newValue;
+						return;
+					}
+				}
+			}
+			
+			V get(K key) {
+				Node node = root;
+				while (node != null) {
+					int compare = key.compareTo(node.mKey);
+					if (compare < 0)
+						node = node.left;
+					else if (compare > 0)
+						node = node.right;
+					else
+						return node.mValue;
+				}
+				return null;
+			}
+		}
+		
+		Integer[] sequential = new Integer[SIZE];
+		Integer[] shuffled = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			sequential[i] = i;
+			shuffled[i] = i;
+		}
+		for (int i = SIZE - 1; i > 0; i--) { // Fisher-Yates shuffle
+			int j = random.nextInt(i + 1);
+			Integer temp = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = temp;
+		}
+		
+		Integer[][] workloads = {sequential, shuffled};
+		String[] names = {"sequential", "random"};
+		for (int w = 0; w < workloads.length; w++) {
+			Integer[] keys = workloads[w];
+			UnbalancedTreeMap<Integer, Integer> baseline = new UnbalancedTreeMap<Integer, Integer>();
+			
+			timer.start();
+			for (int i = 0; i < SIZE; i++)
+				baseline.put(keys[i], keys[i]);
+			timer.stop();
+			System.out.println("unbalanced baseline " + names[w] + " put: " + timer.getTime());
+			timer.reset();
+			
+			int hits = 0;
+			timer.start();
+			for (int i = 0; i < SIZE; i++) {
+				if (baseline.get(keys[i]) != null)
+					hits++;
+			}
+			timer.stop();
+			System.out.println("unbalanced baseline " + names[w] + " get: " + timer.getTime() + " (" + hits + " hits)");
+			timer.reset();
+			
+			TreeMap<Integer, Integer> treeMap = new TreeMap<Integer, Integer>();
+			
+			timer.start();
+			for (int i = 0; i < SIZE; i++)
+				treeMap.put(keys[i], keys[i]);
+			timer.stop();
+			System.out.println("TreeMap " + names[w] + " put: " + timer.getTime());
+			timer.reset();
+			
+			hits = 0;
+			timer.start();
+			for (int i = 0; i < SIZE; i++) {
+				if (treeMap.get(keys[i]) != null)
+					hits++;
+			}
+			timer.stop();
+			System.out.println("TreeMap " + names[w] + " get: " + timer.getTime() + " (" + hits + " hits)");
+			timer.reset();
+			
+			timer.start();
+			for (int i = 0; i < SIZE; i++)
+				treeMap.remove(keys[i]);
+			timer.stop();
+			System.out.println("TreeMap " + names[w] + " remove: " + timer.getTime() + " (size " + treeMap.size() + ")");
+			timer.reset();
+		}
+	}
+	
+	public static void speedComparisonTreeSet() {
 		int SIZE = 1000000;
+		int QUERIES = 100;
 		Timer timer = new Timer();
 		Random random = new Random();
-		int k = 10; // top k elements
 		
-		Integer[] array = new Integer[SIZE];
-		int[] arrayCopy = new int[SIZE];
-		int[] arrayCopy2 = new int[SIZE];
-		Integer[] arrayCopy3 = new Integer[SIZE];
-		LinkedList<Integer> linkedList = new LinkedList<Integer>();
-		for (int i = 0; i < array.length; i++) {
-			array[i] = random.nextInt(Integer.MAX_VALUE);
-			arrayCopy[i] = array[i];
-			arrayCopy2[i] = array[i];
-			arrayCopy3[i] = array[i];
-			linkedList.add(array[i]);
+		TreeSet<Integer> treeSet = new TreeSet<Integer>();
+		java.util.TreeSet<Integer> javaTreeSet = new java.util.TreeSet<Integer>();
+		for (int i = 0; i < SIZE; i++) {
+			int value = random.nextInt();
+			treeSet.add(value);
+			javaTreeSet.add(value);
 		}
+		int[] indexes = new int[QUERIES];
+		for (int q = 0; q < QUERIES; q++)
+			indexes[q] = random.nextInt(treeSet.size());
 		
-		// RadixSortLSD
+		// in-order walk to index i, as get(i) did before subtree sizes were kept
+		long sum = 0;
 		timer.start();
-		RadixSortLSD.sort(arrayCopy2);
-		timer.stop();
-		System.out.println("RadixSortLSD: " + timer.getTime());
-		for (int i = arrayCopy2.length - k; i < arrayCopy2.length; i++) {
-			System.out.print(arrayCopy2[i] + " ");
+		for (int q = 0; q < QUERIES; q++) {
+			Iterator<Integer> iterator = javaTreeSet.iterator();
+			for (int i = 0; i < indexes[q]; i++)
+				iterator.next();
+			sum += iterator.next();
 		}
-		System.out.println();
+		timer.stop();
+		System.out.println("TreeSet in-order walk get: " + timer.getTime() + " (" + sum + ")");
 		timer.reset();
 		
-		// IntegerTrie
+		sum = 0;
 		timer.start();
-		IntegerTrie intTrie = new IntegerTrie(arrayCopy);
-		int[] sortedIntTrie = intTrie.toArray();
+		for (int q = 0; q < QUERIES; q++)
+			sum += treeSet.get(indexes[q]);
 		timer.stop();
-		System.out.println("IntegerTrie: " + timer.getTime());
-		for (int i = sortedIntTrie.length - k; i < sortedIntTrie.length; i++) {
-			System.out.print(sortedIntTrie[i] + " ");
-		}
-		System.out.println();
+		System.out.println("TreeSet get: " + timer.getTime() + " (" + sum + ")");
 		timer.reset();
 		
-		// Find.getTop()
-		Integer[] top;
+		// percentile lookups: rank of every element
+		sum = 0;
+		Integer[] elements = treeSet.toArray();
 		timer.start();
-		top = Find.getTop(array, k);
+		for (int i = 0; i < elements.length; i++)
+			sum += treeSet.rank(elements[i]);
 		timer.stop();
-		System.out.println("getTop: " + timer.getTime());
-		for (int i : top) {
-			System.out.print(i + " ");
-		}
-		System.out.println();
+		System.out.println("TreeSet rank: " + timer.getTime() + " (" + sum + ")");
 		timer.reset();
 		
-		// TreeSet
+		sum = 0;
 		timer.start();
-		TreeSet<Integer> treeSet = new TreeSet<Integer>();
-		for (int i : array) {
-			treeSet.add(i);
+		for (int q = 0; q < QUERIES; q++)
+			sum += treeSet.countRange(elements[q], elements[q] + SIZE);
+		timer.stop();
+		System.out.println("TreeSet countRange: " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+	}
+	
+	public static void speedComparisonTreeSetFromSorted() {
+		int SIZE = 1000000;
+		int ROUNDS = 10; // export passes
+		Timer timer = new Timer();
+		Integer[] sorted = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++)
+			sorted[i] = i;
+		
+		timer.start();
+		TreeSet<Integer> added = new TreeSet<Integer>();
+		for (int i = 0; i < SIZE; i++)
+			added.add(sorted[i]);
+		timer.stop();
+		System.out.println("TreeSet add sorted: " + timer.getTime());
+		timer.reset();
+		
+		timer.start();
+		TreeSet<Integer> built = TreeSet.fromSorted(sorted);
+		timer.stop();
+		System.out.println("TreeSet fromSorted: " + timer.getTime() + " (size " + built.size() + ")");
+		timer.reset();
+		
+		long sum = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++)
+			sum += built.toArray().length;
+		timer.stop();
+		System.out.println("TreeSet toArray(): " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+		
+		sum = 0;
+		Integer[] array = new Integer[SIZE];
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++)
+			sum += built.toArray(array);
+		timer.stop();
+		System.out.println("TreeSet toArray(E[]): " + timer.getTime() + " (" + sum + ")");
+		timer.reset();
+	}
+	
+	public static void speedComparisonTrie() {
+		int SIZE = 1000000;
+		int ROUNDS = 5; // contains passes
+		Timer timer = new Timer();
+		Random random = new Random();
+		
+		// baseline: minimal copy of the old recursive trie, children in a TreeMap<Character, Node> per node
+		final class TreeMapTrie {
+			final class Node {
+				int count = 0;
+				java.util.TreeMap<Character, Node> children = new java.util.TreeMap<Character, Node>();
+			}
+			
+			private Node root = new Node();
+			
+			void add(String word, Node node) {
+				if (word.length() > 0) {
+					char nextChar = word.charAt(0);
+					if (! node.children.containsKey(nextChar))
+						node.children.put(nextChar, new Node());
+					add(word.substring(1), node.children.get(nextChar));
+				} else
+					node.count++;
+			}
+			
+			int contains(String word, Node node) {
+				if (word.length() > 0) {
+					char nextChar = word.charAt(0);
+					if (! node.children.containsKey(nextChar))
+						return 0;
+					return contains(word.substring(1), node.children.get(nextChar));
+				} else
+					return node.count;
+			}
+			
+			boolean remove(String word, Node node) {
+				if (word.length() == 0) {
+					boolean found = node.count > 0;
+					node.count = 0;
+					return found;
+				}
+				
+				char nextChar = word.charAt(0);
+				if (! node.children.containsKey(nextChar))
+					return false;
+				Node child = node.children.get(nextChar);
+				boolean found = remove(word.substring(1), child);
+				if (found && child.children.isEmpty() && child.count == 0) // remove empty branches
+					node.children.remove(nextChar);
+				return found;
+			}
 		}
-		Integer[] sortedTreeSet = treeSet.toArray();
+		
+		String[] words = new String[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			char[] word = new char[3 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++)
+				word[j] = (char) ('a' + random.nextInt(26));
+			words[i] = new String(word);
+		}
+		
+		long baseMemory = usedMemory();
+		TreeMapTrie baseline = new TreeMapTrie();
+		timer.start();
+		for (int i = 0; i < SIZE; i++)
+			baseline.add(words[i], baseline.root);
 		timer.stop();
-		System.out.println("TreeSet: " + timer.getTime());
-		for (int i = sortedTreeSet.length - k; i < sortedTreeSet.length; i++) {
-			System.out.print(sortedTreeSet[i] + " ");
+		System.out.println("TreeMap trie baseline add: " + timer.getTime());
+		System.out.println("TreeMap trie baseline memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		long sum = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++)
+				sum += baseline.contains(words[i], baseline.root);
 		}
-		System.out.println();
+		timer.stop();
+		System.out.println("TreeMap trie baseline contains: " + timer.getTime() + " (checksum " + sum + ")");
 		timer.reset();
 		
-		// LinkedList MergeSort
 		timer.start();
-		linkedList.sort();
-		Integer[] sortedLinkedList = linkedList.toArray(); 
+		for (int i = 0; i < SIZE; i++)
+			baseline.remove(words[i], baseline.root);
 		timer.stop();
-		System.out.println("LinkedList MergeSort: " + timer.getTime());
-		for (int i = sortedLinkedList.length - k; i < sortedLinkedList.length; i++) {
-			System.out.print(sortedLinkedList[i] + " ");
-		}
-		System.out.println();
+		System.out.println("TreeMap trie baseline remove: " + timer.getTime());
 		timer.reset();
+		baseline = null;
 		
-		// HeapSort
+		baseMemory = usedMemory();
+		Trie trie = new Trie();
 		timer.start();
-		HeapSort.sort(array);
+		for (int i = 0; i < SIZE; i++)
+			trie.add(words[i]);
 		timer.stop();
-		System.out.println("HeapSort: " + timer.getTime());
-		for (int i = array.length - k; i < array.length; i++) {
-			System.out.print(array[i] + " ");
+		System.out.println("Trie add: " + timer.getTime() + " (size " + trie.size() + ")");
+		System.out.println("Trie memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+		timer.reset();
+		
+		sum = 0;
+		timer.start();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < SIZE; i++)
+				sum += trie.contains(words[i]);
 		}
-		System.out.println();
+		timer.stop();
+		System.out.println("Trie contains: " + timer.getTime() + " (checksum " + sum + ")");
 		timer.reset();
 		
-		// RadixSort
 		timer.start();
-		RadixSort.sort(arrayCopy);
+		String[] array = trie.toArray();
 		timer.stop();
-		System.out.println("RadixSort: " + timer.getTime());
-		for (int i = arrayCopy.length - k; i < arrayCopy.length; i++ ) {
-			System.out.print(arrayCopy[i] + " ");
-		}
-		System.out.println();
+		System.out.println("Trie toArray: " + timer.getTime() + " (" + array.length + ")");
 		timer.reset();
-
-		// MergeSort
+		
 		timer.start();
-		MergeSort.sort(arrayCopy3);
+		for (int i = 0; i < SIZE; i++)
+			trie.remove(words[i]);
 		timer.stop();
-		System.out.println("MergeSort: " + timer.getTime());
-		for (int i = arrayCopy3.length - k; i < arrayCopy3.length; i++) {
-			System.out.print(arrayCopy3[i] + " ");
-		}
-		System.out.println();
+		System.out.println("Trie remove: " + timer.getTime() + " (size " + trie.size() + ")");
 		timer.reset();
 	}
 	
-	public static void speedComparisonPowerSet() {
-		int SIZE = 16;
+	public static void speedComparisonTrieFuzzySearch() {
+		int SIZE = 200000;
+		int QUERIES = 100; // per word length
+		int maxEdits = 2;
 		Timer timer = new Timer();
+		Random random = new Random();
+		Trie trie = new Trie();
+		for (int i = 0; i < SIZE; i++) {
+			char[] word = new char[3 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++)
+				word[j] = (char) ('a' + random.nextInt(26));
+			trie.add(new String(word));
+		}
 		
-		Integer[] set1 = new Integer[SIZE];
-		for (int i = 0; i < SIZE; i++)
-			set1[i] = i;
+		// typos on neighbouring letters, each letter may be mistyped as the one before or after it
+		Map<Character, Character[]> neighbours = new java.util.HashMap<Character, Character[]>();
+		for (char c = 'a'; c <= 'z'; c++)
+			neighbours.put(c, new Character[] {(char) ((c == 'a') ? 'z' : c - 1), (char) ((c == 'z') ? 'a' : c + 1)});
+		
+		for (int length = 4; length <= 12; length += 2) {
+			String[] queries = new String[QUERIES];
+			for (int i = 0; i < QUERIES; i++) {
+				char[] word = new char[length];
+				for (int j = 0; j < length; j++)
+					word[j] = (char) ('a' + random.nextInt(26));
+				queries[i] = new String(word);
+			}
+			
+			// every mutation probed with contains
+			long candidates = 0;
+			long found = 0;
+			timer.start();
+			for (String query : queries) {
+				for (String mutation : StringOps.generateMutations(query, neighbours)) {
+					candidates++;
+					if (trie.contains(mutation) > 0)
+						found++;
+				}
+			}
+			timer.stop();
+			System.out.println("generateMutations + contains, length " + length + ": " + timer.getTime() + " (" + candidates + " candidates, " + found + " found)");
+			timer.reset();
+			
+			// one walk of the trie
+			found = 0;
+			timer.start();
+			for (String query : queries)
+				found += trie.fuzzySearch(query, maxEdits).length;
+			timer.stop();
+			System.out.println("fuzzySearch " + maxEdits + " edits, length " + length + ": " + timer.getTime() + " (" + found + " found)");
+			timer.reset();
+		}
+	}
+	
+	public static void speedComparisonTrieTopKByCount() {
+		int SIZE = 1000000;
+		int QUERIES = 100000;
+		int k = 10;
+		Timer timer = new Timer();
+		Random random = new Random();
+		String[] words = new String[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			char[] word = new char[3 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++)
+				word[j] = (char) ('a' + random.nextInt(26));
+			words[i] = new String(word);
+		}
+		String[] prefixes = new String[QUERIES];
+		for (int i = 0; i < QUERIES; i++)
+			prefixes[i] = words[random.nextInt(SIZE)].substring(0, 1 + random.nextInt(2)); // short prefixes have the most words under them
+		
+		for (int cacheSize : new int[] {0, k}) {
+			long baseMemory = usedMemory();
+			Trie trie = new Trie(cacheSize);
+			timer.start();
+			for (int i = 0; i < SIZE; i++) {
+				int repeat = 1 + (int) (1 / (random.nextDouble() + 0.001)); // skewed counts
+				for (int r = 0; r < repeat; r++)
+					trie.add(words[i]);
+			}
+			timer.stop();
+			System.out.println("Trie(" + cacheSize + ") add: " + timer.getTime());
+			System.out.println("Trie(" + cacheSize + ") memory: " + (usedMemory() - baseMemory) / 1024 + " KB");
+			timer.reset();
+			
+			long sum = 0;
+			int queries = (cacheSize == 0) ? QUERIES / 100 : QUERIES;
+			timer.start();
+			for (int i = 0; i < queries; i++)
+				sum += trie.topKByCount(prefixes[i], k).length;
+			timer.stop();
+			System.out.println("Trie(" + cacheSize + ") topKByCount, " + queries + " queries: " + timer.getTime() + " (" + sum + ")");
+			timer.reset();
+		}
 		
-		Set<Integer> set2 = new HashSet<Integer>();
+		Trie trie = new Trie();
 		for (int i = 0; i < SIZE; i++)
-			set2.add(i);
+			trie.add(words[i]);
 		
-		// Recursive power set function
+		long sum = 0;
 		timer.start();
-		Set<Set<Integer>> powerset2 = Find.powerSetRecursive(set2);
+		for (int i = 0; i < QUERIES / 100; i++) {
+			for (Iterator<String> iterator = trie.keysWithPrefix(prefixes[i]); iterator.hasNext(); iterator.next())
+				sum++;
+		}
 		timer.stop();
-		System.out.println("Recursive power set function: " + timer.getTime());
-		System.out.println("Size: " + powerset2.size());
+		System.out.println("Trie keysWithPrefix count, " + (QUERIES / 100) + " queries: " + timer.getTime() + " (" + sum + ")");
 		timer.reset();
-
-		// Non-recursive power set function
+		
+		sum = 0;
 		timer.start();
-		Integer[][] powerset1 = Find.powerSet(set1);
+		for (int i = 0; i < QUERIES; i++)
+			sum += trie.countWithPrefix(prefixes[i]);
 		timer.stop();
-		System.out.println("Non-recursive power set function: " + timer.getTime());
-		System.out.println("Size: " + powerset1.length);
+		System.out.println("Trie countWithPrefix, " + QUERIES + " queries: " + timer.getTime() + " (" + sum + ")");
 		timer.reset();
 	}
 	
@@ -253,6 +1999,64 @@ public class Main {
 		contacts.printSearch(null, null, "Doe", null, "000-000-0000");
 	}
 	
+	public static void testDawg() {
+		String[] words = {"", "car", "card", "cards", "care", "cared", "cares", "cat", "cats", "do", "dog", "dogs"};
+		Dawg dawg = Dawg.fromSorted(words);
+		System.out.println("size() = " + dawg.size());
+		System.out.println("stateCount() = " + dawg.stateCount());
+		System.out.println("transitionCount() = " + dawg.transitionCount());
+		System.out.println("contains(\"\") = " + dawg.contains(""));
+		System.out.println("contains(\"card\") = " + dawg.contains("card"));
+		System.out.println("contains(\"ca\") = " + dawg.contains("ca"));
+		System.out.println("contains(\"dogsled\") = " + dawg.contains("dogsled"));
+		System.out.println("indexOf(\"cared\") = " + dawg.indexOf("cared"));
+		System.out.println("indexOf(\"cab\") = " + dawg.indexOf("cab"));
+		System.out.println("get(5) = " + dawg.get(5));
+		System.out.println("get(12) = " + dawg.get(12));
+		System.out.println("countWithPrefix(\"car\") = " + dawg.countWithPrefix("car"));
+		
+		System.out.print("keysWithPrefix(\"car\"): ");
+		Iterator<String> iterator = dawg.keysWithPrefix("car");
+		while (iterator.hasNext())
+			System.out.print(iterator.next() + " ");
+		System.out.println();
+		
+		System.out.println("fromSorted(unsorted) = " + Dawg.fromSorted(new String[] {"cat", "dog", "cart"}));
+		
+		// round trips against a Trie holding the same random words
+		Random random = new Random();
+		Trie trie = new Trie();
+		for (int i = 0; i < 10000; i++) {
+			char[] word = new char[random.nextInt(8)];
+			for (int j = 0; j < word.length; j++)
+				word[j] = (char) ('a' + random.nextInt(4));
+			trie.add(new String(word));
+		}
+		String[] sorted = trie.toArray();
+		dawg = Dawg.fromSorted(sorted);
+		
+		int errors = 0;
+		if (dawg.size() != sorted.length || !Arrays.equals(dawg.toArray(), sorted))
+			errors++;
+		for (int i = 0; i < sorted.length; i++) {
+			if (!dawg.contains(sorted[i]) || dawg.indexOf(sorted[i]) != i || !sorted[i].equals(dawg.get(i)))
+				errors++;
+		}
+		for (String prefix : new String[] {"", "a", "ab", "dcb", "abcdabcd"}) {
+			if (dawg.countWithPrefix(prefix) != trie.countWithPrefix(prefix))
+				errors++;
+			Iterator<String> expected = trie.keysWithPrefix(prefix);
+			Iterator<String> actual = dawg.keysWithPrefix(prefix);
+			while (expected.hasNext()) {
+				if (!actual.hasNext() || !expected.next().equals(actual.next()))
+					errors++;
+			}
+			if (actual.hasNext())
+				errors++;
+		}
+		System.out.println("round trips of " + sorted.length + " words, errors: " + errors);
+	}
+	
 	public static void testDirectedGraph() {
 		DirectedGraph graph = new DirectedGraph();
 		DirectedGraph.Node seven = graph.new Node("7");
@@ -294,7 +2098,7 @@ public class Main {
 	
 	public static void testGenerateMutations() {
 		String string = "fab";
-		HashMap<Character, Character[]> hashmap = new HashMap<Character, Character[]>();
+		Map<Character, Character[]> hashmap = new java.util.HashMap<Character, Character[]>();
 		Character[] arrayf = {'F', '4'};
 		Character[] arrayb = {'B', '8'};
 		hashmap.put('f', arrayf);
@@ -912,7 +2716,7 @@ public class Main {
 	
 	public static void testTreeMap() {
 		TreeMap<Integer, String> bst = new TreeMap<Integer, String>();
-
+		
 		bst.put(7, "seven");
 		bst.put(4, "four");
 		bst.put(3, "three");
@@ -938,6 +2742,17 @@ public class Main {
 		System.out.println("get(6): " + bst.get(6));
 		System.out.println("firstKey(): " + bst.firstKey());
 		System.out.println("lastKey(): " + bst.lastKey());
+		System.out.println("floorKey(8): " + bst.floorKey(8));
+		System.out.println("ceilingKey(8): " + bst.ceilingKey(8));
+		System.out.println("higherKey(9): " + bst.higherKey(9));
+		System.out.println("lowerKey(9): " + bst.lowerKey(9));
+		
+		TreeMap<Integer, String>.Cursor cursor = bst.subMap(5, 11).cursor();
+		System.out.print("subMap(5, 11): ");
+		while (cursor.advance())
+			System.out.print(cursor.key() + "=" + cursor.value() + " ");
+		System.out.println();
+		
 		System.out.println("remove(7): " + bst.remove(7));
 		System.out.println("remove(12): "+ bst.remove(12));
 		System.out.println("remove(3): " + bst.remove(3));
@@ -959,7 +2774,7 @@ public class Main {
 	
 	public static void testTreeSet() {
 		TreeSet<Integer> bst = new TreeSet<Integer>();
-
+		
 		bst.add(7);
 		bst.add(4);
 		bst.add(3);
@@ -989,6 +2804,9 @@ public class Main {
 		System.out.println("get(6): " + bst.get(6));
 		System.out.println("get(7): " + bst.get(7));
 		System.out.println("get(8): " + bst.get(8));
+		System.out.println("rank(9): " + bst.rank(9));
+		System.out.println("rank(8): " + bst.rank(8));
+		System.out.println("countRange(4, 10): " + bst.countRange(4, 10));
 		System.out.println("first(): " + bst.first());
 		System.out.println("last(): " + bst.last());
 		System.out.println("remove(7): " + bst.remove(7));
@@ -1027,5 +2845,66 @@ public class Main {
 		}
 		System.out.println("isEmpty() = " + trie.isEmpty());
 		System.out.println("size() = " + trie.size());
+		
+		System.out.print("fuzzySearch(\"Gogle\", 1): ");
+		for (String entry : trie.fuzzySearch("Gogle", 1))
+			System.out.print(entry + " ");
+		System.out.println();
+		
+		// fuzzySearch against a plain edit distance filter over every word, including the empty word and distances beyond any word
+		Random random = new Random();
+		trie = new Trie();
+		trie.add("");
+		for (int i = 0; i < 5000; i++) {
+			char[] word = new char[random.nextInt(9)];
+			for (int j = 0; j < word.length; j++)
+				word[j] = (char) ('a' + random.nextInt(4));
+			trie.add(new String(word));
+		}
+		String[] words = trie.toArray();
+		
+		int errors = 0;
+		String[] queries = {"", "a", "abcd", "dddddddd", "abcdabcdabcd"};
+		for (String query : queries) {
+			for (int maxEdits : new int[] {0, 1, 2, 3, 20, Integer.MAX_VALUE}) {
+				ArrayList<String> expected = new ArrayList<String>();
+				for (String word : words) {
+					if (editDistance(query, word) <= maxEdits)
+						expected.add(word);
+				}
+				if (!Arrays.equals(trie.fuzzySearch(query, maxEdits), expected.toArray(new String[0])))
+					errors++;
+			}
+		}
+		System.out.println("fuzzySearch against edit distance filter, errors: " + errors);
+		
+		// cached top lists against the uncached sub-tree search, through adds and removes
+		int k = 5;
+		Trie cached = new Trie(k);
+		Trie uncached = new Trie();
+		errors = 0;
+		for (int i = 0; i < 20000; i++) {
+			String word = words[random.nextInt(words.length)];
+			if (random.nextInt(4) == 0) {
+				cached.remove(word);
+				uncached.remove(word);
+			} else {
+				cached.add(word);
+				uncached.add(word);
+			}
+			if (i % 100 == 0) {
+				for (String query : new String[] {"", "a", "bc", "dab"}) {
+					for (int j = 1; j <= k + 1; j++) {
+						if (!Arrays.equals(cached.topKByCount(query, j), uncached.topKByCount(query, j)))
+							errors++;
+					}
+				}
+			}
+		}
+		System.out.print("topKByCount(\"\", " + k + "): ");
+		for (String entry : cached.topKByCount("", k))
+			System.out.print(entry + "=" + cached.contains(entry) + " ");
+		System.out.println();
+		System.out.println("cached topKByCount against uncached, errors: " + errors);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,366 @@
+package com.jameschin.java.algorithms;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * MappedHashMap
+ * Off-heap HashMap for fixed width byte[] keys and values, stored in a memory-mapped file rather than as objects on the heap.
+ * Reopening an existing file maps it back in without rebuilding the map.
+ * Capacity is fixed when the file is created, the table is sized so that a full map stays under the load factor.
+ * The table holds at most 2^30 slots, so capacity is limited to 805,306,368 mappings.
+ * Changes reach the file when the operating system writes back the mapped pages, or on force().
+ * Type: Open Addressing, Linear Probing, Backward Shift Deletion, Memory-Mapped, Fixed Capacity
+ * Space: O(n)
+ * Best: O(1)
+ * Worst: O(n) where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class MappedHashMap {
+	private final int MAGIC = 0x4D484D31; // "MHM1", identifies a MappedHashMap file
+	private final int HEADER_SIZE = 64; // bytes reserved at the start of the file
+	private final int SIZE_OFFSET = 20; // header offset of the persisted size
+	private final int MAX_SEGMENT_SIZE = 1 << 30; // a single mapping is limited to 2GB, the table is split into segments
+	private final byte EMPTY = 0; // slot state markers
+	private final byte FULL = 1;
+	private final double loadFactor = 0.75; // size/tableSize ratio of a full map
+	private final int MAX_TABLE_SIZE = 1 << 30; // largest power of two number of slots an int index can address
+	private final int MAX_CAPACITY = (int) (MAX_TABLE_SIZE * loadFactor); // mappings a full table of MAX_TABLE_SIZE slots can hold
+	
+	private final RandomAccessFile file;
+	private final MappedByteBuffer header;
+	private final MappedByteBuffer[] segments;
+	private final int keyWidth; // bytes per key
+	private final int valueWidth; // bytes per value
+	private final int slotWidth; // state byte, key, value
+	private final int capacity; // maximum number of mappings
+	private final int tableSize; // number of table slots, a power of two
+	private final int segmentShift; // slot index >>> segmentShift gives the segment
+	private final int segmentMask; // slot index & segmentMask gives the slot within the segment
+	private final byte[] slotBuffer; // scratch space for moving slots and reading keys
+	private int size; // number of mappings contained
+	
+	/**
+	 * Opens the map stored in filename, or creates it if the file does not exist.
+	 * @param filename file backing the map.
+	 * @param keyWidth bytes per key, must match the file if it exists.
+	 * @param valueWidth bytes per value, must match the file if it exists.
+	 * @param capacity maximum number of mappings, from 1 to 805,306,368, ignored if the file exists.
+	 * @throws IOException if the file cannot be opened or mapped, or holds a map with different key or value widths.
+	 * @throws IllegalArgumentException if a width is not positive, or a new map is given a capacity out of range.
+	 */
+	MappedHashMap(String filename, int keyWidth, int valueWidth, int capacity) throws IOException {
+		if (keyWidth <= 0 || valueWidth <= 0)
+			throw new IllegalArgumentException("key and value widths must be positive: " + keyWidth + ", " + valueWidth);
+		boolean exists = new File(filename).length() >= HEADER_SIZE;
+		if (!exists && (capacity <= 0 || capacity > MAX_CAPACITY))
+			throw new IllegalArgumentException("capacity must be from 1 to " + MAX_CAPACITY + ": " + capacity);
+		
+		file = new RandomAccessFile(filename, "rw");
+		try {
+			FileChannel channel = file.getChannel();
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+			
+			if (exists) { // reopen, trusting the layout recorded in the header
+				if (header.getInt(0) != MAGIC || header.getInt(4) != keyWidth || header.getInt(8) != valueWidth)
+					throw new IOException(filename + " does not hold a MappedHashMap with " + keyWidth + " byte keys and " + valueWidth + " byte values");
+				this.capacity = header.getInt(12);
+				tableSize = header.getInt(16);
+				size = header.getInt(SIZE_OFFSET);
+			} else {
+				this.capacity = capacity;
+				long slots = 16; // long, so that doubling past 2^30 cannot overflow
+				while (slots * loadFactor < capacity)
+					slots *= 2;
+				tableSize = (int) slots;
+				size = 0;
+				header.putInt(0, MAGIC);
+				header.putInt(4, keyWidth);
+				header.putInt(8, valueWidth);
+				header.putInt(12, capacity);
+				header.putInt(16, tableSize);
+				header.putInt(SIZE_OFFSET, size);
+			}
+			
+			this.keyWidth = keyWidth;
+			this.valueWidth = valueWidth;
+			slotWidth = 1 + keyWidth + valueWidth;
+			slotBuffer = new byte[slotWidth];
+			
+			// largest power of two number of slots fitting in one segment, so that no slot straddles two segments
+			int slotsPerSegment = Integer.highestOneBit(Math.max(1, MAX_SEGMENT_SIZE / slotWidth));
+			slotsPerSegment = Math.min(slotsPerSegment, tableSize);
+			segmentShift = Integer.numberOfTrailingZeros(slotsPerSegment);
+			segmentMask = slotsPerSegment - 1;
+			
+			// a new file is extended sparsely by the mapping, the zero filled pages read as EMPTY slots
+			segments = new MappedByteBuffer[tableSize / slotsPerSegment];
+			long segmentBytes = (long) slotsPerSegment * slotWidth;
+			for (int i = 0; i < segments.length; i++)
+				segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + i * segmentBytes, segmentBytes);
+		} catch (IOException | RuntimeException e) { // do not leak the open file
+			file.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Internal function to hash the key into its home slot.
+	 * FNV-1a over the key bytes, with the higher bits spread downward.
+	 * @param key key to be hashed.
+	 * @return home slot of the key.
+	 */
+	private int hashFunction(byte[] key) {
+		return hashFunction(key, 0);
+	}
+	
+	/**
+	 * Internal function to hash the key starting at an offset of the array into its home slot.
+	 * @param array array holding the key.
+	 * @param from index of the first byte of the key.
+	 * @return home slot of the key.
+	 */
+	private int hashFunction(byte[] array, int from) {
+		int h = 0x811C9DC5;
+		for (int i = from; i < from + keyWidth; i++) {
+			h ^= array[i] & 0xFF;
+			h *= 0x01000193;
+		}
+		return (h ^ (h >>> 16)) & (tableSize - 1);
+	}
+	
+	/**
+	 * Internal function returning the segment holding the slot.
+	 * @param index slot index.
+	 * @return the segment holding the slot.
+	 */
+	private MappedByteBuffer segment(int index) {
+		return segments[index >>> segmentShift];
+	}
+	
+	/**
+	 * Internal function returning the byte offset of the slot within its segment.
+	 * @param index slot index.
+	 * @return the byte offset of the slot within its segment.
+	 */
+	private int offset(int index) {
+		return (index & segmentMask) * slotWidth;
+	}
+	
+	/**
+	 * Internal function to compare the key stored in a slot with the specified key.
+	 * @param index slot index.
+	 * @param key key to compare.
+	 * @return true if the slot holds key.
+	 */
+	private boolean keyEquals(int index, byte[] key) {
+		MappedByteBuffer segment = segment(index);
+		int offset = offset(index) + 1;
+		for (int i = 0; i < keyWidth; i++) {
+			if (segment.get(offset + i) != key[i])
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Internal function returning the slot holding key, or -1 if there is no mapping for the key.
+	 * @param key search key.
+	 * @return the slot holding key, or -1 if there is no mapping for the key.
+	 */
+	private int indexOf(byte[] key) {
+		int mask = tableSize - 1;
+		int index = hashFunction(key);
+		
+		while (segment(index).get(offset(index)) != EMPTY) {
+			if (keyEquals(index, key))
+				return index;
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Internal function to copy the value stored in a slot into a new array.
+	 * @param index slot index.
+	 * @return copy of the value.
+	 */
+	private byte[] readValue(int index) {
+		byte[] value = new byte[valueWidth];
+		MappedByteBuffer segment = segment(index);
+		int offset = offset(index) + 1 + keyWidth;
+		for (int i = 0; i < valueWidth; i++)
+			value[i] = segment.get(offset + i);
+		return value;
+	}
+	
+	/**
+	 * Internal function to write the value into a slot.
+	 * @param index slot index.
+	 * @param value value to be written.
+	 */
+	private void writeValue(int index, byte[] value) {
+		MappedByteBuffer segment = segment(index);
+		int offset = offset(index) + 1 + keyWidth;
+		for (int i = 0; i < valueWidth; i++)
+			segment.put(offset + i, value[i]);
+	}
+	
+	/**
+	 * Associates the specified value with the specified key in this map.
+	 * If the map previously contained a mapping for the key, the old value is replaced.
+	 * A new key cannot be added once the map is full, see isFull(), while existing keys can still be updated.
+	 * @param newKey key of new item to be added, keyWidth bytes.
+	 * @param newValue new item to be added, valueWidth bytes.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 * @throws IllegalStateException if the key is not mapped and the map is full.
+	 */
+	public byte[] put(byte[] newKey, byte[] newValue) {
+		if (newKey == null || newValue == null || newKey.length != keyWidth || newValue.length != valueWidth)
+			return null;
+		
+		int mask = tableSize - 1;
+		int index = hashFunction(newKey);
+		
+		while (segment(index).get(offset(index)) != EMPTY) {
+			if (keyEquals(index, newKey)) { // key is already mapped
+				byte[] temp = readValue(index);
+				writeValue(index, newValue);
+				return temp;
+			}
+			index = (index + 1) & mask;
+		}
+		
+		if (size == capacity)
+			throw new IllegalStateException("map is full, capacity " + capacity);
+		
+		MappedByteBuffer segment = segment(index);
+		int offset = offset(index);
+		for (int i = 0; i < keyWidth; i++)
+			segment.put(offset + 1 + i, newKey[i]);
+		writeValue(index, newValue);
+		segment.put(offset, FULL); // mark the slot last, once key and value are in place
+		
+		size++;
+		header.putInt(SIZE_OFFSET, size);
+		return null;
+	}
+	
+	/**
+	 * Returns the value to which the specified key is mapped.
+	 * @param key the key whose associated value is to be returned, keyWidth bytes.
+	 * @return a copy of the value to which the specified key is mapped, or null if there exists no mapping for the key.
+	 */
+	public byte[] get(byte[] key) {
+		if (key == null || key.length != keyWidth)
+			return null;
+		
+		int index = indexOf(key);
+		return (index >= 0) ? readValue(index) : null;
+	}
+	
+	/**
+	 * Returns true if there is a mapping for the specified key.
+	 * @param key search key, keyWidth bytes.
+	 * @return true if there is a mapping for the specified key, false if not.
+	 */
+	public boolean containsKey(byte[] key) {
+		return key != null && key.length == keyWidth && indexOf(key) >= 0;
+	}
+	
+	/**
+	 * Remove the mapping associated with the key, if it exists.
+	 * Following entries are shifted back into the freed slot where their probe sequence allows, so no tombstones are needed.
+	 * @param key key for which the mapping should be removed, keyWidth bytes.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	public byte[] remove(byte[] key) {
+		if (key == null || key.length != keyWidth)
+			return null;
+		
+		int gap = indexOf(key);
+		if (gap < 0)
+			return null;
+		
+		byte[] temp = readValue(gap);
+		int mask = tableSize - 1;
+		int next = (gap + 1) & mask;
+		
+		while (segment(next).get(offset(next)) != EMPTY) {
+			MappedByteBuffer segment = segment(next);
+			int offset = offset(next);
+			for (int i = 0; i < slotWidth; i++) // read the whole slot, it is written back as is if it moves
+				slotBuffer[i] = segment.get(offset + i);
+			int home = hashFunction(slotBuffer, 1);
+			
+			if (((next - home) & mask) >= ((next - gap) & mask)) { // entry may move back into the gap without passing its home slot
+				MappedByteBuffer gapSegment = segment(gap);
+				int gapOffset = offset(gap);
+				for (int i = 0; i < slotWidth; i++)
+					gapSegment.put(gapOffset + i, slotBuffer[i]);
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		
+		segment(gap).put(offset(gap), EMPTY);
+		size--;
+		header.putInt(SIZE_OFFSET, size);
+		return temp;
+	}
+	
+	/**
+	 * Clear the map by marking every slot empty.
+	 */
+	public void clear() {
+		for (int i = 0; i < tableSize; i++)
+			segment(i).put(offset(i), EMPTY);
+		size = 0;
+		header.putInt(SIZE_OFFSET, size);
+	}
+	
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 * @return the number of key-value mappings in this map.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the map is empty.
+	 * @return true if the map is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Returns true if the map holds capacity mappings and no new keys can be added.
+	 * @return true if the map is full, false if not.
+	 */
+	public boolean isFull() {
+		return (size == capacity);
+	}
+	
+	/**
+	 * Writes any changes in the mapped pages through to the file.
+	 */
+	public void force() {
+		for (MappedByteBuffer segment : segments)
+			segment.force();
+		header.force();
+	}
+	
+	/**
+	 * Writes any changes through to the file and closes it. The map must not be used afterwards.
+	 * @throws IOException if the file cannot be closed.
+	 */
+	public void close() throws IOException {
+		force();
+		file.close();
+	}
+}
\ No newline at end of file
@@ -1,10 +1,10 @@
 package com.jameschin.java.algorithms;
 
-import java.lang.reflect.Array;
-import java.util.ArrayList;
+import java.util.Comparator;
 
 /**
  * Binary MaxHeap
+ * Backed by a DaryHeap of arity 2 in reverse natural order.
  * Type: Comparative, Array Based, In-Place
  * Space: O(n)
  * Find Max: O(1)
@@ -13,8 +13,7 @@ import java.util.ArrayList;
  * @author: James Chin <jameslchin@gmail.com>
  */
 public final class MaxHeap <E extends Comparable<E>>{
-	private int currentIndex = 0; // array index of next empty slot
-	private ArrayList<E> heap = new ArrayList<E>();
+	private final DaryHeap<E> heap = new DaryHeap<E>(Comparator.<E>reverseOrder(), 2);
 	
 	/**
 	 * Add new element to heap.
@@ -22,36 +21,16 @@ public final class MaxHeap <E extends Comparable<E>>{
 	 * @return this heap object.
 	 */
 	public MaxHeap<E> add(E newItem) {
-		heap.add(newItem); // add as last element on the last level
-		heapifyUp(currentIndex);
-		currentIndex++;
+		heap.add(newItem);
 		return this;
 	}
 	
-	/**
-	 * Recursively heapify upwards, starting at index node.
-	 * @param index index of current node to start heapifying.
-	 */
-	private void heapifyUp(int index) {
-		int parentIndex = (index - 1) / 2;
-		
-		if (index == 0)
-			return;
-		else if (heap.get(index).compareTo(heap.get(parentIndex)) > 0) { // if parent is smaller, swap with parent
-			E temp = heap.get(parentIndex);
-			heap.set(parentIndex, heap.get(index));
-			heap.set(index, temp);
-			
-			heapifyUp(parentIndex); // check next level up
-		}
-	}
-	
 	/**
 	 * Returns the object at the top of the MaxHeap.
-	 * @return the object at the top of the MaxHeap.
+	 * @return the object at the top of the MaxHeap, or null if the heap is empty.
 	 */
 	public E findMax() {
-		return heap.get(0);
+		return heap.findMin();
 	}
 	
 	/**
@@ -59,7 +38,6 @@ public final class MaxHeap <E extends Comparable<E>>{
 	 */
 	public void clear() {
 		heap.clear();
-		currentIndex = 0;
 	}
 	
 	/**
@@ -67,7 +45,7 @@ public final class MaxHeap <E extends Comparable<E>>{
 	 * @return the size of the heap.
 	 */
 	public int size() {
-		return currentIndex;
+		return heap.size();
 	}
 	
 	/**
@@ -75,9 +53,7 @@ public final class MaxHeap <E extends Comparable<E>>{
 	 * @return true if the heap is empty, false if not.
 	 */
 	public boolean isEmpty() {
-		if (currentIndex == 0)
-			return true;
-		return false;
+		return heap.isEmpty();
 	}
 	
 	/**
@@ -85,11 +61,7 @@ public final class MaxHeap <E extends Comparable<E>>{
 	 * @param e the array into which the elements of the heap are to be stored, if it is big enough, otherwise a new array will be created.
 	 * @return an array representing the heap, index 0 contains the max item, index 1-2 contain the next level of the tree, etc.
 	 */
-	@SuppressWarnings("unchecked")
 	public E[] toArray(E[] e) {
-		if (e.length < heap.size()) {
-			e = (E[]) Array.newInstance(e.getClass().getComponentType(), heap.size());
-		}
 		return heap.toArray(e);
 	}
 	
@@ -97,17 +69,8 @@ public final class MaxHeap <E extends Comparable<E>>{
 	 * Returns an array representing the heap, or null array if the heap is empty.
 	 * @return an array representing the heap, index 0 contains the max item, index 1-2 contain the next level of the tree, etc.
 	 */
-	@SuppressWarnings("unchecked")
 	public E[] toArray() {
-		E[] array = null;
-		if (!heap.isEmpty()) {
-			array = (E[]) Array.newInstance(heap.get(0).getClass(), heap.size());
-			int i = 0;
-			for (E e : heap) {
-				array[i++] = e;
-			}
-		}
-		return array;
+		return heap.toArray();
 	}
 	
 	/**
@@ -115,47 +78,7 @@ public final class MaxHeap <E extends Comparable<E>>{
 	 * @return the max item that was removed, if the tree was non-empty, null otherwise.
 	 */
 	public E deleteMax() {
-		E max = null;
-		if (currentIndex > 0) { // replace the root of heap with the last element on the last level
-			max = heap.get(0); // save current max
-			
-			heap.set(0, heap.get(currentIndex - 1));
-			heap.remove(currentIndex - 1);
-			currentIndex--;
-			
-			heapifyDown(0); // re-heapify
-		}
-		return max; // if tree is empty, returns null
-	}
-	
-	/**
-	 * Recursively heapify downwards, starting at index node.
-	 * @param index index of current node to start heapifying.
-	 */
-	private void heapifyDown(int index) {
-		int leftChildIndex = index * 2 + 1;
-		int rightChildIndex = index * 2 + 2;
-		int swapIndex = index;
-		
-		// if left child exists and greater than current node
-		if (leftChildIndex < currentIndex) {
-			if (heap.get(leftChildIndex).compareTo(heap.get(swapIndex)) > 0)
-				swapIndex = leftChildIndex;
-
-			// if right child exists and greater than current node and left child
-			if (rightChildIndex < currentIndex) {
-				if (heap.get(rightChildIndex).compareTo(heap.get(swapIndex)) > 0)
-					swapIndex = rightChildIndex;
-			}
-		}
-		
-		if (swapIndex != index) { // swap if necessary
-			E temp = heap.get(index);
-			heap.set(index, heap.get(swapIndex));
-			heap.set(swapIndex, temp);
-
-			heapifyDown(swapIndex); // check next level down
-		}
+		return heap.deleteMin();
 	}
 	
 	/**
@@ -164,17 +87,7 @@ public final class MaxHeap <E extends Comparable<E>>{
 	 * @return true if element was found and removed, false if not.
 	 */
 	public boolean remove(E item) {
-		for (int i = 0; i < heap.size(); i++) {
-			if (item.compareTo(heap.get(i)) == 0) { // if element found, replace with last element on last level
-				heap.set(i, heap.get(currentIndex - 1));
-				heap.remove(currentIndex - 1);
-				currentIndex--;
-				
-				heapifyDown(i); // re-heapify
-				return true;
-			}
-		}
-		return false;
+		return heap.remove(item);
 	}
 
 }
\ No newline at end of file
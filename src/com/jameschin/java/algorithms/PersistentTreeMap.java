@@ -0,0 +1,343 @@
+package com.jameschin.java.algorithms;
+
+/**
+ * PersistentTreeMap
+ * Immutable sorted map, put() and remove() leave this map unchanged and return a new one.
+ * Only the nodes on the path to the changed key are copied, every other subtree is shared with the previous map,
+ * so keeping a snapshot is O(1) and a snapshot may be read by any thread while writers move on to newer maps.
+ * Kept height balanced (AVL), as TreeMap.
+ * Null values allowed.
+ * Type: Sorted, Comparative, Persistent Self-Balancing Binary Search Tree (AVL), Path Copying
+ * Space: O(n), plus O(log n) per retained version
+ * Search: O(log n)
+ * Insert: O(log n)
+ * Delete: O(log n) where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class PersistentTreeMap<K extends Comparable<K>, V> {
+	private final Node<K, V> root;
+	private final int size;
+	
+	private static final class Node<K, V> {
+		final K mKey;
+		final V mValue;
+		final Node<K, V> left;
+		final Node<K, V> right;
+		final int height; // height of the subtree rooted at this node
+		
+		Node (K key, V value, Node<K, V> left, Node<K, V> right) {
+			mKey = key;
+			mValue = value;
+			this.left = left;
+			this.right = right;
+			height = Math.max(height(left), height(right)) + 1;
+		}
+	}
+	
+	/**
+	 * Creates an empty map.
+	 */
+	public PersistentTreeMap() {
+		this(null, 0);
+	}
+	
+	private PersistentTreeMap(Node<K, V> root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+	
+	/**
+	 * Internal function returning the height of a subtree.
+	 * @param node root of the subtree.
+	 * @return height of the subtree, 0 if empty.
+	 */
+	private static int height(Node<?, ?> node) {
+		return (node == null) ? 0 : node.height;
+	}
+	
+	/**
+	 * Internal function returning the node holding the key.
+	 * @param key search key.
+	 * @return the node holding the key, or null if there is none.
+	 */
+	private Node<K, V> getNode(K key) {
+		Node<K, V> node = root;
+		
+		while (node != null) {
+			int compare = key.compareTo(node.mKey);
+			if (compare < 0)
+				node = node.left;
+			else if (compare > 0)
+				node = node.right;
+			else
+				return node;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Returns a map associating the specified value with the specified key, sharing every untouched subtree with this map.
+	 * This map is left unchanged.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 * @return the new map, or this map if the key was already mapped to newValue.
+	 */
+	public PersistentTreeMap<K, V> put(K newKey, V newValue) {
+		Node<K, V> existing = getNode(newKey);
+		if (existing != null && existing.mValue == newValue)
+			return this;
+		
+		return new PersistentTreeMap<K, V>(put(root, newKey, newValue), (existing == null) ? size + 1 : size);
+	}
+	
+	/**
+	 * Recursive internal put function, copying the path to the key and rebalancing on the way back up.
+	 * @param node root of the tree/sub-tree to insert into.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 * @return root of the new tree/sub-tree.
+	 */
+	private Node<K, V> put(Node<K, V> node, K newKey, V newValue) {
+		if (node == null)
+			return new Node<K, V>(newKey, newValue, null, null);
+		
+		int compare = newKey.compareTo(node.mKey);
+		if (compare < 0)
+			return balance(node.mKey, node.mValue, put(node.left, newKey, newValue), node.right);
+		else if (compare > 0)
+			return balance(node.mKey, node.mValue, node.left, put(node.right, newKey, newValue));
+		else // (newKey.compareTo(node.mKey) == 0)
+			return new Node<K, V>(newKey, newValue, node.left, node.right);
+	}
+	
+	/**
+	 * Returns a map without the mapping for the key, sharing every untouched subtree with this map.
+	 * This map is left unchanged.
+	 * @param key key for which the mapping should be removed.
+	 * @return the new map, or this map if there was no mapping for the key.
+	 */
+	public PersistentTreeMap<K, V> remove(K key) {
+		if (getNode(key) == null)
+			return this;
+		
+		return new PersistentTreeMap<K, V>(remove(root, key), size - 1);
+	}
+	
+	/**
+	 * Recursive internal remove function, copying the path to the key and rebalancing on the way back up.
+	 * @param node root of the tree/sub-tree to search, must contain the key.
+	 * @param key key for which the mapping should be removed.
+	 * @return root of the new tree/sub-tree.
+	 */
+	private Node<K, V> remove(Node<K, V> node, K key) {
+		int compare = key.compareTo(node.mKey);
+		if (compare < 0)
+			return balance(node.mKey, node.mValue, remove(node.left, key), node.right);
+		else if (compare > 0)
+			return balance(node.mKey, node.mValue, node.left, remove(node.right, key));
+		
+		// node.mKey matches key, now remove node
+		if (node.left == null) // ONLY RIGHT OR NO CHILD
+			return node.right;
+		else if (node.right == null) // ONLY LEFT CHILD
+			return node.left;
+		
+		// TWO CHILDREN, substitute data from next largest and remove it from the left subtree
+		Node<K, V> curr = node.left;
+		while (curr.right != null) // shuttle curr to the rightmost node in the left subtree
+			curr = curr.right;
+		return balance(curr.mKey, curr.mValue, removeMax(node.left), node.right);
+	}
+	
+	/**
+	 * Recursive internal function to remove the rightmost node of a subtree.
+	 * @param node root of the tree/sub-tree.
+	 * @return root of the new tree/sub-tree.
+	 */
+	private Node<K, V> removeMax(Node<K, V> node) {
+		if (node.right == null)
+			return node.left;
+		return balance(node.mKey, node.mValue, node.left, removeMax(node.right));
+	}
+	
+	/**
+	 * Internal function to build a node from its parts, restoring the AVL property if its subtrees differ in height by 2.
+	 * @param key key of the node.
+	 * @param value value of the node.
+	 * @param left left subtree.
+	 * @param right right subtree.
+	 * @return root of the new balanced subtree.
+	 */
+	private Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+		int balance = height(left) - height(right);
+		
+		if (balance > 1) { // left heavy
+			if (height(left.left) < height(left.right)) // left-right case, rotate left child left
+				left = new Node<K, V>(left.right.mKey, left.right.mValue,
+						new Node<K, V>(left.mKey, left.mValue, left.left, left.right.left), left.right.right);
+			return new Node<K, V>(left.mKey, left.mValue, left.left, new Node<K, V>(key, value, left.right, right));
+		} else if (balance < -1) { // right heavy
+			if (height(right.right) < height(right.left)) // right-left case, rotate right child right
+				right = new Node<K, V>(right.left.mKey, right.left.mValue,
+						right.left.left, new Node<K, V>(right.mKey, right.mValue, right.left.right, right.right));
+			return new Node<K, V>(right.mKey, right.mValue, new Node<K, V>(key, value, left, right.left), right.right);
+		}
+		return new Node<K, V>(key, value, left, right);
+	}
+	
+	/**
+	 * Returns true if there is a mapping for the specified key.
+	 * @param key search key.
+	 * @return true if there is a mapping for the specified key, false if not.
+	 */
+	public boolean containsKey(K key) {
+		return getNode(key) != null;
+	}
+	
+	/**
+	 * Returns the value to which the specified key is mapped.
+	 * @param key the key whose associated value is to be returned.
+	 * @return the value to which the specified key is mapped, or null if there exists no mapping for the key.
+	 */
+	public V get(K key) {
+		Node<K, V> node = getNode(key);
+		return (node == null) ? null : node.mValue;
+	}
+	
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 * @return the number of key-value mappings in this map.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the map is empty.
+	 * @return true if the map is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return root == null;
+	}
+	
+	/**
+	 * Returns the first key in the map.
+	 * @return the first key in the map, or null if the map is empty.
+	 */
+	public K firstKey() {
+		if (root == null)
+			return null;
+		
+		Node<K, V> node = root;
+		
+		while (node.left != null)
+			node = node.left;
+		
+		return node.mKey;
+	}
+	
+	/**
+	 * Returns the last key in the map.
+	 * @return the last key in the map, or null if the map is empty.
+	 */
+	public K lastKey() {
+		if (root == null)
+			return null;
+		
+		Node<K, V> node = root;
+		
+		while (node.right != null)
+			node = node.right;
+		
+		return node.mKey;
+	}
+	
+	/**
+	 * Returns a cursor over all mappings in key order.
+	 * @return a cursor positioned before the first mapping.
+	 */
+	public Cursor cursor() {
+		return new Cursor(null, null);
+	}
+	
+	/**
+	 * Returns a cursor over the mappings whose keys range from fromKey, inclusive, to toKey, exclusive.
+	 * @param fromKey low endpoint (inclusive), or null for no lower bound.
+	 * @param toKey high endpoint (exclusive), or null for no upper bound.
+	 * @return a cursor positioned before the first mapping in range.
+	 */
+	public Cursor cursor(K fromKey, K toKey) {
+		return new Cursor(fromKey, toKey);
+	}
+	
+	/**
+	 * Cursor over the mappings of the map in key order, call advance() before reading each mapping.
+	 * The map never changes, so a cursor is safe to use from any thread at any time.
+	 */
+	public final class Cursor {
+		private final K toKey; // exclusive upper bound, null if unbounded
+		private final Node<K, V>[] stack; // pending ancestors whose keys are still to be visited
+		private int depth = 0; // number of nodes on the stack
+		private Node<K, V> current = null;
+		
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private Cursor(K fromKey, K toKey) {
+			this.toKey = toKey;
+			stack = new Node[height(root)];
+			
+			// descend towards fromKey, keeping every node on the path that is not below it
+			Node<K, V> node = root;
+			while (node != null) {
+				if (fromKey == null || fromKey.compareTo(node.mKey) <= 0) {
+					stack[depth++] = node;
+					node = node.left;
+				} else
+					node = node.right;
+			}
+		}
+		
+		/**
+		 * Moves the cursor to the next mapping.
+		 * @return true if the cursor is at a mapping, false if there are no more mappings in range.
+		 */
+		public boolean advance() {
+			if (depth == 0) {
+				current = null;
+				return false;
+			}
+			
+			Node<K, V> node = stack[--depth];
+			if (toKey != null && node.mKey.compareTo(toKey) >= 0) {
+				depth = 0;
+				current = null;
+				return false;
+			}
+			current = node;
+			
+			// push the left spine of the right subtree, its leftmost node is next
+			node = node.right;
+			while (node != null) {
+				stack[depth++] = node;
+				node = node.left;
+			}
+			return true;
+		}
+		
+		/**
+		 * Returns the key of the current mapping.
+		 * @return the key of the current mapping.
+		 */
+		public K key() {
+			return current.mKey;
+		}
+		
+		/**
+		 * Returns the value of the current mapping.
+		 * @return the value of the current mapping.
+		 */
+		public V value() {
+			return current.mValue;
+		}
+	}
+}
\ No newline at end of file
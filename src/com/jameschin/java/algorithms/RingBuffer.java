@@ -0,0 +1,124 @@
+package com.jameschin.java.algorithms;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RingBuffer
+ * Bounded FIFO queue for passing elements from exactly one producer thread to exactly one consumer thread, no operation takes a lock.
+ * Only the producer writes tail and only the consumer writes head, so neither needs a compare-and-set,
+ * each index is published with an ordered store after the slot it covers has been written or cleared.
+ * Each side caches the last index it read from the other side, and only reads it again when the buffer looks full or empty.
+ * add() may only be called from the producer thread, poll() and peek() only from the consumer thread.
+ * Null elements are not allowed.
+ * Type: Queue, Single-Producer Single-Consumer, Lock-Free Circular Array, Fixed Capacity
+ * Space: O(capacity)
+ * Insert: O(1) at tail
+ * Delete: O(1) at head
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class RingBuffer<E> {
+	private final int MAX_CAPACITY = 1 << 30; // largest power of two an int can hold
+	private final Object[] elements;
+	private final int mask; // capacity - 1, capacity is a power of two
+	private final AtomicLong head = new AtomicLong(0); // count of elements polled, written by the consumer only
+	private final AtomicLong tail = new AtomicLong(0); // count of elements added, written by the producer only
+	private long cachedHead = 0; // last head read by the producer
+	private long cachedTail = 0; // last tail read by the consumer
+	
+	/**
+	 * Creates an empty ring buffer.
+	 * @param capacity maximum number of elements held, rounded up to a power of two.
+	 * @throws IllegalArgumentException if capacity is not from 1 to MAX_CAPACITY.
+	 */
+	public RingBuffer(int capacity) {
+		if (capacity <= 0 || capacity > MAX_CAPACITY)
+			throw new IllegalArgumentException("capacity must be from 1 to " + MAX_CAPACITY + ": " + capacity);
+		
+		int size = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		
+		elements = new Object[size];
+		mask = size - 1;
+	}
+	
+	/**
+	 * Appends the specified element to the end of the buffer. Producer thread only.
+	 * @param newItem new element to be appended to the buffer, must not be null.
+	 * @return true if the element was added, false if the buffer is full or the element is null.
+	 */
+	public boolean add(E newItem) {
+		if (newItem == null)
+			return false;
+		
+		long t = tail.get();
+		if (t - cachedHead == elements.length) {
+			cachedHead = head.get();
+			if (t - cachedHead == elements.length) // full
+				return false;
+		}
+		
+		elements[(int) t & mask] = newItem;
+		tail.lazySet(t + 1); // publish the slot
+		return true;
+	}
+	
+	/**
+	 * Returns and removes the first element of the buffer. Consumer thread only.
+	 * @return the first element of the buffer, or null if the buffer is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long h = head.get();
+		if (h == cachedTail) {
+			cachedTail = tail.get();
+			if (h == cachedTail) // empty
+				return null;
+		}
+		
+		int slot = (int) h & mask;
+		E temp = (E) elements[slot];
+		elements[slot] = null; // let go of the reference
+		head.lazySet(h + 1); // hand the slot back to the producer
+		return temp;
+	}
+	
+	/**
+	 * Returns the first element of the buffer. Consumer thread only.
+	 * @return the first element of the buffer, or null if the buffer is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public E peek() {
+		long h = head.get();
+		if (h == cachedTail) {
+			cachedTail = tail.get();
+			if (h == cachedTail)
+				return null;
+		}
+		
+		return (E) elements[(int) h & mask];
+	}
+	
+	/**
+	 * Returns the number of elements in the buffer. The count is only exact while neither thread is using the buffer.
+	 * @return the number of elements in the buffer.
+	 */
+	public int size() {
+		long h = head.get(); // read head first, so the count is never negative
+		return (int) (tail.get() - h);
+	}
+	
+	/**
+	 * Returns true if the buffer is empty.
+	 * @return true if the buffer is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	 * Returns the maximum number of elements the buffer can hold.
+	 * @return the capacity of the buffer.
+	 */
+	public int capacity() {
+		return elements.length;
+	}
+}
\ No newline at end of file
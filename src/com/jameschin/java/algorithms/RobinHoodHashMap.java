@@ -0,0 +1,237 @@
+package com.jameschin.java.algorithms;
+
+/**
+ * RobinHoodHashMap
+ * Open addressing alternative to HashMap. Keys, values and hashes are kept in parallel arrays, no per-mapping Node objects.
+ * Entries far from their home slot displace entries closer to theirs (Robin Hood), which keeps probe sequences short.
+ * Deletion shifts the following run of entries back one slot, so no tombstones are needed.
+ * Type: Open Addressing, Robin Hood Linear Probing, Backward Shift Deletion, Automatic Geometric Resizing
+ * Space: O(n)
+ * Best: O(1)
+ * Worst: O(n) where n is the number of elements.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class RobinHoodHashMap<K, V> {
+	private Object[] keys; // null marks an empty slot
+	private Object[] values;
+	private int[] hashes; // spread hash of the key in each slot, saves calling hashCode() while probing and resizing
+	private int tableSize = 16; // number of table slots, must be a power of two
+	private int size = 0; // number of mappings contained
+	private final double loadFactor = 0.8; // size/tableSize ratio threshold before resizing
+	private final int resizeFactor = 2; // table resize multiplier
+	
+	RobinHoodHashMap() {
+		allocate();
+	}
+	
+	/**
+	 * Internal function to allocate empty parallel arrays of the current tableSize.
+	 */
+	private void allocate() {
+		keys = new Object[tableSize];
+		values = new Object[tableSize];
+		hashes = new int[tableSize];
+	}
+	
+	/**
+	 * Internal function to hash the key, spreading the higher bits of key.hashCode() downward.
+	 * @param key key to be hashed.
+	 * @return spread hash of the key, masked with (tableSize - 1) to find the home slot.
+	 */
+	private int hashFunction(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+	
+	/**
+	 * Internal function returning how far the entry in a slot sits from its home slot.
+	 * @param hash spread hash of the entry.
+	 * @param index slot currently holding the entry.
+	 * @return number of slots between the home slot and index, wrapping around the end of the table.
+	 */
+	private int probeDistance(int hash, int index) {
+		return (index - (hash & (tableSize - 1))) & (tableSize - 1);
+	}
+	
+	/**
+	 * Internal function returning the slot holding key, or -1 if there is no mapping for the key.
+	 * The search stops early at an entry closer to its home slot than the key would be, since Robin Hood insertion would have displaced it.
+	 * @param key search key.
+	 * @return the slot holding key, or -1 if there is no mapping for the key.
+	 */
+	private int indexOf(Object key) {
+		int hash = hashFunction(key);
+		int mask = tableSize - 1;
+		int index = hash & mask;
+		int dist = 0;
+		
+		while (keys[index] != null && probeDistance(hashes[index], index) >= dist) {
+			if (hashes[index] == hash && (keys[index] == key || keys[index].equals(key)))
+				return index;
+			index = (index + 1) & mask;
+			dist++;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Associates the specified value with the specified key in this map.
+	 * If the map previously contained a mapping for the key, the old value is replaced.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(K newKey, V newValue) {
+		if (newKey == null)
+			return null;
+		
+		int index = indexOf(newKey);
+		if (index >= 0) { // key is already mapped
+			V temp = (V) values[index];
+			values[index] = newValue;
+			return temp;
+		}
+		
+		insert(hashFunction(newKey), newKey, newValue);
+		size++;
+		if ((double) size/tableSize > loadFactor)
+			resize();
+		return null;
+	}
+	
+	/**
+	 * Internal function to insert a mapping known not to be present, displacing entries closer to their home slot along the way.
+	 * @param hash spread hash of the new key.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 */
+	private void insert(int hash, Object newKey, Object newValue) {
+		int mask = tableSize - 1;
+		int index = hash & mask;
+		int dist = 0;
+		
+		while (keys[index] != null) {
+			int residentDist = probeDistance(hashes[index], index);
+			
+			if (residentDist < dist) { // resident is richer, swap it out and carry it forward
+				int tempHash = hashes[index];
+				Object tempKey = keys[index];
+				Object tempValue = values[index];
+				hashes[index] = hash;
+				keys[index] = newKey;
+				values[index] = newValue;
+				hash = tempHash;
+				newKey = tempKey;
+				newValue = tempValue;
+				dist = residentDist;
+			}
+			
+			index = (index + 1) & mask;
+			dist++;
+		}
+		
+		hashes[index] = hash;
+		keys[index] = newKey;
+		values[index] = newValue;
+	}
+	
+	/**
+	 * Returns the value to which the specified key is mapped.
+	 * @param key the key whose associated value is to be returned.
+	 * @return the value to which the specified key is mapped, or null if there exists no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(K key) {
+		if (key == null)
+			return null;
+		
+		int index = indexOf(key);
+		return (index >= 0) ? (V) values[index] : null;
+	}
+	
+	/**
+	 * Returns true if there is a mapping for the specified key.
+	 * @param key search key.
+	 * @return true if there is a mapping for the specified key, false if not.
+	 */
+	public boolean containsKey(K key) {
+		return key != null && indexOf(key) >= 0;
+	}
+	
+	/**
+	 * Remove the mapping associated with the key, if it exists.
+	 * The run of entries following the removed slot is shifted back one slot, until an empty slot or an entry already in its home slot.
+	 * @param key key for which the mapping should be removed.
+	 * @return the previous value associated with key, or null if there was no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(K key) {
+		if (key == null)
+			return null;
+		
+		int index = indexOf(key);
+		if (index < 0)
+			return null;
+		
+		V temp = (V) values[index];
+		int mask = tableSize - 1;
+		int next = (index + 1) & mask;
+		
+		while (keys[next] != null && probeDistance(hashes[next], next) > 0) { // backward shift
+			hashes[index] = hashes[next];
+			keys[index] = keys[next];
+			values[index] = values[next];
+			index = next;
+			next = (next + 1) & mask;
+		}
+		
+		keys[index] = null;
+		values[index] = null;
+		size--;
+		return temp;
+	}
+	
+	/**
+	 * Clear the map.
+	 */
+	public void clear() {
+		tableSize = 16;
+		size = 0;
+		allocate();
+	}
+	
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 * @return the number of key-value mappings in this map.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the map is empty.
+	 * @return true if the map is empty, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Internal function to resize the table when the load factor is exceeded.
+	 */
+	private void resize() {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int[] oldHashes = hashes;
+		
+		tableSize = tableSize * resizeFactor;
+		allocate();
+		
+		// transfer all mappings into new resized table, reusing the stored hashes
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null)
+				insert(oldHashes[i], oldKeys[i], oldValues[i]);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,218 @@
+package com.jameschin.java.algorithms;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * TopK
+ * Bounded accumulator keeping the k greatest elements offered, by natural order or by a Comparator.
+ * The elements kept are a binary MinHeap of at most k elements, its top is the least of them, the kth greatest so far.
+ * Once full, an offered element greater than the top replaces it with a single sift down, instead of a deleteMin() and an add().
+ * An element not greater than the top is rejected with one comparison, which is the common case on large inputs.
+ * Partial results built by separate threads over separate parts of an input can be combined with merge().
+ * Null elements are not allowed.
+ * Type: Comparative, Array Based, Bounded Heap
+ * Space: O(k)
+ * Find Kth: O(1)
+ * Offer: O(1) if rejected, O(log k) otherwise.
+ * Top K of n elements: O(n log k), O(n) if the input is mostly rejected, where k is the number of elements kept.
+ * @author: James Chin <jameslchin@gmail.com>
+ */
+public final class TopK<E> {
+	private final Comparator<? super E> comparator;
+	private final int k; // maximum number of elements kept
+	private Object[] heap;
+	private int size = 0; // array index of next empty slot
+	private final int resizeFactor = 2; // array resize multiplier
+	
+	/**
+	 * Creates an empty accumulator keeping the k greatest elements by natural order.
+	 * @param k maximum number of elements kept.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public TopK(int k) {
+		this(k, (Comparator<? super E>) (Comparator) Comparator.naturalOrder());
+	}
+	
+	/**
+	 * Creates an empty accumulator keeping the k greatest elements by the comparator, a reversed comparator keeps the k least.
+	 * @param k maximum number of elements kept.
+	 * @param comparator ordering of the elements.
+	 */
+	public TopK(int k, Comparator<? super E> comparator) {
+		this.k = Math.max(0, k);
+		this.comparator = comparator;
+		heap = new Object[Math.min(this.k, 16)];
+	}
+	
+	@SuppressWarnings("unchecked")
+	private int compare(Object a, Object b) {
+		return comparator.compare((E) a, (E) b);
+	}
+	
+	/**
+	 * Offers an element, keeping it if it is among the k greatest offered so far.
+	 * @param item element to be offered, must not be null.
+	 * @return true if the element was kept, false if not.
+	 */
+	public boolean offer(E item) {
+		if (item == null || k == 0)
+			return false;
+		
+		if (size < k) { // not full, add as last element on the last level
+			if (size == heap.length)
+				heap = Arrays.copyOf(heap, Math.min(k, heap.length * resizeFactor));
+			heapifyUp(size++, item);
+			return true;
+		}
+		
+		if (compare(item, heap[0]) <= 0) // not greater than the kth greatest
+			return false;
+		
+		heapifyDown(0, item); // replace the top
+		return true;
+	}
+	
+	/**
+	 * Offers every element in a range of the array.
+	 * @param array array of elements.
+	 * @param from index of the first element to offer, inclusive.
+	 * @param to index of the last element to offer, exclusive.
+	 * @return this accumulator.
+	 */
+	public TopK<E> offerAll(E[] array, int from, int to) {
+		int i = from;
+		while (i < to && size < k) // fill up
+			offer(array[i++]);
+		
+		if (size == 0)
+			return this;
+		
+		Object top = heap[0];
+		for (; i < to; i++) {
+			E item = array[i];
+			if (item != null && compare(item, top) > 0) { // only elements beating the top are sifted
+				heapifyDown(0, item);
+				top = heap[0];
+			}
+		}
+		return this;
+	}
+	
+	/**
+	 * Offers every element kept by another accumulator, so that this one keeps the k greatest of both.
+	 * The other accumulator is left unchanged.
+	 * @param other accumulator to merge into this one.
+	 * @return this accumulator.
+	 */
+	@SuppressWarnings("unchecked")
+	public TopK<E> merge(TopK<E> other) {
+		if (other == this)
+			return this;
+		return offerAll((E[]) other.heap, 0, other.size);
+	}
+	
+	/**
+	 * Heapify upwards, moving the hole at index up past every greater parent, then filling it.
+	 * @param index index of the hole.
+	 * @param item element to be placed.
+	 */
+	private void heapifyUp(int index, Object item) {
+		while (index > 0) {
+			int parentIndex = (index - 1) >>> 1;
+			if (compare(item, heap[parentIndex]) >= 0)
+				break;
+			heap[index] = heap[parentIndex];
+			index = parentIndex;
+		}
+		heap[index] = item;
+	}
+	
+	/**
+	 * Heapify downwards, moving the hole at index down past every lesser child, then filling it.
+	 * @param index index of the hole.
+	 * @param item element to be placed.
+	 */
+	private void heapifyDown(int index, Object item) {
+		int half = size >>> 1; // nodes from half onwards are leaves
+		while (index < half) {
+			int childIndex = index * 2 + 1;
+			Object child = heap[childIndex];
+			if (childIndex + 1 < size && compare(heap[childIndex + 1], child) < 0)
+				child = heap[++childIndex];
+			if (compare(item, child) <= 0)
+				break;
+			heap[index] = child;
+			index = childIndex;
+		}
+		heap[index] = item;
+	}
+	
+	/**
+	 * Returns the least element kept, the kth greatest offered once k elements have been offered.
+	 * @return the least element kept, or null if no element has been kept.
+	 */
+	@SuppressWarnings("unchecked")
+	public E peek() {
+		return (size == 0) ? null : (E) heap[0];
+	}
+	
+	/**
+	 * Returns the number of elements kept.
+	 * @return the number of elements kept, at most k.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if no element has been kept.
+	 * @return true if no element has been kept, false if not.
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+	
+	/**
+	 * Returns the maximum number of elements kept.
+	 * @return k.
+	 */
+	public int capacity() {
+		return k;
+	}
+	
+	/**
+	 * Clear the accumulator, so that it may be reused.
+	 */
+	public void clear() {
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+	
+	/**
+	 * Returns an array of the elements kept in no particular order, or null array if no element has been kept.
+	 * @return an array of the elements kept.
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] toArray() {
+		if (size == 0)
+			return null;
+		
+		E[] array = (E[]) Array.newInstance(heap[0].getClass(), size);
+		System.arraycopy(heap, 0, array, 0, size);
+		return array;
+	}
+	
+	/**
+	 * Returns an array of the elements kept, greatest first, or null array if no element has been kept.
+	 * Time: O(k log k)
+	 * @return an array of the elements kept, greatest first.
+	 */
+	public E[] toSortedArray() {
+		E[] array = toArray();
+		if (array != null)
+			Arrays.sort(array, comparator.reversed());
+		return array;
+	}
+}
\ No newline at end of file
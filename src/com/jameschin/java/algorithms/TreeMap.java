@@ -1,12 +1,13 @@
 package com.jameschin.java.algorithms;
 
 import java.lang.reflect.Array;
-import java.util.Stack;
 
 /**
  * TreeMap
  * Null values allowed.
- * Type: Sorted, Comparative, Binary Search Tree
+ * Kept height balanced (AVL), so sorted insertion orders such as timestamps or sequential ids do not degrade it into a list.
+ * fromSorted() builds a perfectly balanced map from sorted keys in O(n), toArray(K[], V[]) exports in order without reflection.
+ * Type: Sorted, Comparative, Self-Balancing Binary Search Tree (AVL)
  * Space: O(n)
  * Search: O(log n)
  * Insert: O(log n)
@@ -16,10 +17,12 @@ import java.util.Stack;
 public final class TreeMap<K extends Comparable<K>, V> {
 	private Node root = null;
 	private int size = 0;
+	private V previousValue; // value replaced by the last recursive put
 	
 	private class Node {
 		K mKey;
 		V mValue;
+		int height = 1; // height of the subtree rooted at this node
 		
 		Node left = null;
 		Node right = null;
@@ -30,6 +33,39 @@ public final class TreeMap<K extends Comparable<K>, V> {
 		}
 	}
 	
+	/**
+	 * Returns a map holding the mappings of sorted parallel arrays, built in O(n) as a perfectly balanced tree.
+	 * @param keys keys in strictly ascending order, not modified.
+	 * @param values values[i] is mapped to keys[i], not modified.
+	 * @return a map holding every mapping of the arrays.
+	 */
+	public static <K extends Comparable<K>, V> TreeMap<K, V> fromSorted(K[] keys, V[] values) {
+		TreeMap<K, V> map = new TreeMap<K, V>();
+		map.root = map.build(keys, values, 0, keys.length - 1);
+		map.size = keys.length;
+		return map;
+	}
+	
+	/**
+	 * Recursive internal function to build a perfectly balanced subtree, the middle mapping becomes its root.
+	 * @param keys keys in strictly ascending order.
+	 * @param values values[i] is mapped to keys[i].
+	 * @param lo index of the first mapping of the subtree.
+	 * @param hi index of the last mapping of the subtree.
+	 * @return root of the subtree, or null if it is empty.
+	 */
+	private Node build(K[] keys, V[] values, int lo, int hi) {
+		if (lo > hi)
+			return null;
+		
+		int mid = (lo + hi) >>> 1;
+		Node node = new Node(keys[mid], values[mid]);
+		node.left = build(keys, values, lo, mid - 1);
+		node.right = build(keys, values, mid + 1, hi);
+		updateHeight(node);
+		return node;
+	}
+	
 	/**
 	 * Associates the specified value with the specified key in this map.
 	 * If the map previously contained a mapping for the key, the old value is replaced.
@@ -38,35 +74,102 @@ public final class TreeMap<K extends Comparable<K>, V> {
 	 * @return the previous value associated with the key, or null if there was no mapping for the key.
 	 */
 	public V put (K newKey, V newValue) {
-		if (root == null) {
-			root = new Node(newKey, newValue);
+		previousValue = null;
+		root = put(root, newKey, newValue);
+		return previousValue;
+	}
+	
+	/**
+	 * Recursive internal put function, rebalancing on the way back up.
+	 * @param node root of the tree/sub-tree to insert into.
+	 * @param newKey key of new item to be added.
+	 * @param newValue new item to be added.
+	 * @return root of the rebalanced tree/sub-tree.
+	 */
+	private Node put(Node node, K newKey, V newValue) {
+		if (node == null) {
 			size++;
-			return null;
+			return new Node(newKey, newValue);
 		}
 		
-		Node node = root;
+		int compare = newKey.compareTo(node.mKey);
+		if (compare < 0)
+			node.left = put(node.left, newKey, newValue);
+		else if (compare > 0)
+			node.right = put(node.right, newKey, newValue);
+		else { // (newKey.compareTo(node.mKey) == 0)
+			previousValue = node.mValue;
+			node.mValue = newValue;
+			return node;
+		}
 		
-		while (true) {
-			if (newKey.compareTo(node.mKey) < 0) {
-				if (node.left == null) {
-					node.left = new Node(newKey, newValue);
-					size++;
-					return null;
-				} else
-					node = node.left;
-			} else if (newKey.compareTo(node.mKey) > 0) {
-				if (node.right == null) {
-					node.right = new Node(newKey, newValue);
-					size++;
-					return null;
-				} else
-					node = node.right;
-			} else { // (newKey.compareTo(node.mKey) == 0)
-				V oldValue = node.mValue;
-				node.mValue = newValue;
-				return oldValue;
-			}
+		return balance(node);
+	}
+	
+	/**
+	 * Internal function returning the height of a subtree.
+	 * @param node root of the subtree.
+	 * @return height of the subtree, 0 if empty.
+	 */
+	private int height(Node node) {
+		return (node == null) ? 0 : node.height;
+	}
+	
+	/**
+	 * Internal function to recompute the height of a node from its children.
+	 * @param node node to update.
+	 */
+	private void updateHeight(Node node) {
+		node.height = Math.max(height(node.left), height(node.right)) + 1;
+	}
+	
+	/**
+	 * Internal function to rotate a subtree right, its left child becomes its root.
+	 * @param node root of the subtree.
+	 * @return new root of the subtree.
+	 */
+	private Node rotateRight(Node node) {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		updateHeight(node);
+		updateHeight(left);
+		return left;
+	}
+	
+	/**
+	 * Internal function to rotate a subtree left, its right child becomes its root.
+	 * @param node root of the subtree.
+	 * @return new root of the subtree.
+	 */
+	private Node rotateLeft(Node node) {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		updateHeight(node);
+		updateHeight(right);
+		return right;
+	}
+	
+	/**
+	 * Internal function to restore the AVL property at a node whose subtrees differ in height by at most 2.
+	 * @param node root of the subtree.
+	 * @return new root of the subtree.
+	 */
+	private Node balance(Node node) {
+		updateHeight(node);
+		int balance = height(node.left) - height(node.right);
+		
+		if (balance > 1) { // left heavy
+			if (height(node.left.left) < height(node.left.right))
+				node.left = rotateLeft(node.left); // left-right case
+			return rotateRight(node);
+		} else if (balance < -1) { // right heavy
+			if (height(node.right.right) < height(node.right.left))
+				node.right = rotateRight(node.right); // right-left case
+			return rotateLeft(node);
 		}
+		return node;
 	}
 	
 	/**
@@ -79,24 +182,34 @@ public final class TreeMap<K extends Comparable<K>, V> {
 			return null;
 
 		V[] array = (V[]) Array.newInstance(root.mValue.getClass(), size);
-		Stack<Node> stack = new Stack<Node>();
-		Node node = root;
-		int index = 0;
+		toArray(null, array);
+		return array;
+	}
+	
+	/**
+	 * Writes all mappings ordered by key into caller-supplied arrays, starting at index 0.
+	 * Walks the tree with a cursor, so nothing is allocated per mapping.
+	 * @param keys destination for the keys, or null to skip them.
+	 * @param values destination for the values, or null to skip them.
+	 * @return the number of mappings written, as many as the shorter non-null array can hold.
+	 */
+	public int toArray(K[] keys, V[] values) {
+		int count = size;
+		if (keys != null)
+			count = Math.min(count, keys.length);
+		if (values != null)
+			count = Math.min(count, values.length);
 		
-		while (true) {
-			if (node != null) {
-				stack.push(node);
-				node = node.left;
-			} else {
-				node = stack.pop();
-				array[index++] = node.mValue;
-				if (index == size)
-					break;
-				node = node.right;
-			}
+		Cursor cursor = cursor();
+		for (int index = 0; index < count; index++) {
+			cursor.advance();
+			if (keys != null)
+				keys[index] = cursor.key();
+			if (values != null)
+				values[index] = cursor.value();
 		}
 		
-		return array;
+		return count;
 	}
 	
 	/**
@@ -209,6 +322,123 @@ public final class TreeMap<K extends Comparable<K>, V> {
 		return node.mKey;
 	}
 	
+	/**
+	 * Returns the greatest key less than or equal to the given key.
+	 * @param key search key.
+	 * @return the greatest key less than or equal to key, or null if there is no such key.
+	 */
+	public K floorKey(K key) {
+		Node node = root;
+		K floor = null;
+		
+		while (node != null) {
+			int compare = key.compareTo(node.mKey);
+			if (compare < 0)
+				node = node.left;
+			else if (compare > 0) {
+				floor = node.mKey; // candidate, look for a closer one on the right
+				node = node.right;
+			} else
+				return node.mKey;
+		}
+		
+		return floor;
+	}
+	
+	/**
+	 * Returns the least key greater than or equal to the given key.
+	 * @param key search key.
+	 * @return the least key greater than or equal to key, or null if there is no such key.
+	 */
+	public K ceilingKey(K key) {
+		Node node = root;
+		K ceiling = null;
+		
+		while (node != null) {
+			int compare = key.compareTo(node.mKey);
+			if (compare > 0)
+				node = node.right;
+			else if (compare < 0) {
+				ceiling = node.mKey; // candidate, look for a closer one on the left
+				node = node.left;
+			} else
+				return node.mKey;
+		}
+		
+		return ceiling;
+	}
+	
+	/**
+	 * Returns the least key strictly greater than the given key.
+	 * @param key search key.
+	 * @return the least key greater than key, or null if there is no such key.
+	 */
+	public K higherKey(K key) {
+		Node node = root;
+		K higher = null;
+		
+		while (node != null) {
+			if (key.compareTo(node.mKey) < 0) {
+				higher = node.mKey;
+				node = node.left;
+			} else
+				node = node.right;
+		}
+		
+		return higher;
+	}
+	
+	/**
+	 * Returns the greatest key strictly less than the given key.
+	 * @param key search key.
+	 * @return the greatest key less than key, or null if there is no such key.
+	 */
+	public K lowerKey(K key) {
+		Node node = root;
+		K lower = null;
+		
+		while (node != null) {
+			if (key.compareTo(node.mKey) > 0) {
+				lower = node.mKey;
+				node = node.right;
+			} else
+				node = node.left;
+		}
+		
+		return lower;
+	}
+	
+	/**
+	 * Returns a cursor over all mappings in key order.
+	 * The map must not be modified while the cursor is in use.
+	 * @return a cursor positioned before the first mapping.
+	 */
+	public Cursor cursor() {
+		return new Cursor(null, null);
+	}
+	
+	/**
+	 * Returns a cursor over the mappings whose keys range from fromKey, inclusive, to toKey, exclusive.
+	 * The map must not be modified while the cursor is in use.
+	 * @param fromKey low endpoint (inclusive), or null for no lower bound.
+	 * @param toKey high endpoint (exclusive), or null for no upper bound.
+	 * @return a cursor positioned before the first mapping in range.
+	 */
+	public Cursor cursor(K fromKey, K toKey) {
+		return new Cursor(fromKey, toKey);
+	}
+	
+	/**
+	 * Returns a view of the portion of this map whose keys range from fromKey, inclusive, to toKey, exclusive.
+	 * The view is backed by this map, so changes to the map are reflected in the view.
+	 * @param fromKey low endpoint (inclusive), or null for no lower bound.
+	 * @param toKey high endpoint (exclusive), or null for no upper bound.
+	 * @return a view of the portion of this map in range.
+	 */
+	public SubMap subMap(K fromKey, K toKey) {
+		return new SubMap(fromKey, toKey);
+	}
+	
 	/**
 	 * Removes the mapping for the min key and returns the value which was mapped to it.
 	 * @return the value which was mapped to the min key in the map, or null if the map is empty.
@@ -217,21 +447,27 @@ public final class TreeMap<K extends Comparable<K>, V> {
 		if (root == null)
 			return null;
 		
-		Node prev = null;
-		Node curr = root;
-		size--;
-		
-		while (curr.left != null) { // shuttle curr to the leftmost node
-			prev = curr;
-			curr = curr.left;
-		}
+		Node node = root;
 		
-		if (prev == null)
-			root = root.right; // if root was the leftmost node
-		else
-			prev.left = curr.right;
+		while (node.left != null) // shuttle node to the leftmost node
+			node = node.left;
 		
-		return curr.mValue;
+		root = removeMin(root);
+		return node.mValue;
+	}
+	
+	/**
+	 * Recursive internal function to remove the leftmost node of a subtree.
+	 * @param node root of the tree/sub-tree.
+	 * @return root of the rebalanced tree/sub-tree.
+	 */
+	private Node removeMin(Node node) {
+		if (node.left == null) {
+			size--;
+			return node.right;
+		}
+		node.left = removeMin(node.left);
+		return balance(node);
 	}
 	
 	/**
@@ -242,21 +478,27 @@ public final class TreeMap<K extends Comparable<K>, V> {
 		if (root == null)
 			return null;
 		
-		Node prev = null;
-		Node curr = root;
-		size--;
-		
-		while (curr.right != null) { // shuttle curr to the rightmost node
-			prev = curr;
-			curr = curr.right;
-		}
+		Node node = root;
 		
-		if (prev == null)
-			root = root.left; // if root was the rightmost node
-		else
-			prev.right = curr.left;
+		while (node.right != null) // shuttle node to the rightmost node
+			node = node.right;
 		
-		return curr.mValue;
+		root = removeMax(root);
+		return node.mValue;
+	}
+	
+	/**
+	 * Recursive internal function to remove the rightmost node of a subtree.
+	 * @param node root of the tree/sub-tree.
+	 * @return root of the rebalanced tree/sub-tree.
+	 */
+	private Node removeMax(Node node) {
+		if (node.right == null) {
+			size--;
+			return node.left;
+		}
+		node.right = removeMax(node.right);
+		return balance(node);
 	}
 	
 	/**
@@ -265,71 +507,216 @@ public final class TreeMap<K extends Comparable<K>, V> {
 	 * @return true if the mapping was found in the map and removed, false if not.
 	 */
 	public boolean remove(K key) {
-		if (root == null)
-			return false;
+		int oldSize = size;
+		root = remove(root, key);
+		return size < oldSize;
+	}
+	
+	/**
+	 * Recursive internal remove function, rebalancing on the way back up.
+	 * @param node root of the tree/sub-tree to search.
+	 * @param key key for which the mapping should be removed.
+	 * @return root of the rebalanced tree/sub-tree.
+	 */
+	private Node remove(Node node, K key) {
+		if (node == null)
+			return null;
 		
-		Node prevNode = null;
-		Node node = root;
+		int compare = key.compareTo(node.mKey);
+		if (compare < 0)
+			node.left = remove(node.left, key);
+		else if (compare > 0)
+			node.right = remove(node.right, key);
+		else { // node.mKey matches key, now remove node
+			if (node.left == null) { // ONLY RIGHT OR NO CHILD
+				size--;
+				return node.right;
+			} else if (node.right == null) { // ONLY LEFT CHILD
+				size--;
+				return node.left;
+			}
+			
+			// TWO CHILDREN, substitute data from next largest and remove it from the left subtree
+			Node curr = node.left;
+			while (curr.right != null) // shuttle curr to the rightmost node in the left subtree
+				curr = curr.right;
+			node.mKey = curr.mKey;
+			node.mValue = curr.mValue;
+			node.left = removeMax(node.left);
+		}
 		
-		while (true) {
-			if (key.compareTo(node.mKey) < 0) {
-				if (node.left == null)
-					return false;
-				else {
-					prevNode = node;
+		return balance(node);
+	}
+	
+	/**
+	 * Cursor over the mappings of the map in key order, call advance() before reading each mapping.
+	 * Pending nodes are kept in an array sized to the tree height, so advancing allocates nothing.
+	 */
+	public final class Cursor {
+		private final K toKey; // exclusive upper bound, null if unbounded
+		private final Node[] stack; // pending ancestors whose keys are still to be visited
+		private int depth = 0; // number of nodes on the stack
+		private Node current = null;
+		
+		@SuppressWarnings("unchecked")
+		private Cursor(K fromKey, K toKey) {
+			this.toKey = toKey;
+			stack = (Node[]) Array.newInstance(Node.class, height(root));
+			
+			// descend towards fromKey, keeping every node on the path that is not below it
+			Node node = root;
+			while (node != null) {
+				if (fromKey == null || fromKey.compareTo(node.mKey) <= 0) {
+					stack[depth++] = node;
 					node = node.left;
-				}
-			} else if (key.compareTo(node.mKey) > 0) {
-				if (node.right == null)
-					return false;
-				else {
-					prevNode = node;
+				} else
 					node = node.right;
-				}
-			} else { // node.data matches item, now remove node
-				if (node.left != null && node.right != null) { // TWO CHILDREN
-					Node prev = null;
-					Node curr = node.left;
-					
-					while (curr.right != null) { // shuttle curr to the rightmost node in the left subtree
-						prev = curr;
-						curr = curr.right;
-					}
-					
-					node.mKey = curr.mKey; // substitute data from next largest
-					node.mValue = curr.mValue;
-					
-					// remove rightmost node in the left subtree
-					if (prev == null)
-						node.left = node.left.left; // original left node was max of subtree
-					else
-						prev.right = curr.left;
-					
-				} else {
-					if (node.left != null) { // ONLY LEFT CHILD
-						if (node == root)
-							root = root.left;
-						else {
-							if (prevNode.left != null && prevNode.left.mKey.compareTo(key) == 0)
-								prevNode.left = node.left;
-							else
-								prevNode.right = node.left;
-						}
-					} else { // ONLY RIGHT OR NO CHILD
-						if (node == root)
-							root = root.right;
-						else {
-							if (prevNode.left != null && prevNode.left.mKey.compareTo(key) == 0)
-								prevNode.left = node.right;
-							else
-								prevNode.right = node.right;
-						}
-					}
-				}
-				
-				size--;
-				return true;
 			}
 		}
+		
+		/**
+		 * Moves the cursor to the next mapping.
+		 * @return true if the cursor is at a mapping, false if there are no more mappings in range.
+		 */
+		public boolean advance() {
+			if (depth == 0) {
+				current = null;
+				return false;
+			}
+			
+			Node node = stack[--depth];
+			if (toKey != null && node.mKey.compareTo(toKey) >= 0) {
+				depth = 0;
+				current = null;
+				return false;
+			}
+			current = node;
+			
+			// push the left spine of the right subtree, its leftmost node is next
+			node = node.right;
+			while (node != null) {
+				stack[depth++] = node;
+				node = node.left;
+			}
+			return true;
+		}
+		
+		/**
+		 * Returns the key of the current mapping.
+		 * @return the key of the current mapping.
+		 */
+		public K key() {
+			return current.mKey;
+		}
+		
+		/**
+		 * Returns the value of the current mapping.
+		 * @return the value of the current mapping.
+		 */
+		public V value() {
+			return current.mValue;
+		}
+	}
+	
+	/**
+	 * View of the mappings whose keys range from fromKey, inclusive, to toKey, exclusive.
+	 */
+	public final class SubMap {
+		private final K fromKey; // inclusive lower bound, null if unbounded
+		private final K toKey; // exclusive upper bound, null if unbounded
+		
+		private SubMap(K fromKey, K toKey) {
+			this.fromKey = fromKey;
+			this.toKey = toKey;
+		}
+		
+		/**
+		 * Internal function returning true if the key lies within the bounds of the view.
+		 * @param key key to test.
+		 * @return true if the key is in range, false if not.
+		 */
+		private boolean inRange(K key) {
+			return (fromKey == null || key.compareTo(fromKey) >= 0) && (toKey == null || key.compareTo(toKey) < 0);
+		}
+		
+		/**
+		 * Returns true if there is a mapping for the specified key within the view.
+		 * @param key search key.
+		 * @return true if there is a mapping for the key within the view, false if not.
+		 */
+		public boolean containsKey(K key) {
+			return inRange(key) && TreeMap.this.containsKey(key);
+		}
+		
+		/**
+		 * Returns the value to which the specified key is mapped within the view.
+		 * @param key the key whose associated value is to be returned.
+		 * @return the value to which the key is mapped, or null if there exists no mapping for the key within the view.
+		 */
+		public V get(K key) {
+			return inRange(key) ? TreeMap.this.get(key) : null;
+		}
+		
+		/**
+		 * Returns the first key in the view.
+		 * @return the first key in the view, or null if the view is empty.
+		 */
+		public K firstKey() {
+			K key = (fromKey == null) ? TreeMap.this.firstKey() : ceilingKey(fromKey);
+			return (key == null || !inRange(key)) ? null : key;
+		}
+		
+		/**
+		 * Returns the last key in the view.
+		 * @return the last key in the view, or null if the view is empty.
+		 */
+		public K lastKey() {
+			K key = (toKey == null) ? TreeMap.this.lastKey() : lowerKey(toKey);
+			return (key == null || !inRange(key)) ? null : key;
+		}
+		
+		/**
+		 * Returns true if the view is empty.
+		 * @return true if the view is empty, false if not.
+		 */
+		public boolean isEmpty() {
+			return firstKey() == null;
+		}
+		
+		/**
+		 * Returns the number of mappings in the view, counted by a cursor scan.
+		 * @return the number of mappings in the view.
+		 */
+		public int size() {
+			Cursor cursor = cursor();
+			int count = 0;
+			while (cursor.advance())
+				count++;
+			return count;
+		}
+		
+		/**
+		 * Returns a cursor over the mappings of the view in key order.
+		 * @return a cursor positioned before the first mapping of the view.
+		 */
+		public Cursor cursor() {
+			return new Cursor(fromKey, toKey);
+		}
+		
+		/**
+		 * Returns a view of the portion of this view whose keys range from fromKey, inclusive, to toKey, exclusive.
+		 * @param fromKey low endpoint (inclusive), or null for no lower bound.
+		 * @param toKey high endpoint (exclusive), or null for no upper bound.
+		 * @return a view of the portion of this view in range.
+		 */
+		public SubMap subMap(K fromKey, K toKey) {
+			K from = this.fromKey;
+			K to = this.toKey;
+			if (fromKey != null && (from == null || fromKey.compareTo(from) > 0))
+				from = fromKey;
+			if (toKey != null && (to == null || toKey.compareTo(to) < 0))
+				to = toKey;
+			return new SubMap(from, to);
+		}
 	}
 }
\ No newline at end of file
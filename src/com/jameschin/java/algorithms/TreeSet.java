@@ -1,11 +1,13 @@
 package com.jameschin.java.algorithms;
 
 import java.lang.reflect.Array;
-import java.util.Stack;
 
 /**
  * TreeSet
- * Type: Sorted, Comparative, Binary Search Tree
+ * Kept height balanced (AVL), so sorted insertion orders such as timestamps or sequential ids do not degrade it into a list.
+ * Each node also counts its subtree, so positional lookups get(i), rank(e) and countRange(lo, hi) run in O(log n).
+ * fromSorted() builds a perfectly balanced set from sorted items in O(n), toArray(E[]) exports in order without reflection.
+ * Type: Sorted, Comparative, Self-Balancing Binary Search Tree (AVL)
  * Space: O(n)
  * Search: O(log n)
  * Insert: O(log n)
@@ -18,6 +20,8 @@ public final class TreeSet<E extends Comparable<E>> {
 	
 	private class Node {
 		E data;
+		int height = 1; // height of the subtree rooted at this node
+		int size = 1; // number of nodes in the subtree rooted at this node
 		
 		Node left = null;
 		Node right = null;
@@ -27,38 +31,145 @@ public final class TreeSet<E extends Comparable<E>> {
 		}
 	}
 	
+	/**
+	 * Returns a set holding the items of a sorted array, built in O(n) as a perfectly balanced tree.
+	 * @param sorted items in strictly ascending order, not modified.
+	 * @return a set holding every item of the array.
+	 */
+	public static <E extends Comparable<E>> TreeSet<E> fromSorted(E[] sorted) {
+		TreeSet<E> set = new TreeSet<E>();
+		set.root = set.build(sorted, 0, sorted.length - 1);
+		set.size = sorted.length;
+		return set;
+	}
+	
+	/**
+	 * Recursive internal function to build a perfectly balanced subtree, the middle item becomes its root.
+	 * @param sorted items in strictly ascending order.
+	 * @param lo index of the first item of the subtree.
+	 * @param hi index of the last item of the subtree.
+	 * @return root of the subtree, or null if it is empty.
+	 */
+	private Node build(E[] sorted, int lo, int hi) {
+		if (lo > hi)
+			return null;
+		
+		int mid = (lo + hi) >>> 1;
+		Node node = new Node(sorted[mid]);
+		node.left = build(sorted, lo, mid - 1);
+		node.right = build(sorted, mid + 1, hi);
+		update(node);
+		return node;
+	}
+	
 	/**
 	 * Add new item.
 	 * @param newItem new item to be added.
 	 * @return true if successfully added, false if item already exists in set.
 	 */
 	public boolean add (E newItem) {
-		if (root == null) {
-			root = new Node(newItem);
+		int oldSize = size;
+		root = add(root, newItem);
+		return size > oldSize;
+	}
+	
+	/**
+	 * Recursive internal add function, rebalancing on the way back up.
+	 * @param node root of the tree/sub-tree to insert into.
+	 * @param newItem new item to be added.
+	 * @return root of the rebalanced tree/sub-tree.
+	 */
+	private Node add(Node node, E newItem) {
+		if (node == null) {
 			size++;
-			return true;
+			return new Node(newItem);
 		}
 		
-		Node node = root;
+		int compare = newItem.compareTo(node.data);
+		if (compare < 0)
+			node.left = add(node.left, newItem);
+		else if (compare > 0)
+			node.right = add(node.right, newItem);
+		else
+			return node; // (newItem.compareTo(node.data) == 0)
 		
-		while (true) {
-			if (newItem.compareTo(node.data) < 0) {
-				if (node.left == null) {
-					node.left = new Node(newItem);
-					size++;
-					return true;
-				} else
-					node = node.left;
-			} else if (newItem.compareTo(node.data) > 0) {
-				if (node.right == null) {
-					node.right = new Node(newItem);
-					size++;
-					return true;
-				} else
-					node = node.right;
-			} else
-				return false; // (newKey.compareTo(node.mKey) == 0)
+		return balance(node);
+	}
+	
+	/**
+	 * Internal function returning the height of a subtree.
+	 * @param node root of the subtree.
+	 * @return height of the subtree, 0 if empty.
+	 */
+	private int height(Node node) {
+		return (node == null) ? 0 : node.height;
+	}
+	
+	/**
+	 * Internal function returning the number of nodes in a subtree.
+	 * @param node root of the subtree.
+	 * @return number of nodes in the subtree, 0 if empty.
+	 */
+	private int size(Node node) {
+		return (node == null) ? 0 : node.size;
+	}
+	
+	/**
+	 * Internal function to recompute the height and size of a node from its children.
+	 * @param node node to update.
+	 */
+	private void update(Node node) {
+		node.height = Math.max(height(node.left), height(node.right)) + 1;
+		node.size = size(node.left) + size(node.right) + 1;
+	}
+	
+	/**
+	 * Internal function to rotate a subtree right, its left child becomes its root.
+	 * @param node root of the subtree.
+	 * @return new root of the subtree.
+	 */
+	private Node rotateRight(Node node) {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		update(node);
+		update(left);
+		return left;
+	}
+	
+	/**
+	 * Internal function to rotate a subtree left, its right child becomes its root.
+	 * @param node root of the subtree.
+	 * @return new root of the subtree.
+	 */
+	private Node rotateLeft(Node node) {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		update(node);
+		update(right);
+		return right;
+	}
+	
+	/**
+	 * Internal function to restore the AVL property at a node whose subtrees differ in height by at most 2.
+	 * @param node root of the subtree.
+	 * @return new root of the subtree.
+	 */
+	private Node balance(Node node) {
+		update(node);
+		int balance = height(node.left) - height(node.right);
+		
+		if (balance > 1) { // left heavy
+			if (height(node.left.left) < height(node.left.right))
+				node.left = rotateLeft(node.left); // left-right case
+			return rotateRight(node);
+		} else if (balance < -1) { // right heavy
+			if (height(node.right.right) < height(node.right.left))
+				node.right = rotateRight(node.right); // right-left case
+			return rotateLeft(node);
 		}
+		return node;
 	}
 	
 	/**
@@ -71,24 +182,41 @@ public final class TreeSet<E extends Comparable<E>> {
 			return null;
 		
 		E[] array = (E[]) Array.newInstance(root.data.getClass(), size);
-		Stack<Node> stack = new Stack<Node>();
+		toArray(array);
+		return array;
+	}
+	
+	/**
+	 * Writes all items in order into a caller-supplied array, starting at index 0.
+	 * Pending nodes are kept in an array sized to the tree height, so nothing is allocated per item.
+	 * @param array destination, filled with as many items as it can hold.
+	 * @return the number of items written.
+	 */
+	@SuppressWarnings("unchecked")
+	public int toArray(E[] array) {
+		int count = Math.min(size, array.length);
+		if (count == 0)
+			return 0;
+		
+		Node[] stack = (Node[]) Array.newInstance(Node.class, height(root));
+		int depth = 0;
 		Node node = root;
 		int index = 0;
 		
 		while (true) {
 			if (node != null) {
-				stack.push(node);
+				stack[depth++] = node;
 				node = node.left;
 			} else {
-				node = stack.pop();
+				node = stack[--depth];
 				array[index++] = node.data;
-				if (index == size)
+				if (index == count)
 					break;
 				node = node.right;
 			}
 		}
 		
-		return array;
+		return count;
 	}
 	
 	/**
@@ -145,27 +273,60 @@ public final class TreeSet<E extends Comparable<E>> {
 	/**
 	 * Get the element at index i, starting from zero.
 	 * @param i element to retrieve.
-	 * @return element E at index i.
+	 * @return element E at index i, or null if i is out of range.
 	 */
 	public E get(int i) {
 		if (i >= size || i < 0)
 			return null;
 		
-		Stack<Node> stack = new Stack<Node>();
-		int counter = 0;
 		Node node = root;
 		
 		while (true) {
-			if (node != null) {
-				stack.push(node);
+			int leftSize = size(node.left);
+			if (i < leftSize)
 				node = node.left;
-			} else {
-				node = stack.pop();
-				if (counter++ == i)
-					return node.data;
+			else if (i > leftSize) {
+				i -= leftSize + 1; // skip the left subtree and this node
 				node = node.right;
-			}
+			} else
+				return node.data;
+		}
+	}
+	
+	/**
+	 * Returns the number of elements strictly less than item, which is the index of item if it is in the set.
+	 * @param item search item.
+	 * @return the number of elements less than item.
+	 */
+	public int rank(E item) {
+		Node node = root;
+		int rank = 0;
+		
+		while (node != null) {
+			int compare = item.compareTo(node.data);
+			if (compare < 0)
+				node = node.left;
+			else if (compare > 0) {
+				rank += size(node.left) + 1; // the left subtree and this node are less than item
+				node = node.right;
+			} else
+				return rank + size(node.left);
 		}
+		
+		return rank;
+	}
+	
+	/**
+	 * Returns the number of elements ranging from lo, inclusive, to hi, exclusive.
+	 * @param lo low endpoint (inclusive).
+	 * @param hi high endpoint (exclusive).
+	 * @return the number of elements in range, 0 if hi is not greater than lo.
+	 */
+	public int countRange(E lo, E hi) {
+		if (hi.compareTo(lo) <= 0)
+			return 0;
+		
+		return rank(hi) - rank(lo);
 	}
 	
 	/**
@@ -208,21 +369,27 @@ public final class TreeSet<E extends Comparable<E>> {
 		if (root == null)
 			return null;
 		
-		Node prev = null;
-		Node curr = root;
-		size--;
-		
-		while (curr.left != null) { // shuttle curr to the leftmost node
-			prev = curr;
-			curr = curr.left;
-		}
+		Node node = root;
 		
-		if (prev == null)
-			root = root.right; // if root was the leftmost node
-		else
-			prev.left = curr.right;
+		while (node.left != null) // shuttle node to the leftmost node
+			node = node.left;
 		
-		return curr.data;
+		root = removeMin(root);
+		return node.data;
+	}
+	
+	/**
+	 * Recursive internal function to remove the leftmost node of a subtree.
+	 * @param node root of the tree/sub-tree.
+	 * @return root of the rebalanced tree/sub-tree.
+	 */
+	private Node removeMin(Node node) {
+		if (node.left == null) {
+			size--;
+			return node.right;
+		}
+		node.left = removeMin(node.left);
+		return balance(node);
 	}
 	
 	/**
@@ -233,21 +400,27 @@ public final class TreeSet<E extends Comparable<E>> {
 		if (root == null)
 			return null;
 		
-		Node prev = null;
-		Node curr = root;
-		size--;
-		
-		while (curr.right != null) { // shuttle curr to the rightmost node
-			prev = curr;
-			curr = curr.right;
-		}
+		Node node = root;
 		
-		if (prev == null)
-			root = root.left; // if root was the rightmost node
-		else
-			prev.right = curr.left;
+		while (node.right != null) // shuttle node to the rightmost node
+			node = node.right;
 		
-		return curr.data;
+		root = removeMax(root);
+		return node.data;
+	}
+	
+	/**
+	 * Recursive internal function to remove the rightmost node of a subtree.
+	 * @param node root of the tree/sub-tree.
+	 * @return root of the rebalanced tree/sub-tree.
+	 */
+	private Node removeMax(Node node) {
+		if (node.right == null) {
+			size--;
+			return node.left;
+		}
+		node.right = removeMax(node.right);
+		return balance(node);
 	}
 	
 	/**
@@ -256,70 +429,43 @@ public final class TreeSet<E extends Comparable<E>> {
 	 * @return true if the item was found in the set and removed, false if not.
 	 */
 	public boolean remove(E item) {
-		if (root == null)
-			return false;
-		
-		Node prevNode = null;
-		Node node = root;
+		int oldSize = size;
+		root = remove(root, item);
+		return size < oldSize;
+	}
+	
+	/**
+	 * Recursive internal remove function, rebalancing on the way back up.
+	 * @param node root of the tree/sub-tree to search.
+	 * @param item element to remove from set.
+	 * @return root of the rebalanced tree/sub-tree.
+	 */
+	private Node remove(Node node, E item) {
+		if (node == null)
+			return null;
 		
-		while (true) {
-			if (item.compareTo(node.data) < 0) {
-				if (node.left == null)
-					return false;
-				else {
-					prevNode = node;
-					node = node.left;
-				}
-			} else if (item.compareTo(node.data) > 0) {
-				if (node.right == null)
-					return false;
-				else {
-					prevNode = node;
-					node = node.right;
-				}
-			} else { // node.data matches item, now remove node
-				if (node.left != null && node.right != null) { // TWO CHILDREN
-					Node prev = null;
-					Node curr = node.left;
-					
-					while (curr.right != null) { // shuttle curr to the rightmost node in the left subtree
-						prev = curr;
-						curr = curr.right;
-					}
-					
-					node.data = curr.data; // substitute data from next largest
-					
-					// remove rightmost node in the left subtree
-					if (prev == null)
-						node.left = node.left.left; // original left node was max of subtree
-					else
-						prev.right = curr.left;
-					
-				} else {
-					if (node.left != null) { // ONLY LEFT CHILD
-						if (node == root)
-							root = root.left;
-						else {
-							if (prevNode.left != null && prevNode.left.data.compareTo(item) == 0)
-								prevNode.left = node.left;
-							else
-								prevNode.right = node.left;
-						}
-					} else { // ONLY RIGHT OR NO CHILD
-						if (node == root)
-							root = root.right;
-						else {
-							if (prevNode.left != null && prevNode.left.data.compareTo(item) == 0)
-								prevNode.left = node.right;
-							else
-								prevNode.right = node.right;
-						}
-					}
-				}
-				
+		int compare = item.compareTo(node.data);
+		if (compare < 0)
+			node.left = remove(node.left, item);
+		else if (compare > 0)
+			node.right = remove(node.right, item);
+		else { // node.data matches item, now remove node
+			if (node.left == null) { // ONLY RIGHT OR NO CHILD
+				size--;
+				return node.right;
+			} else if (node.right == null) { // ONLY LEFT CHILD
 				size--;
-				return true;
+				return node.left;
 			}
+			
+			// TWO CHILDREN, substitute data from next largest and remove it from the left subtree
+			Node curr = node.left;
+			while (curr.right != null) // shuttle curr to the rightmost node in the left subtree
+				curr = curr.right;
+			node.data = curr.data;
+			node.left = removeMax(node.left);
 		}
+		
+		return balance(node);
 	}
 }
\ No newline at end of file
@@ -1,23 +1,288 @@
 package com.jameschin.java.algorithms;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Trie
+ * The children of each node are kept in two parallel arrays, their chars in sorted order and the child nodes,
+ * so a child is found by binary search with no boxing and no map entry per child. A leaf holds no arrays at all.
+ * add(), contains() and remove() walk the word by index, they allocate nothing but the nodes of a new branch.
+ * Every node counts the words below it, so countWithPrefix() answers in O(|prefix|), and keysWithPrefix() iterates lazily in order.
+ * Created with a cache size, every node also keeps its most added words in a short sorted list, updated on add() and remove(),
+ * so topKByCount() for k up to the cache size answers in O(|prefix| + k), whatever the number of words under the prefix.
+ * fuzzySearch() walks the trie once for all words within an edit distance, pruning every branch that can no longer match.
  * Type: String Trie, Sorted
  * Space: Less than O(n), where n is the number of strings stored.
- * Search: O(m)
- * Insert: O(m) where m is the length of the string.
+ * Search: O(m log s)
+ * Insert: O(m log s) where m is the length of the string, s is the alphabet size, plus O(m c) to update the caches, c is the cache size.
  * @author: James Chin <jameslchin@gmail.com>
  */
 public final class Trie {
 	private Node root = new Node();
 	private int size = 0; // number of strings stored in the trie
+	private int longest = 0; // length of the longest string added since the last clear, at least the depth of the trie
+	private Node[] path = new Node[16]; // nodes on the path of the word being added or removed, reused by add() and remove()
+	private final int cacheSize; // number of most added words cached per node, 0 if none
 	
 	private class Node {
 		int count = 0;
-		TreeMap<Character, Node> children = new TreeMap<Character, Node>();
+		int words = 0; // number of words stored in the sub-tree of this node, including its own
+		int childCount = 0; // number of children
+		char[] keys = null; // chars of the children in sorted order, null if there are no children
+		Node[] children = null; // child of each char in keys
+		String word = null; // word stored at this node, only kept when caching
+		Node[] top = null; // nodes of the most added words in the sub-tree, most added first, only kept when caching
+		int topSize = 0; // number of nodes in top
+		
+		/**
+		 * Returns the child reached by the specified char.
+		 * @param c char of the child.
+		 * @return the child, or null if there is none.
+		 */
+		Node child(char c) {
+			if (childCount == 0)
+				return null;
+			int index = Arrays.binarySearch(keys, 0, childCount, c);
+			return (index >= 0) ? children[index] : null;
+		}
+		
+		/**
+		 * Returns the child reached by the specified char, adding an empty child if there is none.
+		 * @param c char of the child.
+		 * @return the child.
+		 */
+		Node addChild(char c) {
+			if (childCount == 0) {
+				keys = new char[2];
+				children = new Node[2];
+			}
+			
+			int index = Arrays.binarySearch(keys, 0, childCount, c);
+			if (index >= 0)
+				return children[index];
+			
+			index = -index - 1; // insertion point
+			if (childCount == keys.length) {
+				keys = Arrays.copyOf(keys, childCount * 2);
+				children = Arrays.copyOf(children, childCount * 2);
+			}
+			System.arraycopy(keys, index, keys, index + 1, childCount - index);
+			System.arraycopy(children, index, children, index + 1, childCount - index);
+			keys[index] = c;
+			Node child = new Node();
+			children[index] = child;
+			childCount++;
+			return child;
+		}
+		
+		/**
+		 * Removes the child reached by the specified char.
+		 * @param c char of the child, must be present.
+		 */
+		void removeChild(char c) {
+			int index = Arrays.binarySearch(keys, 0, childCount, c);
+			childCount--;
+			System.arraycopy(keys, index + 1, keys, index, childCount - index);
+			System.arraycopy(children, index + 1, children, index, childCount - index);
+			children[childCount] = null;
+			if (childCount == 0) { // back to a leaf
+				keys = null;
+				children = null;
+			}
+		}
+		
+		/**
+		 * Returns the position of the node in the top list.
+		 * @param item node to be found.
+		 * @return the position of the node, or -1 if it is not in the list.
+		 */
+		int indexInTop(Node item) {
+			for (int i = 0; i < topSize; i++) {
+				if (top[i] == item)
+					return i;
+			}
+			return -1;
+		}
+		
+		/**
+		 * Moves a word whose count has grown up the top list, adding it if it now belongs in the list.
+		 * @param item node of the word.
+		 * @param capacity maximum length of the list.
+		 * @return true if the list changed, false if the word is still outside it, and so outside the lists of every ancestor.
+		 */
+		boolean promote(Node item, int capacity) {
+			int i = indexInTop(item);
+			if (i < 0) {
+				if (topSize == capacity) {
+					if (!before(item, top[topSize - 1]))
+						return false;
+					i = topSize - 1; // replaces the last word
+				} else {
+					if (top == null)
+						top = new Node[Math.min(capacity, 2)];
+					else if (topSize == top.length)
+						top = Arrays.copyOf(top, Math.min(capacity, topSize * 2));
+					i = topSize++;
+				}
+			}
+			
+			// move the hole up past every word ranked after the item, then fill it
+			while (i > 0 && before(item, top[i - 1])) {
+				top[i] = top[i - 1];
+				i--;
+			}
+			top[i] = item;
+			return true;
+		}
+		
+		/**
+		 * Removes a word from the top list, refilling a full list with the best word left out of it.
+		 * The lists of the children must already be up to date.
+		 * @param item node of the word.
+		 * @param capacity maximum length of the list.
+		 * @return true if the list changed, false if the word was not in it, and so not in the lists of any ancestor.
+		 */
+		boolean demote(Node item, int capacity) {
+			int i = indexInTop(item);
+			if (i < 0)
+				return false;
+			
+			boolean full = (topSize == capacity);
+			topSize--;
+			System.arraycopy(top, i + 1, top, i, topSize - i);
+			top[topSize] = null;
+			if (!full) // the list already held every word of the sub-tree
+				return true;
+			
+			// the list is a prefix of the ranking, the next word is the best one ranked after its last word
+			Node last = (topSize == 0) ? null : top[topSize - 1];
+			Node best = (count > 0 && (last == null || before(last, this))) ? this : null;
+			for (int c = 0; c < childCount; c++) {
+				Node child = children[c];
+				for (int j = 0; j < child.topSize; j++) {
+					Node candidate = child.top[j];
+					if (last == null || before(last, candidate)) { // first word of the child not already in the list
+						if (best == null || before(candidate, best))
+							best = candidate;
+						break;
+					}
+				}
+			}
+			if (best != null)
+				top[topSize++] = best;
+			return true;
+		}
+	}
+	
+	private static final class Ranked implements Comparable<Ranked> {
+		final String word;
+		final int count;
+		
+		Ranked(String word, int count) {
+			this.word = word;
+			this.count = count;
+		}
+		
+		@Override
+		public int compareTo(Ranked other) { // greater is more added, ties go to the lexicographically first word
+			if (count != other.count)
+				return (count < other.count) ? -1 : 1;
+			return other.word.compareTo(word);
+		}
+	}
+	
+	private final class PrefixIterator implements Iterator<String> {
+		private final int prefixLength;
+		private char[] currentWord; // prefix followed by the chars leading to the current node
+		private Node[] nodes = new Node[16]; // nodes from the prefix node down to the current node
+		private int[] next = new int[16]; // next child to visit of each node in nodes, -1 if its own word has not been checked
+		private int depth; // depth of the current node below the prefix node, -1 when finished
+		private String nextWord = null;
+		
+		PrefixIterator(String prefix, Node node) {
+			prefixLength = prefix.length();
+			currentWord = Arrays.copyOf(prefix.toCharArray(), prefixLength + 16);
+			nodes[0] = node;
+			next[0] = -1;
+			depth = (node == null) ? -1 : 0;
+			advance();
+		}
+		
+		/**
+		 * Walks the sub-tree in pre-order up to the next node storing a word.
+		 */
+		private void advance() {
+			while (depth >= 0) {
+				Node node = nodes[depth];
+				int i = next[depth]++;
+				if (i < 0) { // check the node's own word before its children
+					if (node.count > 0) {
+						nextWord = new String(currentWord, 0, prefixLength + depth);
+						return;
+					}
+				} else if (i < node.childCount) { // descend into the next child
+					if (depth + 1 == nodes.length) {
+						nodes = Arrays.copyOf(nodes, nodes.length * 2);
+						next = Arrays.copyOf(next, next.length * 2);
+					}
+					if (prefixLength + depth == currentWord.length)
+						currentWord = Arrays.copyOf(currentWord, currentWord.length * 2);
+					currentWord[prefixLength + depth] = node.keys[i];
+					depth++;
+					nodes[depth] = node.children[i];
+					next[depth] = -1;
+				} else { // every child visited, go back up
+					nodes[depth] = null;
+					depth--;
+				}
+			}
+			nextWord = null;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return nextWord != null;
+		}
+		
+		@Override
+		public String next() {
+			if (nextWord == null)
+				throw new NoSuchElementException();
+			String word = nextWord;
+			advance();
+			return word;
+		}
+	}
+	
+	/**
+	 * Creates an empty trie keeping no top lists, topKByCount() searches the whole sub-tree of the prefix.
+	 */
+	public Trie() {
+		this(0);
+	}
+	
+	/**
+	 * Creates an empty trie keeping, in every node, the cacheSize most added words of its sub-tree.
+	 * @param cacheSize largest k for which topKByCount() reads a cached list, 0 for no caching.
+	 */
+	public Trie(int cacheSize) {
+		this.cacheSize = Math.max(0, cacheSize);
+	}
+	
+	/**
+	 * Returns true if word a ranks before word b, more added first, ties in lexicographic order.
+	 * @param a node of the first word.
+	 * @param b node of the second word.
+	 * @return true if a ranks before b, false if not.
+	 */
+	private static boolean before(Node a, Node b) {
+		if (a.count != b.count)
+			return a.count > b.count;
+		return a.word.compareTo(b.word) < 0;
 	}
 	
 	/**
@@ -26,29 +291,47 @@ public final class Trie {
 	 * @return true if the string has not previously been added to the trie, false if it has.
 	 */
 	public boolean add(String word) {
-		return add(word, root);
+		int length = word.length();
+		if (path.length <= length)
+			path = new Node[Math.max(length + 1, path.length * 2)];
+		
+		Node node = root;
+		path[0] = root;
+		for (int i = 0; i < length; i++) {
+			node = node.addChild(word.charAt(i));
+			path[i + 1] = node;
+		}
+		
+		// arrived at correct node
+		node.count++;
+		boolean added = (node.count == 1);
+		if (added) {
+			size++;
+			longest = Math.max(longest, length);
+			for (int depth = 0; depth <= length; depth++)
+				path[depth].words++;
+			if (cacheSize > 0)
+				node.word = word;
+		}
+		
+		// update the top lists from the bottom up, until one is left unchanged
+		if (cacheSize > 0)
+			for (int depth = length; depth >= 0 && path[depth].promote(node, cacheSize); depth--);
+		
+		Arrays.fill(path, 0, length + 1, null); // let go of the references
+		return added;
 	}
 	
 	/**
-	 * Add the specified string to the trie, starting search from node.
-	 * @param word current suffix of the word to be added.
-	 * @param node root of the tree/sub-tree to search.
-	 * @return true if the string has not previously been added to the trie, false if it has.
+	 * Internal function returning the node reached by the specified string.
+	 * @param word search string.
+	 * @return the node reached by the string, or null if there is none.
 	 */
-	private boolean add(String word, Node node) {
-		if (word.length() > 0) { // still more to traverse
-			char nextChar = word.charAt(0);
-			if (! node.children.containsKey(nextChar))
-				node.children.put(nextChar, new Node());
-			return add(word.substring(1), node.children.get(nextChar));
-		} else { // arrived at correct node
-			node.count++;
-			if (node.count == 1) {
-				size++;
-				return true;
-			}
-			return false;
-		}
+	private Node find(String word) {
+		Node node = root;
+		for (int i = 0; i < word.length() && node != null; i++)
+			node = node.child(word.charAt(i));
+		return node;
 	}
 	
 	/**
@@ -57,67 +340,195 @@ public final class Trie {
 	 * @return true if the string was found in the trie and removed, false if not.
 	 */
 	public boolean remove(String word) {
-		return remove(word, root);
-	}
-	
-	/**
-	 * Remove the specified string from the trie, if it exists, starting search from node.
-	 * @param word current suffix of the word to be removed.
-	 * @param node root of the tree/sub-tree to search.
-	 * @return true if the string was found in the trie and removed, false if not.
-	 */
-	private boolean remove(String word, Node node) {
-		boolean flag;
-		char nextChar;
-		Node child;
+		int length = word.length();
+		if (path.length <= length)
+			path = new Node[Math.max(length + 1, path.length * 2)];
 		
-		if (word.length() > 0) { // still more to traverse
-			nextChar = word.charAt(0);
-			if (! node.children.containsKey(nextChar))
+		Node node = root;
+		path[0] = root;
+		for (int i = 0; i < length; i++) {
+			node = node.child(word.charAt(i));
+			if (node == null)
 				return false; // word does not exist in the trie
-			child = node.children.get(nextChar);
-			flag = remove(word.substring(1), child);
-		} else { // arrived at correct node
-			if (node.count > 0) {
-				node.count = 0;
-				size--;
-				return true;
-			}
+			path[i + 1] = node;
+		}
+		
+		// arrived at correct node
+		if (node.count == 0)
 			return false;
+		node.count = 0;
+		size--;
+		for (int depth = 0; depth <= length; depth++)
+			path[depth].words--;
+		
+		// remove empty branches from the trie, from the bottom up, while a node does not store a word and has no children
+		int depth = length;
+		while (depth > 0 && path[depth].count == 0 && path[depth].childCount == 0) {
+			path[depth - 1].removeChild(word.charAt(depth - 1));
+			depth--;
 		}
 		
-		// remove empty branches from the trie
-		if (flag == true) {
-			if (child.children.isEmpty() && child.count == 0) // if child does not store a word and has no grandchildren then remove it
-				node.children.remove(nextChar);
+		// update the top lists of the remaining nodes from the bottom up, until one did not hold the word
+		if (cacheSize > 0) {
+			for (; depth >= 0 && path[depth].demote(node, cacheSize); depth--);
+			node.word = null;
 		}
-		return flag;
+		Arrays.fill(path, 0, length + 1, null); // let go of the references
+		return true;
 	}
-
+	
 	/**
 	 * Returns number of times word has been added.
 	 * @param word search string.
 	 * @return number of times word has been added, 0 if not found.
 	 */
 	public int contains(String word) {
-		return contains(word, root);
+		Node node = find(word);
+		return (node == null) ? 0 : node.count;
 	}
 	
 	/**
-	 * Returns number of times word has been added, starting search from node.
-	 * @param word current suffix of the search string.
-	 * @param node root of the tree/sub-tree to search.
-	 * @return number of times word has been added, 0 if not found.
+	 * Returns the number of words starting with the prefix.
+	 * Time: O(|prefix|)
+	 * @param prefix search prefix, the empty string matches every word.
+	 * @return the number of distinct words starting with the prefix, including the prefix itself if it is a word.
+	 */
+	public int countWithPrefix(String prefix) {
+		Node node = find(prefix);
+		return (node == null) ? 0 : node.words;
+	}
+	
+	/**
+	 * Returns an iterator over the words starting with the prefix, in lexicographic order.
+	 * Words are found as the iterator advances, so reading the first few words of a large sub-tree costs only those few.
+	 * The trie must not be modified while the iterator is in use.
+	 * @param prefix search prefix, the empty string matches every word.
+	 * @return an iterator over the words starting with the prefix, empty if there are none.
+	 */
+	public Iterator<String> keysWithPrefix(String prefix) {
+		return new PrefixIterator(prefix, find(prefix));
+	}
+	
+	/**
+	 * Returns the k most added words starting with the prefix, most added first, ties in lexicographic order.
+	 * For k up to the cache size the cached list of the prefix node is read, in O(|prefix| + k),
+	 * larger k, or a trie without caching, search the sub-tree of the prefix in O(w log k), where w is the number of words under it.
+	 * @param prefix search prefix, the empty string matches every word.
+	 * @param k maximum number of words returned.
+	 * @return array of at most k words, empty if there are none.
+	 */
+	public String[] topKByCount(String prefix, int k) {
+		Node node = find(prefix);
+		if (node == null || node.words == 0 || k <= 0)
+			return new String[0];
+		
+		if (k <= cacheSize) {
+			String[] array = new String[Math.min(k, node.topSize)];
+			for (int i = 0; i < array.length; i++)
+				array[i] = node.top[i].word;
+			return array;
+		}
+		
+		char[] currentWord = Arrays.copyOf(prefix.toCharArray(), prefix.length() + 16);
+		TopK<Ranked> topK = new TopK<Ranked>(k);
+		topKPreOrder(topK, currentWord, prefix.length(), node);
+		
+		Ranked[] ranked = topK.toSortedArray();
+		String[] array = new String[ranked.length];
+		for (int i = 0; i < ranked.length; i++)
+			array[i] = ranked[i].word;
+		return array;
+	}
+	
+	/**
+	 * Offer every word of the sub-tree to the accumulator, in lexicographic order.
+	 * Words are visited in order, so a word no more added than the least kept loses the tie, and its string is never built.
+	 * @param topK accumulator of the most added words.
+	 * @param currentWord buffer holding the current word prefix.
+	 * @param length length of the current word prefix.
+	 * @param node root of the sub-tree to search.
+	 */
+	private void topKPreOrder(TopK<Ranked> topK, char[] currentWord, int length, Node node) {
+		if (node.count > 0 && (topK.size() < topK.capacity() || node.count > topK.peek().count))
+			topK.offer(new Ranked(new String(currentWord, 0, length), node.count));
+		
+		if (node.childCount > 0 && length == currentWord.length)
+			currentWord = Arrays.copyOf(currentWord, length * 2);
+		for (int i = 0; i < node.childCount; i++) {
+			currentWord[length] = node.keys[i];
+			topKPreOrder(topK, currentWord, length + 1, node.children[i]);
+		}
+	}
+	
+	/**
+	 * Returns every word within maxEdits single char insertions, deletions or substitutions of the search word (Levenshtein distance).
+	 * The trie is walked once, each node extending its parent's row of the edit distance table by one char, so a prefix shared by many words is scored once.
+	 * A branch is pruned as soon as every entry of its row exceeds maxEdits, and only the band of maxEdits entries on each side of the diagonal is computed.
+	 * Time: O(v e) where v is the number of nodes visited, e is maxEdits, instead of one contains() per generated candidate.
+	 * @param word search string.
+	 * @param maxEdits maximum edit distance, any distance from the length of the search word or of the longest word up matches every word.
+	 * @return array of the words within maxEdits of word in lexicographic order, empty if there are none.
 	 */
-	private int contains(String word, Node node) {
-		if (word.length() > 0) {
-			char nextChar = word.charAt(0);
-			if (! node.children.containsKey(nextChar))
-				return 0;
-			else
-				return contains(word.substring(1), node.children.get(nextChar));
-		} else // arrived at correct node
-			return node.count;
+	public String[] fuzzySearch(String word, int maxEdits) {
+		if (maxEdits < 0)
+			return new String[0];
+		
+		int m = word.length();
+		maxEdits = Math.min(maxEdits, Math.max(m, longest)); // no word is further than this, so a larger limit changes nothing
+		int cap = maxEdits + 1; // entries are capped here, any greater distance is as good as pruned
+		int[][] rows = new int[Math.min(m + maxEdits, longest) + 1][m + 1]; // one row per depth, no word longer than m + maxEdits can match
+		for (int j = 0; j <= m; j++)
+			rows[0][j] = Math.min(j, cap);
+		
+		ArrayList<String> result = new ArrayList<String>();
+		if (root.count > 0 && rows[0][m] <= maxEdits)
+			result.add("");
+		if (rows.length > 1) // some word may be long enough to match
+			fuzzyPreOrder(result, word, maxEdits, rows, new char[rows.length], 1, root);
+		return result.toArray(new String[result.size()]);
+	}
+	
+	/**
+	 * Extend the edit distance table through every child of the node, collecting the words in range, in order.
+	 * @param result list of the words found.
+	 * @param word search string.
+	 * @param maxEdits maximum edit distance.
+	 * @param rows edit distance table, row d holds the distances from the first d chars of the current word to each prefix of the search string.
+	 * @param currentWord buffer holding the current word prefix.
+	 * @param depth depth of the children of the node, the row to fill.
+	 * @param node node whose children are visited.
+	 */
+	private void fuzzyPreOrder(ArrayList<String> result, String word, int maxEdits, int[][] rows, char[] currentWord, int depth, Node node) {
+		int m = word.length();
+		int cap = maxEdits + 1;
+		int lo = Math.max(1, depth - maxEdits); // band of entries within maxEdits of the diagonal
+		int hi = Math.min(m, depth + maxEdits);
+		int[] previous = rows[depth - 1];
+		int[] row = rows[depth];
+		
+		for (int i = 0; i < node.childCount; i++) {
+			char c = node.keys[i];
+			row[0] = Math.min(depth, cap);
+			if (lo > 1)
+				row[lo - 1] = cap;
+			int min = row[lo - 1];
+			for (int j = lo; j <= hi; j++) {
+				int distance = previous[j - 1] + ((word.charAt(j - 1) == c) ? 0 : 1); // match or substitution
+				distance = Math.min(distance, previous[j] + 1); // insertion
+				distance = Math.min(distance, row[j - 1] + 1); // deletion
+				row[j] = Math.min(distance, cap);
+				min = Math.min(min, row[j]);
+			}
+			if (hi < m)
+				row[hi + 1] = cap; // just outside the band, read by the next row
+			
+			currentWord[depth - 1] = c;
+			Node child = node.children[i];
+			if (child.count > 0 && hi == m && row[m] <= maxEdits)
+				result.add(new String(currentWord, 0, depth));
+			if (min <= maxEdits && child.childCount > 0 && depth + 1 < rows.length)
+				fuzzyPreOrder(result, word, maxEdits, rows, currentWord, depth + 1, child); // recursion
+		}
 	}
 	
 	/**
@@ -126,12 +537,10 @@ public final class Trie {
 	 */
 	public String[] toArray() {
 		String[] array = new String[size];
-		int index = 0;
-		String currentWord = "";
-		if (root.children.isEmpty())
+		if (root.childCount == 0 && root.count == 0)
 			return array;
-		else
-			toArrayPreOrder(array, index, currentWord, root);
+		
+		toArrayPreOrder(array, 0, new char[16], 0, root);
 		return array;
 	}
 	
@@ -139,28 +548,106 @@ public final class Trie {
 	 * Copy strings to array in order, starting search from node.
 	 * @param array array to copy entries into while traversing.
 	 * @param index current array index position.
-	 * @param currentWord current word prefix.
+	 * @param currentWord buffer holding the current word prefix.
+	 * @param length length of the current word prefix.
 	 * @param node root of the tree/sub-tree to search.
 	 * @return next array index position.
 	 */
-	private int toArrayPreOrder(String[] array, int index, String currentWord, Node node) {
-		if (node.count > 0) {
-			array[index++] = currentWord;
-		}
-		for (Map.Entry<Character, Node> entry : node.children.entrySet()) { // iterate through children
-			String newWord = currentWord; // copy
-			newWord += entry.getKey(); // add next letter
-			index = toArrayPreOrder(array, index, newWord, entry.getValue()); // recursion
+	private int toArrayPreOrder(String[] array, int index, char[] currentWord, int length, Node node) {
+		if (node.count > 0)
+			array[index++] = new String(currentWord, 0, length);
+		
+		if (node.childCount > 0 && length == currentWord.length)
+			currentWord = Arrays.copyOf(currentWord, length * 2);
+		for (int i = 0; i < node.childCount; i++) { // iterate through children in order
+			currentWord[length] = node.keys[i]; // add next letter
+			index = toArrayPreOrder(array, index, currentWord, length + 1, node.children[i]); // recursion
 		}
 		return index;
 	}
 	
+	/**
+	 * Returns a read-only snapshot of the trie as a path-compressed radix tree in one flat buffer, which can be saved to a file and mapped back in.
+	 * Later changes to the trie do not affect the snapshot.
+	 * Time: O(n) where n is the number of nodes.
+	 * @return the snapshot, or null if it would exceed 2GB.
+	 */
+	public FrozenTrie freeze() {
+		long length = FrozenTrie.HEADER_SIZE + freezeSize(root, 0);
+		if (length > Integer.MAX_VALUE)
+			return null;
+		
+		ByteBuffer buffer = ByteBuffer.allocate((int) length);
+		buffer.putInt(FrozenTrie.MAGIC);
+		buffer.putInt(size);
+		buffer.putInt((int) length);
+		buffer.putInt(0);
+		freezePreOrder(buffer, root, new char[16], 0); // label buffer, shared down the recursion
+		return new FrozenTrie(buffer);
+	}
+	
+	/**
+	 * Returns the number of bytes of the records of the sub-tree once path-compressed.
+	 * @param node last node of the branch merged into the record.
+	 * @param labelLength number of chars of the branch.
+	 * @return the number of bytes of the records.
+	 */
+	private long freezeSize(Node node, int labelLength) {
+		long bytes = 4 + 2 * labelLength + 12 + 6 * node.childCount;
+		for (int i = 0; i < node.childCount; i++) {
+			Node child = node.children[i];
+			int length = 1;
+			for (; child.count == 0 && child.childCount == 1; length++)
+				child = child.children[0];
+			bytes += freezeSize(child, length);
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Write the records of the sub-tree to the buffer, in pre-order so that they lie in lexicographic order.
+	 * @param buffer buffer to write into, at its position.
+	 * @param node last node of the branch merged into the record.
+	 * @param label chars of the branch, reused for the labels of the children once written.
+	 * @param labelLength number of chars of the branch.
+	 * @return offset of the record written for node.
+	 */
+	private int freezePreOrder(ByteBuffer buffer, Node node, char[] label, int labelLength) {
+		int offset = buffer.position();
+		buffer.putInt(labelLength);
+		for (int i = 0; i < labelLength; i++)
+			buffer.putChar(label[i]);
+		buffer.putInt(node.count);
+		buffer.putInt(node.words);
+		buffer.putInt(node.childCount);
+		for (int i = 0; i < node.childCount; i++)
+			buffer.putChar(node.keys[i]);
+		
+		// child offsets are filled in as the children are written after this record
+		int offsets = buffer.position();
+		buffer.position(offsets + 4 * node.childCount);
+		for (int i = 0; i < node.childCount; i++) {
+			Node child = node.children[i];
+			int length = 1;
+			label[0] = node.keys[i];
+			for (; child.count == 0 && child.childCount == 1; length++) {
+				if (length == label.length)
+					label = Arrays.copyOf(label, length * 2);
+				label[length] = child.keys[0];
+				child = child.children[0];
+			}
+			buffer.putInt(offsets + 4 * i, freezePreOrder(buffer, child, label, length));
+		}
+		return offset;
+	}
+	
 	/**
 	 * Clear the trie;
 	 */
 	public void clear() {
 		root = new Node();
 		size = 0;
+		longest = 0;
 	}
 	
 	/**